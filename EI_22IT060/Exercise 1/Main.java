@@ -2,17 +2,23 @@
 import adapter.HeaterAdapter;
 import adapter.LegacyHeater;
 import devices.Device;
+import devices.DeviceType;
 import facade.SmartHomeFacade;
 import observer.Observer;
+import registry.DeviceQuery;
 import strategy.*;
 
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
-        SmartHomeFacade facade = new SmartHomeFacade();
-        Scanner sc = new Scanner(System.in);
+        // waits for the status display, so its line comes before the next menu
+        try (SmartHomeFacade facade = new SmartHomeFacade(true)) {
+            run(facade, new Scanner(System.in));
+        }
+    }
 
+    private static void run(SmartHomeFacade facade, Scanner sc) {
         Observer statusDisplay = state -> System.out.println("Status Display: Devices are " + state);
         facade.addDeviceObserver(statusDisplay);
 
@@ -31,15 +37,28 @@ public class Main {
                 case 1 -> {
                     System.out.print("Enter device name (Light/Fan/Thermostat): ");
                     String type = sc.nextLine();
-                    Device device = facade.createDevice(type);
-                    if (device != null) facade.turnDeviceOn(device);
-                    else System.out.println("Invalid device type.");
+                    if (DeviceType.parse(type) == null) {
+                        System.out.println("Invalid device type.");
+                        break;
+                    }
+                    System.out.print("Enter room: ");
+                    String room = sc.nextLine();
+                    if (room.isBlank()) room = "Home";
+                    int id = facade.registerDevice(type, room);
+                    facade.turnDeviceOn(id);
+                    System.out.println("Device ID: " + id);
                 }
                 case 2 -> {
-                    System.out.print("Enter device name to turn OFF: ");
-                    String type = sc.nextLine();
-                    Device device = facade.createDevice(type);
-                    if (device != null) facade.turnDeviceOff(device);
+                    System.out.print("Enter device ID or room to turn OFF: ");
+                    String input = sc.nextLine().trim();
+                    if (!input.isEmpty() && input.chars().allMatch(Character::isDigit)) {
+                        if (!facade.turnDeviceOff(Integer.parseInt(input))) System.out.println("No device with ID " + input + ".");
+                    } else {
+                        DeviceQuery room = DeviceQuery.all().room(input);
+                        facade.turnOff(room);
+                        System.out.println(facade.countDevicesOn(room) + " of " + facade.countDevices(room)
+                                + " devices in " + input + " are ON.");
+                    }
                 }
                 case 3 -> {
                     System.out.print("Choose mode (eco/normal): ");
@@ -0,0 +1,40 @@
+// devices/DeviceType.java
+package devices;
+
+/**
+ * The kinds of device DeviceFactory can make. Devices carry no state of their
+ * own, so each type shares one instance (a flyweight) however many devices of
+ * that type are registered.
+ */
+public enum DeviceType {
+    LIGHT(new Light()),
+    FAN(new Fan()),
+    THERMOSTAT(new Thermostat());
+
+    private static final DeviceType[] VALUES = values();
+
+    private final Device device;
+
+    DeviceType(Device device) {
+        this.device = device;
+    }
+
+    /** The shared device behaviour for this type. */
+    public Device device() {
+        return device;
+    }
+
+    public static DeviceType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /** The type named by {@code name}, ignoring case, or null if there is none. */
+    public static DeviceType parse(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "light" -> LIGHT;
+            case "fan" -> FAN;
+            case "thermostat" -> THERMOSTAT;
+            default -> null;
+        };
+    }
+}
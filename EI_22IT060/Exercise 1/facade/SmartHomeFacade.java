@@ -2,15 +2,37 @@
 package facade;
 
 import devices.Device;
+import devices.DeviceType;
 import factory.DeviceFactory;
-import observer.DeviceController;
+import observer.ConcurrentDeviceController;
 import observer.Observer;
+import registry.DeviceQuery;
+import registry.DeviceRegistry;
+import registry.RegisteredDevice;
 import singleton.Logger;
 import strategy.EnergyMode;
 
-public class SmartHomeFacade {
+/**
+ * Single entry point to the smart home. Observers are notified through a
+ * ConcurrentDeviceController whose threads the facade owns, so close it when done.
+ */
+public class SmartHomeFacade implements AutoCloseable {
     private final Logger logger = Logger.getInstance();
-    private final DeviceController controller = new DeviceController();
+    private final ConcurrentDeviceController controller;
+    private final DeviceRegistry registry = new DeviceRegistry();
+
+    /** Notifies observers without waiting for them. */
+    public SmartHomeFacade() {
+        this(false);
+    }
+
+    /**
+     * @param waitForDelivery whether each command waits (up to a second) until
+     *                        every observer has handled its notification
+     */
+    public SmartHomeFacade(boolean waitForDelivery) {
+        controller = new ConcurrentDeviceController(waitForDelivery);
+    }
 
     public void addDeviceObserver(Observer device) {
         controller.attach(device);
@@ -34,8 +56,119 @@ public class SmartHomeFacade {
         logger.log(device.getClass().getSimpleName() + " turned OFF.");
     }
 
+    /** Registers a device of {@code type} in {@code room} and returns its ID; {@code group} may be null. */
+    public int registerDevice(String type, String room, String group) {
+        DeviceType t = DeviceType.parse(type);
+        if (t == null) throw new IllegalArgumentException("Unknown device type: " + type);
+        int id = registry.register(t, room, group);
+        logger.log(name(t) + " #" + id + " registered in " + room.trim() + ".");
+        return id;
+    }
+
+    public int registerDevice(String type, String room) {
+        return registerDevice(type, room, null);
+    }
+
+    public boolean removeDevice(int id) {
+        return registry.remove(id);
+    }
+
+    /** The registered device with this ID, or null. */
+    public RegisteredDevice findDevice(int id) {
+        return registry.get(id);
+    }
+
+    /** Turns the registered device on, if it is off; false if there is no device with that ID. */
+    public boolean turnDeviceOn(int id) {
+        DeviceType t = registry.typeOf(id);
+        if (t == null) return false;
+        if (!registry.setOn(id, true)) return true;
+        t.device().turnOn();
+        controller.notifyObservers("ON");
+        logger.log(name(t) + " #" + id + " turned ON.");
+        return true;
+    }
+
+    /** Turns the registered device off, if it is on; false if there is no device with that ID. */
+    public boolean turnDeviceOff(int id) {
+        DeviceType t = registry.typeOf(id);
+        if (t == null) return false;
+        if (!registry.setOn(id, false)) return true;
+        t.device().turnOff();
+        controller.notifyObservers("OFF");
+        logger.log(name(t) + " #" + id + " turned OFF.");
+        return true;
+    }
+
+    /**
+     * Turns on every matching device that is off and returns how many changed.
+     * Observers hear about the command only if something changed.
+     */
+    public int turnOn(DeviceQuery query) {
+        return changed(registry.setOn(query, true), "ON", query + " turned ON");
+    }
+
+    /** Turns off every matching device that is on and returns how many changed. */
+    public int turnOff(DeviceQuery query) {
+        return changed(registry.setOn(query, false), "OFF", query + " turned OFF");
+    }
+
+    /** Sets the setpoint of the matching thermostats and returns how many changed. */
+    public int setThermostats(DeviceQuery query, double celsius) {
+        return changed(registry.setSetpoint(query, celsius), "SETPOINT " + celsius,
+                query + " set to " + celsius + " C");
+    }
+
+    /** Sets the speed of the matching fans and returns how many changed. */
+    public int setFanSpeed(DeviceQuery query, int speed) {
+        return changed(registry.setFanSpeed(query, speed), "FAN SPEED " + speed,
+                query + " set to speed " + speed);
+    }
+
+    private int changed(int count, String state, String what) {
+        if (count > 0) {
+            controller.notifyObservers(state);
+            logger.log(count + " " + what + ".");
+        }
+        return count;
+    }
+
+    public int countDevices(DeviceQuery query) {
+        return registry.count(query);
+    }
+
+    public int countDevicesOn(DeviceQuery query) {
+        return registry.countOn(query);
+    }
+
+    public int[] devicesOfType(DeviceType type) {
+        return registry.idsOfType(type);
+    }
+
+    public int[] devicesInRoom(String room) {
+        return registry.idsInRoom(room);
+    }
+
+    public int[] devicesInGroup(String group) {
+        return registry.idsInGroup(group);
+    }
+
+    public int deviceCount() {
+        return registry.size();
+    }
+
+    private static String name(DeviceType type) {
+        return type.device().getClass().getSimpleName();
+    }
+
     public void applyEnergyMode(EnergyMode mode) {
         mode.applyMode();
         logger.log("Energy mode applied.");
     }
+
+    /** Stops the observer threads; notifications still queued may be dropped. */
+    @Override
+    public void close() {
+        controller.close();
+    }
 }
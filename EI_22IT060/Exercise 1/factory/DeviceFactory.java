@@ -4,12 +4,9 @@ package factory;
 import devices.*;
 
 public class DeviceFactory {
+    /** The shared instance for {@code type}; devices are stateless, so one per type is enough. */
     public static Device createDevice(String type) {
-        return switch (type.toLowerCase()) {
-            case "light" -> new Light();
-            case "fan" -> new Fan();
-            case "thermostat" -> new Thermostat();
-            default -> null;
-        };
+        DeviceType t = DeviceType.parse(type);
+        return t == null ? null : t.device();
     }
 }
@@ -0,0 +1,209 @@
+// observer/ConcurrentDeviceController.java
+package observer;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe Subject that delivers notifications to its observers in parallel.
+ *
+ * attach/detach swap an immutable array with compare-and-set, so registration
+ * never locks and a notification always sees a consistent set of observers.
+ * Each observer has its own bounded mailbox drained by one task at a time, so it
+ * gets its updates in order and a slow observer only backs up its own mailbox;
+ * once that is full, further updates for it are dropped (see getDroppedCount).
+ * An exception from update is counted and does not reach the caller.
+ *
+ * notifyObservers waits for delivery or returns at once depending on the
+ * constructor; notifyAndWait and post choose per call.
+ */
+public class ConcurrentDeviceController implements Subject, AutoCloseable {
+    private static final Mailbox[] NONE = new Mailbox[0];
+
+    private final AtomicReference<Mailbox[]> mailboxes = new AtomicReference<>(NONE);
+    private final Executor executor;
+    private final ExecutorService owned;
+    private final int mailboxCapacity;
+    private final boolean waitForDelivery;
+    private final long timeoutNanos;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * notifyObservers returns without waiting for the observers, as
+     * SmartHomeFacade does by default; runs them on virtual threads where available.
+     */
+    public ConcurrentDeviceController() {
+        this(false);
+    }
+
+    /** With {@code waitForDelivery}, notifyObservers waits up to a second for every observer. */
+    public ConcurrentDeviceController(boolean waitForDelivery) {
+        this(null, 1024, waitForDelivery, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param executor runs observer updates; null for virtual threads (or a
+     *                 cached daemon pool before Java 21), shut down by close
+     * @param timeout  how long a waiting notifyObservers gives slow observers
+     */
+    public ConcurrentDeviceController(Executor executor, int mailboxCapacity, boolean waitForDelivery,
+                                      long timeout, TimeUnit unit) {
+        if (mailboxCapacity < 1) throw new IllegalArgumentException("Mailbox capacity must be positive.");
+        if (timeout < 0) throw new IllegalArgumentException("Timeout must not be negative.");
+        this.owned = executor == null ? newDefaultExecutor() : null;
+        this.executor = executor == null ? owned : executor;
+        this.mailboxCapacity = mailboxCapacity;
+        this.waitForDelivery = waitForDelivery;
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    @Override
+    public void attach(Observer o) {
+        if (o == null) throw new IllegalArgumentException("Observer must not be null.");
+        Mailbox box = new Mailbox(o);
+        while (true) {
+            Mailbox[] cur = mailboxes.get();
+            Mailbox[] next = Arrays.copyOf(cur, cur.length + 1);
+            next[cur.length] = box;
+            if (mailboxes.compareAndSet(cur, next)) return;
+        }
+    }
+
+    /** Removes the first registration of {@code o}; updates already queued for it are still delivered. */
+    @Override
+    public void detach(Observer o) {
+        while (true) {
+            Mailbox[] cur = mailboxes.get();
+            int i = 0;
+            while (i < cur.length && !cur[i].observer.equals(o)) i++;
+            if (i == cur.length) return;
+            Mailbox[] next = cur.length == 1 ? NONE : new Mailbox[cur.length - 1];
+            System.arraycopy(cur, 0, next, 0, i);
+            System.arraycopy(cur, i + 1, next, i, cur.length - i - 1);
+            if (mailboxes.compareAndSet(cur, next)) return;
+        }
+    }
+
+    @Override
+    public void notifyObservers(String state) {
+        if (!waitForDelivery) {
+            post(state);
+            return;
+        }
+        try {
+            notifyAndWait(state, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Queues {@code state} for every observer and returns without waiting. */
+    public void post(String state) {
+        for (Mailbox box : mailboxes.get()) box.offer(new Message(state, null));
+    }
+
+    /**
+     * Queues {@code state} for every observer and waits until each has handled it
+     * (or dropped it), at most {@code timeout}.
+     *
+     * @return false if some observer had not finished when the timeout ran out
+     */
+    public boolean notifyAndWait(String state, long timeout, TimeUnit unit) throws InterruptedException {
+        Mailbox[] boxes = mailboxes.get();
+        if (boxes.length == 0) return true;
+        CountDownLatch done = new CountDownLatch(boxes.length);
+        for (Mailbox box : boxes) box.offer(new Message(state, done));
+        return done.await(timeout, unit);
+    }
+
+    public int getObserverCount() { return mailboxes.get().length; }
+    /** Updates discarded because an observer's mailbox was full. */
+    public long getDroppedCount() { return dropped.get(); }
+    /** Updates whose observer threw. */
+    public long getFailedCount() { return failed.get(); }
+
+    /** Shuts down the executor this controller created; a supplied executor is left alone. */
+    @Override
+    public void close() {
+        if (owned != null) owned.shutdown();
+    }
+
+    private static ExecutorService newDefaultExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // a pool with a fixed worker count would let one blocked observer starve the rest
+            AtomicInteger n = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread th = new Thread(r, "device-observer-" + n.incrementAndGet());
+                th.setDaemon(true);
+                return th;
+            });
+        }
+    }
+
+    private record Message(String state, CountDownLatch done) {}
+
+    private final class Mailbox implements Runnable {
+        private final Observer observer;
+        private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(Observer observer) {
+            this.observer = observer;
+        }
+
+        void offer(Message m) {
+            if (size.incrementAndGet() > mailboxCapacity) {
+                size.decrementAndGet();
+                dropped.incrementAndGet();
+                if (m.done != null) m.done.countDown();
+                return;
+            }
+            queue.add(m);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+
+        @Override
+        public void run() {
+            Message m;
+            while ((m = queue.poll()) != null) {
+                size.decrementAndGet();
+                try {
+                    observer.update(m.state);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    if (m.done != null) m.done.countDown();
+                }
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty()) schedule(); // an offer raced with the end of the loop
+        }
+    }
+}
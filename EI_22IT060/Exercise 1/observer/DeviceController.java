@@ -1,11 +1,11 @@
 // observer/DeviceController.java
 package observer;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DeviceController implements Subject {
-    private final List<Observer> observers = new ArrayList<>();
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
 
     public void attach(Observer o) { observers.add(o); }
     public void detach(Observer o) { observers.remove(o); }
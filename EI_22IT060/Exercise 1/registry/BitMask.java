@@ -0,0 +1,50 @@
+// registry/BitMask.java
+package registry;
+
+import java.util.Arrays;
+
+/**
+ * The device IDs of one type, room or group as a bit set that only stores the
+ * words from its lowest ID onwards. IDs are handed out in increasing order, so
+ * a room whose devices were registered together costs a few words rather than
+ * one bit for every device in the home.
+ */
+final class BitMask {
+    private long[] words = new long[1];
+    private int base;   // word index of words[0]
+    private int length; // words in use
+
+    void set(int id) {
+        int w = id >>> 6;
+        if (length == 0) base = w;
+        int i = w - base;
+        if (i < 0) { // only if IDs were not increasing; shift the words up
+            long[] grown = new long[Math.max(words.length, length - i)];
+            System.arraycopy(words, 0, grown, -i, length);
+            words = grown;
+            length -= i;
+            base = w;
+            i = 0;
+        } else if (i >= length) {
+            if (i >= words.length) words = Arrays.copyOf(words, Math.max(words.length * 2, i + 1));
+            length = i + 1;
+        }
+        words[i] |= 1L << id;
+    }
+
+    void clear(int id) {
+        int i = (id >>> 6) - base;
+        if (i >= 0 && i < length) words[i] &= ~(1L << id);
+    }
+
+    /** Word {@code w} of the mask, covering IDs {@code 64 * w} to {@code 64 * w + 63}. */
+    long word(int w) {
+        int i = w - base;
+        return i >= 0 && i < length ? words[i] : 0L;
+    }
+
+    /** First word that may have a bit set. */
+    int from() { return base; }
+    /** One past the last word that may have a bit set. */
+    int to() { return base + length; }
+}
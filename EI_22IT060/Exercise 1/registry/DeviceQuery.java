@@ -0,0 +1,50 @@
+// registry/DeviceQuery.java
+package registry;
+
+import devices.DeviceType;
+
+/**
+ * Selects registered devices by type, room and group; each criterion given
+ * narrows the selection, e.g. {@code DeviceQuery.all().type(DeviceType.LIGHT).group("Floor 3")}.
+ */
+public final class DeviceQuery {
+    private static final DeviceQuery ALL = new DeviceQuery(null, null, null);
+
+    private final DeviceType type;
+    private final String room;
+    private final String group;
+
+    private DeviceQuery(DeviceType type, String room, String group) {
+        this.type = type;
+        this.room = room;
+        this.group = group;
+    }
+
+    /** Every registered device. */
+    public static DeviceQuery all() {
+        return ALL;
+    }
+
+    public DeviceQuery type(DeviceType type) {
+        return new DeviceQuery(type, room, group);
+    }
+
+    public DeviceQuery room(String room) {
+        return new DeviceQuery(type, room == null ? null : room.trim(), group);
+    }
+
+    public DeviceQuery group(String group) {
+        return new DeviceQuery(type, room, group == null ? null : group.trim());
+    }
+
+    public DeviceType getType() { return type; }
+    public String getRoom() { return room; }
+    public String getGroup() { return group; }
+
+    @Override
+    public String toString() {
+        String s = (type == null ? "devices" : type.toString().toLowerCase() + "s")
+                + (room == null ? "" : " in " + room) + (group == null ? "" : " [" + group + "]");
+        return type == null && room == null && group == null ? "all devices" : s;
+    }
+}
@@ -0,0 +1,205 @@
+// registry/DeviceRegistry.java
+package registry;
+
+import devices.DeviceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registered devices, kept column by column so a million of them cost a few
+ * primitive arrays rather than a million objects. A device is its ID, an index
+ * into those columns that stays the same until it is removed and is never
+ * reused; its behaviour is the DeviceType flyweight and its state lives in a
+ * DeviceStateStore. Room and group names are stored once each and referred to
+ * by number.
+ *
+ * Lookup by ID is O(1). Each type, room and group keeps a BitMask of its
+ * devices, so registering and removing are O(1) as well, and queries and group
+ * commands combine the masks a word at a time.
+ */
+public class DeviceRegistry {
+    private static final int NO_GROUP = -1;
+
+    private byte[] types = new byte[16];
+    private int[] rooms = new int[16];
+    private int[] groups = new int[16];
+    private final DeviceStateStore states = new DeviceStateStore();
+    private int nextId;
+    private int size;
+
+    private final BitMask[] byType = new BitMask[DeviceType.values().length];
+    private final Names roomNames = new Names();
+    private final Names groupNames = new Names();
+
+    public DeviceRegistry() {
+        for (int i = 0; i < byType.length; i++) byType[i] = new BitMask();
+    }
+
+    /** Registers a device, initially off, and returns its ID. {@code group} may be null. */
+    public synchronized int register(DeviceType type, String room, String group) {
+        if (type == null) throw new IllegalArgumentException("Device type must not be null.");
+        if (room == null || room.isBlank()) throw new IllegalArgumentException("Room must not be empty.");
+        int id = nextId++;
+        if (id == types.length) grow();
+        types[id] = (byte) type.ordinal();
+        rooms[id] = roomNames.intern(room.trim());
+        groups[id] = group == null || group.isBlank() ? NO_GROUP : groupNames.intern(group.trim());
+        byType[type.ordinal()].set(id);
+        roomNames.mask(rooms[id]).set(id);
+        if (groups[id] != NO_GROUP) groupNames.mask(groups[id]).set(id);
+        states.add(id, type);
+        size++;
+        return id;
+    }
+
+    /** Removes the device; false if there was none with that ID. */
+    public synchronized boolean remove(int id) {
+        if (!states.contains(id)) return false;
+        byType[types[id]].clear(id);
+        roomNames.mask(rooms[id]).clear(id);
+        if (groups[id] != NO_GROUP) groupNames.mask(groups[id]).clear(id);
+        states.remove(id);
+        size--;
+        return true;
+    }
+
+    public synchronized boolean contains(int id) {
+        return states.contains(id);
+    }
+
+    /** A snapshot of the device, or null if there is none with that ID. */
+    public synchronized RegisteredDevice get(int id) {
+        if (!states.contains(id)) return null;
+        return new RegisteredDevice(id, DeviceType.fromOrdinal(types[id]), roomNames.name(rooms[id]),
+                groups[id] == NO_GROUP ? null : groupNames.name(groups[id]), states.isOn(id),
+                states.getSetpoint(id), states.getFanSpeed(id));
+    }
+
+    public synchronized DeviceType typeOf(int id) {
+        return states.contains(id) ? DeviceType.fromOrdinal(types[id]) : null;
+    }
+
+    public synchronized boolean isOn(int id) {
+        return states.isOn(id);
+    }
+
+    /** Records the device's power state; false if it had that state already or does not exist. */
+    public synchronized boolean setOn(int id, boolean value) {
+        return states.contains(id) && states.setOn(id, value);
+    }
+
+    /** Switches every matching device on or off; returns how many changed state. */
+    public synchronized int setOn(DeviceQuery query, boolean value) {
+        BitMask[] masks = masks(query, null);
+        return masks == null ? 0 : states.setOn(masks, value);
+    }
+
+    /** Sets the setpoint of every matching thermostat; returns how many changed. */
+    public synchronized int setSetpoint(DeviceQuery query, double celsius) {
+        if (!(celsius >= 5 && celsius <= 35)) throw new IllegalArgumentException("Setpoint must be between 5 and 35 degrees C.");
+        BitMask[] masks = masks(query, DeviceType.THERMOSTAT);
+        return masks == null ? 0 : states.setSetpoints(masks, celsius);
+    }
+
+    /** Sets the speed of every matching fan; returns how many changed. */
+    public synchronized int setFanSpeed(DeviceQuery query, int speed) {
+        if (speed < 0 || speed > DeviceStateStore.MAX_FAN_SPEED) {
+            throw new IllegalArgumentException("Fan speed must be between 0 and " + DeviceStateStore.MAX_FAN_SPEED + ".");
+        }
+        BitMask[] masks = masks(query, DeviceType.FAN);
+        return masks == null ? 0 : states.setFanSpeeds(masks, speed);
+    }
+
+    public synchronized int count(DeviceQuery query) {
+        BitMask[] masks = masks(query, null);
+        return masks == null ? 0 : states.count(masks, false);
+    }
+
+    public synchronized int countOn(DeviceQuery query) {
+        BitMask[] masks = masks(query, null);
+        return masks == null ? 0 : states.count(masks, true);
+    }
+
+    /** IDs of the matching devices, in increasing order. */
+    public synchronized int[] ids(DeviceQuery query) {
+        BitMask[] masks = masks(query, null);
+        return masks == null ? new int[0] : states.ids(masks);
+    }
+
+    public int[] idsOfType(DeviceType type) {
+        return ids(DeviceQuery.all().type(type));
+    }
+
+    public int[] idsInRoom(String room) {
+        if (room == null) return new int[0];
+        return ids(DeviceQuery.all().room(room));
+    }
+
+    public int[] idsInGroup(String group) {
+        if (group == null) return new int[0];
+        return ids(DeviceQuery.all().group(group));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * The masks a device must be in to match {@code query}, also restricted to
+     * {@code type} if not null; null if nothing can match, because a named room
+     * or group does not exist or the types conflict.
+     */
+    private BitMask[] masks(DeviceQuery query, DeviceType type) {
+        if (type != null && query.getType() != null && query.getType() != type) return null;
+        if (type == null) type = query.getType();
+        BitMask[] masks = new BitMask[3];
+        int n = 0;
+        if (type != null) masks[n++] = byType[type.ordinal()];
+        if (query.getRoom() != null) {
+            int r = roomNames.find(query.getRoom());
+            if (r < 0) return null;
+            masks[n++] = roomNames.mask(r);
+        }
+        if (query.getGroup() != null) {
+            int g = groupNames.find(query.getGroup());
+            if (g < 0) return null;
+            masks[n++] = groupNames.mask(g);
+        }
+        return Arrays.copyOf(masks, n);
+    }
+
+    private void grow() {
+        int n = types.length * 2;
+        types = Arrays.copyOf(types, n);
+        rooms = Arrays.copyOf(rooms, n);
+        groups = Arrays.copyOf(groups, n);
+    }
+
+    /** Distinct names numbered in order of first use, each with the mask of its devices. */
+    private static final class Names {
+        private final Map<String, Integer> numbers = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<BitMask> masks = new ArrayList<>();
+
+        int intern(String name) {
+            Integer n = numbers.get(name);
+            if (n != null) return n;
+            numbers.put(name, names.size());
+            names.add(name);
+            masks.add(new BitMask());
+            return names.size() - 1;
+        }
+
+        int find(String name) {
+            Integer n = numbers.get(name.trim());
+            return n == null ? -1 : n;
+        }
+
+        String name(int n) { return names.get(n); }
+        BitMask mask(int n) { return masks.get(n); }
+    }
+}
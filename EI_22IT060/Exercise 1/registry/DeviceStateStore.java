@@ -0,0 +1,182 @@
+// registry/DeviceStateStore.java
+package registry;
+
+import devices.DeviceType;
+
+import java.util.Arrays;
+
+/**
+ * Device state by ID, one column per property: a bit per device for "exists"
+ * and "on", tenths of a degree for thermostat setpoints and a byte for fan
+ * speeds. Group commands and counts take the BitMasks of a type, room or group
+ * and work through the bit columns 64 devices at a time, so switching or
+ * counting a million devices touches about 16,000 words.
+ *
+ * Not thread-safe; DeviceRegistry guards it.
+ */
+public final class DeviceStateStore {
+    public static final double DEFAULT_SETPOINT = 21.0;
+    public static final int DEFAULT_FAN_SPEED = 1;
+    public static final int MAX_FAN_SPEED = 5;
+
+    private long[] live = new long[1];
+    private long[] on = new long[1];
+    private short[] setpoints = new short[64];
+    private byte[] fanSpeeds = new byte[64];
+
+    void add(int id, DeviceType type) {
+        if (id >= setpoints.length) grow(id);
+        live[id >>> 6] |= 1L << id;
+        on[id >>> 6] &= ~(1L << id);
+        setpoints[id] = type == DeviceType.THERMOSTAT ? tenths(DEFAULT_SETPOINT) : 0;
+        fanSpeeds[id] = type == DeviceType.FAN ? (byte) DEFAULT_FAN_SPEED : 0;
+    }
+
+    void remove(int id) {
+        live[id >>> 6] &= ~(1L << id);
+        on[id >>> 6] &= ~(1L << id);
+    }
+
+    private void grow(int id) {
+        int n = Math.max(setpoints.length * 2, (id | 63) + 1);
+        setpoints = Arrays.copyOf(setpoints, n);
+        fanSpeeds = Arrays.copyOf(fanSpeeds, n);
+        live = Arrays.copyOf(live, n >>> 6);
+        on = Arrays.copyOf(on, n >>> 6);
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id >>> 6 < live.length && (live[id >>> 6] & 1L << id) != 0;
+    }
+
+    public boolean isOn(int id) {
+        return id >= 0 && id >>> 6 < on.length && (on[id >>> 6] & 1L << id) != 0;
+    }
+
+    /** Setpoint in degrees Celsius; 0 for devices that are not thermostats. */
+    public double getSetpoint(int id) {
+        return contains(id) ? setpoints[id] / 10.0 : 0;
+    }
+
+    /** 0 for devices that are not fans. */
+    public int getFanSpeed(int id) {
+        return contains(id) ? fanSpeeds[id] : 0;
+    }
+
+    /** Sets one device's power state; false if it already had it. */
+    boolean setOn(int id, boolean value) {
+        if (isOn(id) == value) return false;
+        on[id >>> 6] ^= 1L << id;
+        return true;
+    }
+
+    /**
+     * Switches every device in all of {@code masks} on or off, a word at a time,
+     * and returns how many changed state.
+     */
+    int setOn(BitMask[] masks, boolean value) {
+        int changed = 0;
+        int to = to(masks);
+        for (int w = from(masks); w < to; w++) {
+            long flip = select(masks, w) & (value ? ~on[w] : on[w]);
+            on[w] ^= flip;
+            changed += Long.bitCount(flip);
+        }
+        return changed;
+    }
+
+    /** Devices in all of {@code masks}, or only those switched on. */
+    int count(BitMask[] masks, boolean onlyOn) {
+        int n = 0;
+        int to = to(masks);
+        for (int w = from(masks); w < to; w++) {
+            long x = select(masks, w);
+            n += Long.bitCount(onlyOn ? x & on[w] : x);
+        }
+        return n;
+    }
+
+    int[] ids(BitMask[] masks) {
+        IdBuffer ids = new IdBuffer();
+        int to = to(masks);
+        for (int w = from(masks); w < to; w++) ids.addBits(w, select(masks, w));
+        return ids.toArray();
+    }
+
+    /** Sets the setpoint of every device in all of {@code masks}; returns how many changed. */
+    int setSetpoints(BitMask[] masks, double celsius) {
+        short t = tenths(celsius);
+        int changed = 0;
+        int to = to(masks);
+        for (int w = from(masks); w < to; w++) {
+            for (long x = select(masks, w); x != 0; x &= x - 1) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(x);
+                if (setpoints[id] != t) {
+                    setpoints[id] = t;
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /** Sets the speed of every device in all of {@code masks}; returns how many changed. */
+    int setFanSpeeds(BitMask[] masks, int speed) {
+        byte s = (byte) speed;
+        int changed = 0;
+        int to = to(masks);
+        for (int w = from(masks); w < to; w++) {
+            for (long x = select(masks, w); x != 0; x &= x - 1) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(x);
+                if (fanSpeeds[id] != s) {
+                    fanSpeeds[id] = s;
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /** Word {@code w} of the devices that exist and are in every mask. */
+    private long select(BitMask[] masks, int w) {
+        long x = live[w];
+        for (int i = 0; i < masks.length && x != 0; i++) x &= masks[i].word(w);
+        return x;
+    }
+
+    private static int from(BitMask[] masks) {
+        int from = 0;
+        for (BitMask m : masks) from = Math.max(from, m.from());
+        return from;
+    }
+
+    private int to(BitMask[] masks) {
+        int to = live.length;
+        for (BitMask m : masks) to = Math.min(to, m.to());
+        return to;
+    }
+
+    static short tenths(double celsius) {
+        return (short) Math.round(celsius * 10);
+    }
+
+    /** A growable int array for collecting IDs. */
+    private static final class IdBuffer {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        /** Adds the IDs of the bits set in word {@code w}. */
+        void addBits(int w, long bits) {
+            for (; bits != 0; bits &= bits - 1) add((w << 6) + Long.numberOfTrailingZeros(bits));
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// registry/RegisteredDevice.java
+package registry;
+
+import devices.Device;
+import devices.DeviceType;
+
+/** What the registry knew about one device when it was looked up. */
+public final class RegisteredDevice {
+    private final int id;
+    private final DeviceType type;
+    private final String room;
+    private final String group;
+    private final boolean on;
+    private final double setpoint;
+    private final int fanSpeed;
+
+    RegisteredDevice(int id, DeviceType type, String room, String group, boolean on, double setpoint, int fanSpeed) {
+        this.id = id;
+        this.type = type;
+        this.room = room;
+        this.group = group;
+        this.on = on;
+        this.setpoint = setpoint;
+        this.fanSpeed = fanSpeed;
+    }
+
+    public int getId() { return id; }
+    public DeviceType getType() { return type; }
+    public String getRoom() { return room; }
+    /** The device's group, or null if it has none. */
+    public String getGroup() { return group; }
+    public boolean isOn() { return on; }
+    /** Setpoint in degrees Celsius, for thermostats; 0 otherwise. */
+    public double getSetpoint() { return setpoint; }
+    /** Speed, for fans; 0 otherwise. */
+    public int getFanSpeed() { return fanSpeed; }
+    /** The shared behaviour for this device's type. */
+    public Device getDevice() { return type.device(); }
+
+    @Override
+    public String toString() {
+        return "#" + id + " " + type + " in " + room + (group == null ? "" : " [" + group + "]")
+                + (on ? " ON" : " OFF")
+                + (type == DeviceType.THERMOSTAT ? " " + setpoint + " C" : "")
+                + (type == DeviceType.FAN ? " speed " + fanSpeed : "");
+    }
+}
@@ -7,10 +7,17 @@ import com.astronaut.scheduler.exceptions.TaskNotFoundException;
 import com.astronaut.scheduler.factory.TaskFactory;
 import com.astronaut.scheduler.model.Task;
 import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.model.TaskRenderer;
 import com.astronaut.scheduler.observer.ConsoleNotifier;
 import com.astronaut.scheduler.scheduler.ScheduleManager;
+import com.astronaut.scheduler.server.ScheduleServer;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.time.LocalTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
 
@@ -23,8 +30,14 @@ import java.util.Scanner;
 public class Main {
     private static final ScheduleManager schedule = ScheduleManager.getInstance();
     private static final AppLogger logger = AppLogger.getInstance();
+    private static final int DEFAULT_PORT = 7070;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+            return;
+        }
 
-    public static void main(String[] args) {
         // Attach a console notifier observer
         schedule.attachObserver(new ConsoleNotifier());
 
@@ -53,6 +66,13 @@ public class Main {
         sc.close();
     }
 
+    /** Serves the schedule over TCP (see ScheduleServer) until the process is killed. */
+    private static void serve(int port) throws Exception {
+        ScheduleServer server = new ScheduleServer(schedule, port).start();
+        System.out.println("Serving schedule on port " + server.getPort() + ". Ctrl+C to stop.");
+        Thread.currentThread().join();
+    }
+
     private static void printHeader() {
         System.out.println("========================================");
         System.out.println(" Astronaut Daily Schedule Organizer");
@@ -113,16 +133,20 @@ public class Main {
         }
     }
 
+    /** Streams the schedule page by page into one buffered writer instead of a String per task. */
     private static void handleViewAll() {
-        List<Task> tasks = schedule.viewAllTasks();
-        if (tasks.isEmpty()) {
+        Iterator<Task> tasks = schedule.iterateTasks(LocalTime.MIN);
+        if (!tasks.hasNext()) {
             System.out.println("No tasks scheduled for the day.");
             return;
         }
         System.out.println("\nTasks (sorted by start time):");
-        int idx = 1;
-        for (Task t : tasks) {
-            System.out.println(idx++ + ". " + t.toString());
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 8192);
+        try {
+            TaskRenderer.appendAll(out, tasks, true);
+            out.flush(); // not closed: that would close System.out
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
@@ -1,11 +1,29 @@
 package com.astronaut.scheduler.app;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 import java.util.logging.*;
 
 public final class AppLogger {
+    private static final String LOG_FILE = "astronaut_schedule.log";
+    private static final int LOG_LIMIT = 1024 * 1024;
+    private static final int LOG_COUNT = 3;
+
     private static volatile AppLogger instance;
     private final Logger logger;
+    private Handler fileHandler;
+    private volatile AsyncWriter async;
 
     private AppLogger() {
         logger = Logger.getLogger("AstronautScheduleLogger");
@@ -14,15 +32,16 @@ public final class AppLogger {
         // Console handler
         ConsoleHandler ch = new ConsoleHandler();
         ch.setLevel(Level.INFO);
-        ch.setFormatter(new SimpleFormatter());
+        ch.setFormatter(new PlainNumberFormatter());
         logger.addHandler(ch);
 
         // File handler (rotating)
         try {
-            Handler fh = new FileHandler("astronaut_schedule.log", 1024 * 1024, 3, true);
+            Handler fh = new FileHandler(LOG_FILE, LOG_LIMIT, LOG_COUNT, true);
             fh.setLevel(Level.ALL);
-            fh.setFormatter(new SimpleFormatter());
+            fh.setFormatter(new PlainNumberFormatter());
             logger.addHandler(fh);
+            fileHandler = fh;
         } catch (IOException e) {
             // If file handler fails, at least continue with console logging
             logger.log(Level.WARNING, "File logging disabled: " + e.getMessage());
@@ -41,14 +60,279 @@ public final class AppLogger {
     }
 
     public void info(String msg) {
-        logger.log(Level.INFO, msg);
+        log(Level.INFO, msg, null, null);
+    }
+
+    /** Builds the message only if INFO is enabled. */
+    public void info(Supplier<String> msg) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, msg.get(), null, null);
+    }
+
+    /** {@code pattern} uses {0}-style placeholders and is formatted by the writer, not the caller. */
+    public void info(String pattern, Object arg) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, pattern, new Object[] { arg }, null);
+    }
+
+    public void info(String pattern, Object arg0, Object arg1) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, pattern, new Object[] { arg0, arg1 }, null);
+    }
+
+    /** Takes counts and sequence numbers unboxed, so nothing is allocated when INFO is off. */
+    public void info(String pattern, long arg) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, pattern, new Object[] { arg }, null);
+    }
+
+    public void info(String pattern, long arg0, long arg1) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, pattern, new Object[] { arg0, arg1 }, null);
     }
 
     public void warning(String msg) {
-        logger.log(Level.WARNING, msg);
+        log(Level.WARNING, msg, null, null);
+    }
+
+    public void warning(Supplier<String> msg) {
+        if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, msg.get(), null, null);
+    }
+
+    public void warning(String pattern, Object arg) {
+        if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, pattern, new Object[] { arg }, null);
+    }
+
+    public void warning(String pattern, long arg) {
+        if (logger.isLoggable(Level.WARNING)) log(Level.WARNING, pattern, new Object[] { arg }, null);
     }
 
     public void error(String msg, Throwable t) {
-        logger.log(Level.SEVERE, msg, t);
+        log(Level.SEVERE, msg, null, t);
+    }
+
+    private void log(Level level, String msg, Object[] params, Throwable t) {
+        AsyncWriter w = async;
+        if (w == null) {
+            if (params == null) logger.log(level, msg, t);
+            else logger.log(level, msg, params);
+            return;
+        }
+        if (!logger.isLoggable(level)) return;
+        LogRecord r = new LogRecord(level, msg);
+        r.setLoggerName(logger.getName());
+        // the writer thread cannot infer the caller, so record what the sync path would show
+        r.setSourceClassName(AppLogger.class.getName());
+        r.setSourceMethodName("log");
+        r.setParameters(params);
+        r.setThrown(t);
+        w.enqueue(r);
+    }
+
+    /**
+     * Switches to asynchronous logging: callers append records to a lock-free
+     * queue and a single writer thread formats them and writes each drained
+     * batch to the console and the rotating log file with one write and flush.
+     * At most {@code capacity} records are held; beyond that records are dropped
+     * and counted. A shutdown hook flushes whatever is still queued.
+     */
+    public synchronized void enableAsync(int capacity) {
+        if (async != null) return;
+        if (fileHandler != null) {
+            // the writer takes over the log file, so release the handler's lock on it
+            logger.removeHandler(fileHandler);
+            fileHandler.close();
+            fileHandler = null;
+        }
+        for (Handler h : logger.getHandlers()) {
+            if (h instanceof ConsoleHandler) logger.removeHandler(h);
+        }
+        AsyncWriter w = new AsyncWriter(capacity);
+        w.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(w::close, "astronaut-log-flush"));
+        async = w;
+    }
+
+    public boolean isAsync() { return async != null; }
+
+    /** Records currently waiting for the writer thread (0 in synchronous mode). */
+    public int getQueuedCount() {
+        AsyncWriter w = async;
+        return w == null ? 0 : w.size.get();
+    }
+
+    /** Records discarded because the async queue was full. */
+    public long getDroppedCount() {
+        AsyncWriter w = async;
+        return w == null ? 0 : w.dropped.sum();
+    }
+
+    /** Blocks until every record queued so far has been written. */
+    public void flush() {
+        AsyncWriter w = async;
+        if (w == null) {
+            for (Handler h : logger.getHandlers()) h.flush();
+            return;
+        }
+        w.awaitDrained();
+    }
+
+    /**
+     * SimpleFormatter that prints whole-number parameters as plain digits, since
+     * MessageFormat would group them ("port 17,071").
+     */
+    private static final class PlainNumberFormatter extends SimpleFormatter {
+        @Override
+        public String formatMessage(LogRecord r) {
+            Object[] params = r.getParameters();
+            if (params != null) {
+                for (int i = 0; i < params.length; i++) {
+                    Object p = params[i];
+                    if (p instanceof Long || p instanceof Integer || p instanceof Short || p instanceof Byte) {
+                        params[i] = p.toString();
+                    }
+                }
+            }
+            return super.formatMessage(r);
+        }
+    }
+
+    /** Background writer for async mode. */
+    private static final class AsyncWriter extends Thread {
+        private static final int BATCH = 512;
+
+        private final ConcurrentLinkedQueue<LogRecord> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final LongAdder dropped = new LongAdder();
+        private final int capacity;
+        private final Formatter formatter = new PlainNumberFormatter();
+        // guards the sinks and drained; not the Thread's own monitor, which join waits on
+        private final Object drainLock = new Object();
+        private final PrintStream console = System.err;
+        private final StringBuilder fileBuf = new StringBuilder(8192);
+        private final StringBuilder consoleBuf = new StringBuilder(8192);
+        private Writer out;
+        private long written;
+        private long drained;            // records written so far
+        private volatile boolean closing;
+
+        AsyncWriter(int capacity) {
+            super("astronaut-log-writer");
+            setDaemon(true);
+            this.capacity = Math.max(1, capacity);
+        }
+
+        void enqueue(LogRecord r) {
+            int n;
+            do {
+                n = size.get();
+                if (n >= capacity) {
+                    dropped.increment();
+                    return;
+                }
+            } while (!size.compareAndSet(n, n + 1));
+            queue.offer(r);
+            if (n == 0) LockSupport.unpark(this);
+        }
+
+        @Override
+        public void run() {
+            while (!closing) {
+                if (drainOnce() == 0) LockSupport.parkNanos(this, 50_000_000L);
+            }
+        }
+
+        /** Formats up to BATCH records and writes them with a single write/flush per sink. */
+        private int drainOnce() {
+            synchronized (drainLock) {
+                int n = drainBatch();
+                if (n > 0) {
+                    drained += n;
+                    drainLock.notifyAll();
+                }
+                return n;
+            }
+        }
+
+        private int drainBatch() {
+            int n = 0;
+            LogRecord r;
+            while (n < BATCH && (r = queue.poll()) != null) {
+                String line;
+                try {
+                    line = formatter.format(r);
+                } catch (RuntimeException e) {
+                    line = r.getLevel() + ": " + r.getMessage() + System.lineSeparator();
+                }
+                fileBuf.append(line);
+                if (r.getLevel().intValue() >= Level.INFO.intValue()) consoleBuf.append(line);
+                n++;
+            }
+            if (n == 0) return 0;
+            size.addAndGet(-n);
+            if (consoleBuf.length() > 0) {
+                console.print(consoleBuf);
+                console.flush();
+                consoleBuf.setLength(0);
+            }
+            writeFile();
+            fileBuf.setLength(0);
+            return n;
+        }
+
+        private void writeFile() {
+            try {
+                if (out == null) openFile();
+                out.append(fileBuf);
+                out.flush();
+                written += fileBuf.length();
+                if (written >= LOG_LIMIT) rotate();
+            } catch (IOException e) {
+                console.println("Async log write failed: " + e.getMessage());
+            }
+        }
+
+        private void openFile() throws IOException {
+            File f = new File(LOG_FILE + ".0");
+            written = f.length();
+            out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f, true), StandardCharsets.UTF_8));
+        }
+
+        /** Same naming as FileHandler with a count: .0 is current, older files shift up. */
+        private void rotate() throws IOException {
+            out.close();
+            out = null;
+            for (int i = LOG_COUNT - 2; i >= 0; i--) {
+                File from = new File(LOG_FILE + "." + i);
+                File to = new File(LOG_FILE + "." + (i + 1));
+                if (from.exists()) {
+                    to.delete();
+                    from.renameTo(to);
+                }
+            }
+            openFile();
+        }
+
+        /** Waits until the writer has written every record queued before the call. */
+        void awaitDrained() {
+            synchronized (drainLock) {
+                long target = drained + size.get();
+                LockSupport.unpark(this);
+                try {
+                    while (drained < target && !closing) drainLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void close() {
+            closing = true;
+            LockSupport.unpark(this);
+            while (drainOnce() > 0) { /* flush everything still queued */ }
+            synchronized (drainLock) {
+                try {
+                    if (out != null) out.close();
+                } catch (IOException ignored) {
+                }
+                out = null;
+                drainLock.notifyAll();
+            }
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.astronaut.scheduler.exceptions;
+
+import com.astronaut.scheduler.model.TaskConflict;
+
+import java.util.List;
+
+/**
+ * Thrown when a bulk insert is rejected. Carries every conflicting pair found,
+ * not just the first one.
+ */
+public class BatchConflictException extends Exception {
+    private final List<TaskConflict> conflicts;
+
+    public BatchConflictException(String message, List<TaskConflict> conflicts) {
+        super(message);
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    /** As above, without filling in a stack trace when {@code stackTrace} is false. */
+    public BatchConflictException(String message, List<TaskConflict> conflicts, boolean stackTrace) {
+        super(message, null, true, stackTrace);
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    public List<TaskConflict> getConflicts() { return conflicts; }
+}
@@ -4,4 +4,9 @@ public class InvalidTimeFormatException extends Exception {
     public InvalidTimeFormatException(String message) {
         super(message);
     }
+
+    /** {@code stackTrace} false leaves the stack trace unfilled, so bulk validation stays cheap. */
+    public InvalidTimeFormatException(String message, boolean stackTrace) {
+        super(message, null, true, stackTrace);
+    }
 }
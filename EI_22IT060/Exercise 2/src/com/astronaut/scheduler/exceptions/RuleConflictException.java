@@ -0,0 +1,28 @@
+package com.astronaut.scheduler.exceptions;
+
+import com.astronaut.scheduler.model.RecurrenceRule;
+
+import java.time.LocalDate;
+
+/** Thrown when a recurrence rule would overlap an existing rule on some day. */
+public class RuleConflictException extends Exception {
+    private final RecurrenceRule conflictingRule;
+    private final LocalDate firstConflictDate;
+
+    public RuleConflictException(String message, RecurrenceRule conflictingRule, LocalDate firstConflictDate) {
+        this(message, conflictingRule, firstConflictDate, true);
+    }
+
+    /** {@code stackTrace} false leaves the stack trace unfilled, for callers that treat rejections as routine. */
+    public RuleConflictException(String message, RecurrenceRule conflictingRule, LocalDate firstConflictDate,
+                                 boolean stackTrace) {
+        super(message, null, true, stackTrace);
+        this.conflictingRule = conflictingRule;
+        this.firstConflictDate = firstConflictDate;
+    }
+
+    public RecurrenceRule getConflictingRule() { return conflictingRule; }
+
+    /** The first day both rules occur at overlapping times; null for a duplicate description. */
+    public LocalDate getFirstConflictDate() { return firstConflictDate; }
+}
@@ -8,5 +8,11 @@ public class TaskConflictException extends Exception {
         super(message);
         this.conflictingTask = conflictingTask;
     }
+
+    /** Skips capturing the stack when {@code stackTrace} is false, for rejections on hot paths. */
+    public TaskConflictException(String message, Task conflictingTask, boolean stackTrace) {
+        super(message, null, true, stackTrace);
+        this.conflictingTask = conflictingTask;
+    }
     public Task getConflictingTask() { return conflictingTask; }
 }
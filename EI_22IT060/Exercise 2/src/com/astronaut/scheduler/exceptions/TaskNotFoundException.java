@@ -2,4 +2,5 @@ package com.astronaut.scheduler.exceptions;
 
 public class TaskNotFoundException extends Exception {
     public TaskNotFoundException(String msg) { super(msg); }
+    public TaskNotFoundException(String msg, boolean stackTrace) { super(msg, null, true, stackTrace); }
 }
@@ -5,12 +5,8 @@ import com.astronaut.scheduler.model.Task;
 import com.astronaut.scheduler.model.TaskPriority;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 
 public final class TaskFactory {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
-
     private TaskFactory() {}
 
     /**
@@ -19,20 +15,58 @@ public final class TaskFactory {
      */
     public static Task createTask(String description, String startStr, String endStr, String priorityStr)
             throws InvalidTimeFormatException {
-        try {
-            LocalTime s = LocalTime.parse(startStr.trim(), FORMATTER);
-            LocalTime e = LocalTime.parse(endStr.trim(), FORMATTER);
-
-            if (!s.isBefore(e)) {
-                throw new InvalidTimeFormatException("Start time must be before end time.");
-            }
-
-            TaskPriority p = TaskPriority.fromString(priorityStr);
-            return new Task(description.trim(), s, e, p);
-        } catch (DateTimeParseException ex) {
-            throw new InvalidTimeFormatException("Invalid time format. Use HH:mm (24-hour).");
-        } catch (NullPointerException ex) {
-            throw new InvalidTimeFormatException("Start/end times cannot be null or empty.");
+        return createTask(description, startStr, endStr, priorityStr, true);
+    }
+
+    /**
+     * As above; {@code stackTrace} false throws without filling in a stack trace,
+     * for callers that validate many rows and treat bad ones as routine.
+     */
+    public static Task createTask(String description, String startStr, String endStr, String priorityStr,
+                                  boolean stackTrace) throws InvalidTimeFormatException {
+        if (description == null || startStr == null || endStr == null) {
+            throw new InvalidTimeFormatException("Start/end times cannot be null or empty.", stackTrace);
+        }
+        int s = parseMinutes(startStr);
+        int e = parseMinutes(endStr);
+        if (s < 0 || e < 0) {
+            throw new InvalidTimeFormatException("Invalid time format. Use HH:mm (24-hour).", stackTrace);
         }
+        if (s >= e) {
+            throw new InvalidTimeFormatException("Start time must be before end time.", stackTrace);
+        }
+
+        TaskPriority p = TaskPriority.fromString(priorityStr);
+        return new Task(description.trim(), timeOf(s), timeOf(e), p);
+    }
+
+    /**
+     * Parses a strict HH:mm time (surrounding whitespace allowed) into minutes
+     * of the day, or returns -1 if it is malformed. Allocates nothing and throws
+     * nothing, so callers validating many rows pay no exception cost.
+     */
+    public static int parseMinutes(CharSequence text) {
+        int from = 0;
+        int to = text.length();
+        while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+        if (to - from != 5 || text.charAt(from + 2) != ':') return -1;
+        int h1 = digit(text.charAt(from));
+        int h2 = digit(text.charAt(from + 1));
+        int m1 = digit(text.charAt(from + 3));
+        int m2 = digit(text.charAt(from + 4));
+        if ((h1 | h2 | m1 | m2) < 0) return -1;
+        int h = h1 * 10 + h2;
+        int m = m1 * 10 + m2;
+        return h < 24 && m < 60 ? h * 60 + m : -1;
+    }
+
+    /** LocalTime for a minute of the day returned by {@link #parseMinutes}. */
+    public static LocalTime timeOf(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private static int digit(char c) {
+        return c >= '0' && c <= '9' ? c - '0' : -1;
     }
 }
@@ -0,0 +1,43 @@
+package com.astronaut.scheduler.metrics;
+
+/** Summary of a LatencyHistogram at one moment; all times in nanoseconds. */
+public final class HistogramSnapshot {
+    static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0);
+
+    private final long count;
+    private final long mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    HistogramSnapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public long getCount() { return count; }
+    public long getMean() { return mean; }
+    public long getP50() { return p50; }
+    public long getP90() { return p90; }
+    public long getP99() { return p99; }
+    public long getP999() { return p999; }
+    public long getMax() { return max; }
+
+    @Override
+    public String toString() {
+        if (count == 0) return "n=0";
+        return "n=" + count + " mean=" + micros(mean) + " p50=" + micros(p50) + " p90=" + micros(p90)
+                + " p99=" + micros(p99) + " p99.9=" + micros(p999) + " max=" + micros(max);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+}
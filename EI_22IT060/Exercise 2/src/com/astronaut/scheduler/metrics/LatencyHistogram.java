@@ -0,0 +1,79 @@
+package com.astronaut.scheduler.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of
+ * HdrHistogram. Values below 32 ns get one bucket each. Above that, every
+ * power of two is split into 32 sub-buckets, so any recorded value is
+ * reported within about 3% of its true value. Recording is one bucket index
+ * computation plus one atomic increment. Snapshots read the counts without
+ * stopping writers, so they are only approximately point-in-time.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0, nanos)));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long total = 0;
+        double sum = 0;
+        int last = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = counts.get(i);
+            if (n == 0) continue;
+            c[i] = n;
+            total += n;
+            sum += (double) n * midpoint(i);
+            last = i;
+        }
+        if (total == 0) return HistogramSnapshot.EMPTY;
+        return new HistogramSnapshot(total, (long) (sum / total),
+                percentile(c, total, 0.50), percentile(c, total, 0.90),
+                percentile(c, total, 0.99), percentile(c, total, 0.999), upperBound(last));
+    }
+
+    private static long percentile(long[] c, long total, double q) {
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < c.length; i++) {
+            seen += c[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(c.length - 1);
+    }
+
+    static int index(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int e = 63 - Long.numberOfLeadingZeros(v); // >= SUB_BITS
+        int sub = (int) (v >>> (e - SUB_BITS)) & (SUB_COUNT - 1);
+        return SUB_COUNT + (e - SUB_BITS) * SUB_COUNT + sub;
+    }
+
+    private static long lowerBound(int i) {
+        if (i < SUB_COUNT) return i;
+        int e = (i - SUB_COUNT) / SUB_COUNT + SUB_BITS;
+        int sub = (i - SUB_COUNT) % SUB_COUNT;
+        return (long) (SUB_COUNT + sub) << (e - SUB_BITS);
+    }
+
+    /** Highest value that lands in bucket i. */
+    private static long upperBound(int i) {
+        return i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    private static double midpoint(int i) {
+        return (lowerBound(i) + (double) upperBound(i)) / 2;
+    }
+}
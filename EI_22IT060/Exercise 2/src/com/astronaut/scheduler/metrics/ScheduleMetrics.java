@@ -0,0 +1,146 @@
+package com.astronaut.scheduler.metrics;
+
+import com.astronaut.scheduler.observer.ScheduleObserver;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Latency and outcome metrics for a schedule. Everything is recorded without
+ * locks: histograms for operations, lock wait and hold, and observer
+ * dispatch, and LongAdders for counts. A manager with no metrics attached
+ * pays one volatile read per operation.
+ *
+ * One instance may be shared by several managers (e.g. all partitions of a
+ * PartitionedScheduleManager) to get aggregate figures.
+ */
+public final class ScheduleMetrics implements ScheduleMetricsMXBean {
+    public enum Operation { ADD, ADD_BATCH, REMOVE, EDIT, COMPLETE, VIEW_ALL, VIEW_PAGE, VIEW_BY_PRIORITY, QUERY }
+
+    private final Map<Operation, LatencyHistogram> operations = new EnumMap<>(Operation.class);
+    private final LatencyHistogram writeLockWait = new LatencyHistogram();
+    private final LatencyHistogram writeLockHold = new LatencyHistogram();
+    private final LatencyHistogram readLockWait = new LatencyHistogram();
+    private final Map<ScheduleObserver, LatencyHistogram> dispatch = new ConcurrentHashMap<>();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+
+    public ScheduleMetrics() {
+        for (Operation op : Operation.values()) operations.put(op, new LatencyHistogram());
+    }
+
+    public void recordOperation(Operation op, long nanos) { operations.get(op).record(nanos); }
+    public void recordWriteLockWait(long nanos) { writeLockWait.record(nanos); }
+    public void recordWriteLockHold(long nanos) { writeLockHold.record(nanos); }
+    public void recordReadLockWait(long nanos) { readLockWait.record(nanos); }
+
+    /** A mutation refused with an exception (conflict or duplicate description). */
+    public void recordConflict(int n) { conflicts.add(n); }
+
+    /** A tryAddTask / tryEditTask that returned a non-applied result. */
+    public void recordRejection() { rejections.increment(); }
+
+    public void recordNotFound() { notFound.increment(); }
+
+    public void recordDispatch(ScheduleObserver observer, long nanos) {
+        LatencyHistogram h = dispatch.get(observer);
+        if (h == null) h = dispatch.computeIfAbsent(observer, o -> new LatencyHistogram());
+        h.record(nanos);
+    }
+
+    public HistogramSnapshot getOperationLatency(Operation op) { return operations.get(op).snapshot(); }
+
+    @Override
+    public Map<String, HistogramSnapshot> getOperationLatencies() {
+        Map<String, HistogramSnapshot> out = new TreeMap<>();
+        operations.forEach((op, h) -> out.put(op.name(), h.snapshot()));
+        return out;
+    }
+
+    @Override public HistogramSnapshot getWriteLockWait() { return writeLockWait.snapshot(); }
+    @Override public HistogramSnapshot getWriteLockHold() { return writeLockHold.snapshot(); }
+    @Override public HistogramSnapshot getReadLockWait() { return readLockWait.snapshot(); }
+
+    /** Keyed by observer class and identity hash, since observers need not override toString. */
+    @Override
+    public Map<String, HistogramSnapshot> getObserverDispatch() {
+        Map<String, HistogramSnapshot> out = new TreeMap<>();
+        dispatch.forEach((o, h) -> out.put(observerName(o), h.snapshot()));
+        return out;
+    }
+
+    @Override public long getConflictCount() { return conflicts.sum(); }
+    @Override public long getRejectionCount() { return rejections.sum(); }
+    @Override public long getNotFoundCount() { return notFound.sum(); }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder("Schedule metrics");
+        getOperationLatencies().forEach((op, s) -> {
+            if (s.getCount() > 0) sb.append("\n  ").append(op).append(": ").append(s);
+        });
+        sb.append("\n  write lock wait: ").append(getWriteLockWait());
+        sb.append("\n  write lock hold: ").append(getWriteLockHold());
+        sb.append("\n  read lock wait: ").append(getReadLockWait());
+        getObserverDispatch().forEach((o, s) -> sb.append("\n  dispatch ").append(o).append(": ").append(s));
+        sb.append("\n  conflicts=").append(getConflictCount())
+                .append(" rejections=").append(getRejectionCount())
+                .append(" notFound=").append(getNotFoundCount());
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        operations.values().forEach(LatencyHistogram::reset);
+        writeLockWait.reset();
+        writeLockHold.reset();
+        readLockWait.reset();
+        dispatch.clear();
+        conflicts.reset();
+        rejections.reset();
+        notFound.reset();
+    }
+
+    /** Registers this instance with the platform MBean server under {@code com.astronaut.scheduler:type=ScheduleMetrics,name=<name>}. */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName on = new ObjectName("com.astronaut.scheduler:type=ScheduleMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+        return on;
+    }
+
+    public static void unregisterMBean(ObjectName on) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(on);
+    }
+
+    /**
+     * Hands {@link #dump()} to {@code sink} every {@code every} on a daemon
+     * thread, e.g. {@code AppLogger.getInstance()::info}. Cancel the returned
+     * future to stop.
+     */
+    public ScheduledFuture<?> startPeriodicDump(Duration every, Consumer<String> sink) {
+        ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread th = new Thread(r, "schedule-metrics-dump");
+            th.setDaemon(true);
+            return th;
+        });
+        long period = Math.max(1, every.toMillis());
+        return ses.scheduleWithFixedDelay(() -> sink.accept(dump()), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static String observerName(ScheduleObserver o) {
+        return o.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(o));
+    }
+}
@@ -0,0 +1,20 @@
+package com.astronaut.scheduler.metrics;
+
+import java.util.Map;
+
+/** JMX view of {@link ScheduleMetrics}; latencies are in nanoseconds. */
+public interface ScheduleMetricsMXBean {
+    Map<String, HistogramSnapshot> getOperationLatencies();
+    HistogramSnapshot getWriteLockWait();
+    HistogramSnapshot getWriteLockHold();
+    HistogramSnapshot getReadLockWait();
+    Map<String, HistogramSnapshot> getObserverDispatch();
+    long getConflictCount();
+    long getRejectionCount();
+    long getNotFoundCount();
+
+    /** Human-readable summary of everything above. */
+    String dump();
+
+    void reset();
+}
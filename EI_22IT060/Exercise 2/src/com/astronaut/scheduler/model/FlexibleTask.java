@@ -0,0 +1,71 @@
+package com.astronaut.scheduler.model;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A task that needs {@code duration} somewhere inside [windowStart, windowEnd)
+ * rather than at fixed times; the planner chooses its start. A window end of
+ * LocalTime.MAX means midnight. Durations and windows are whole minutes.
+ */
+public final class FlexibleTask {
+    private static final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final String description;
+    private final Duration duration;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final TaskPriority priority;
+
+    public FlexibleTask(String description, Duration duration, LocalTime windowStart, LocalTime windowEnd,
+                        TaskPriority priority) {
+        if (description == null || description.isBlank())
+            throw new IllegalArgumentException("Description cannot be empty.");
+        if (duration == null || duration.isNegative() || duration.isZero() || duration.toSeconds() % 60 != 0)
+            throw new IllegalArgumentException("Duration must be a positive number of whole minutes.");
+        if (windowStart == null || windowEnd == null || !windowStart.isBefore(windowEnd))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        this.description = description.trim();
+        this.duration = duration;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.priority = priority == null ? TaskPriority.MEDIUM : priority;
+        if (getLatestStartMinute() < getEarliestStartMinute())
+            throw new IllegalArgumentException("Window is shorter than the duration.");
+    }
+
+    /** A task that may go anywhere in the day. */
+    public static FlexibleTask anytime(String description, Duration duration, TaskPriority priority) {
+        return new FlexibleTask(description, duration, LocalTime.MIDNIGHT, LocalTime.MAX, priority);
+    }
+
+    public String getDescription() { return description; }
+    public Duration getDuration() { return duration; }
+    public LocalTime getWindowStart() { return windowStart; }
+    public LocalTime getWindowEnd() { return windowEnd; }
+    public TaskPriority getPriority() { return priority; }
+
+    public int getDurationMinutes() {
+        return (int) duration.toMinutes();
+    }
+
+    /** Earliest start as minutes of the day (seconds round up to the next minute). */
+    public int getEarliestStartMinute() {
+        int s = windowStart.toSecondOfDay();
+        return (s + 59) / 60;
+    }
+
+    /** Latest start as minutes of the day so the task still ends inside the window. */
+    public int getLatestStartMinute() {
+        int end = windowEnd.equals(LocalTime.MAX) ? 24 * 60 : windowEnd.toSecondOfDay() / 60;
+        return end - getDurationMinutes();
+    }
+
+    @Override
+    public String toString() {
+        String end = windowEnd.equals(LocalTime.MAX) ? "24:00" : windowEnd.format(fmt);
+        return String.format("%s (%d min in %s - %s) [%s]", description, getDurationMinutes(),
+                windowStart.format(fmt), end, priority);
+    }
+}
@@ -0,0 +1,32 @@
+package com.astronaut.scheduler.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** One day's instance of a {@link RecurrenceRule}, produced on demand and never stored. */
+public final class Occurrence {
+    private final RecurrenceRule rule;
+    private final LocalDate date;
+
+    public Occurrence(RecurrenceRule rule, LocalDate date) {
+        this.rule = rule;
+        this.date = date;
+    }
+
+    public RecurrenceRule getRule() { return rule; }
+    public LocalDate getDate() { return date; }
+    public String getDescription() { return rule.getDescription(); }
+    public LocalTime getStart() { return rule.getStart(); }
+    public LocalTime getEnd() { return rule.getEnd(); }
+    public TaskPriority getPriority() { return rule.getPriority(); }
+
+    /** A standalone Task for this occurrence, for code that works with day schedules. */
+    public Task toTask() {
+        return new Task(rule.getDescription(), rule.getStart(), rule.getEnd(), rule.getPriority());
+    }
+
+    @Override
+    public String toString() {
+        return date + " " + toTask();
+    }
+}
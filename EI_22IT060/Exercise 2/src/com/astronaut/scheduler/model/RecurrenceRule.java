@@ -0,0 +1,163 @@
+package com.astronaut.scheduler.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * A routine that repeats every {@code periodDays} days at the same time of day,
+ * from {@code firstDate} until {@code untilDate} (inclusive, or open-ended when
+ * null). The rule is stored as is; occurrences are computed from it on demand.
+ *
+ * Occurrence dates form the arithmetic progression firstDate + k * periodDays,
+ * so whether two rules ever share a day is a pair of congruences and is answered
+ * with the Chinese remainder theorem rather than by walking the calendar.
+ */
+public final class RecurrenceRule {
+    private static final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final String description;
+    private final LocalTime start;
+    private final LocalTime end;
+    private final TaskPriority priority;
+    private final LocalDate firstDate;
+    private final LocalDate untilDate;
+    private final int periodDays;
+
+    public RecurrenceRule(String description, LocalTime start, LocalTime end, TaskPriority priority,
+                          LocalDate firstDate, LocalDate untilDate, int periodDays) {
+        if (description == null || description.isBlank())
+            throw new IllegalArgumentException("Description cannot be empty.");
+        if (start == null || end == null || !start.isBefore(end))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        if (firstDate == null) throw new IllegalArgumentException("First date is required.");
+        if (untilDate != null && untilDate.isBefore(firstDate))
+            throw new IllegalArgumentException("Until date must not be before the first date.");
+        if (periodDays < 1) throw new IllegalArgumentException("Period must be at least one day.");
+        this.description = description.trim();
+        this.start = start;
+        this.end = end;
+        this.priority = priority == null ? TaskPriority.MEDIUM : priority;
+        this.firstDate = firstDate;
+        this.untilDate = untilDate;
+        this.periodDays = periodDays;
+    }
+
+    public static RecurrenceRule daily(String description, LocalTime start, LocalTime end, TaskPriority priority,
+                                       LocalDate firstDate, LocalDate untilDate) {
+        return new RecurrenceRule(description, start, end, priority, firstDate, untilDate, 1);
+    }
+
+    public static RecurrenceRule weekly(String description, LocalTime start, LocalTime end, TaskPriority priority,
+                                        LocalDate firstDate, LocalDate untilDate) {
+        return new RecurrenceRule(description, start, end, priority, firstDate, untilDate, 7);
+    }
+
+    public String getDescription() { return description; }
+    public LocalTime getStart() { return start; }
+    public LocalTime getEnd() { return end; }
+    public TaskPriority getPriority() { return priority; }
+    public LocalDate getFirstDate() { return firstDate; }
+    /** Last day the rule may occur on, or null if it never ends. */
+    public LocalDate getUntilDate() { return untilDate; }
+    public int getPeriodDays() { return periodDays; }
+
+    public boolean occursOn(LocalDate date) {
+        long d = date.toEpochDay();
+        return d >= firstDay() && d <= lastDay() && (d - firstDay()) % periodDays == 0;
+    }
+
+    /** The first occurrence on or after {@code from}, if any. */
+    public Optional<LocalDate> nextOccurrence(LocalDate from) {
+        long d = nextDay(from.toEpochDay());
+        return d <= lastDay() ? Optional.of(LocalDate.ofEpochDay(d)) : Optional.empty();
+    }
+
+    /** Number of occurrences in [from, to], counted without enumerating them. */
+    public long countBetween(LocalDate from, LocalDate to) {
+        long lo = nextDay(from.toEpochDay());
+        long hi = Math.min(to.toEpochDay(), lastDay());
+        return lo > hi ? 0 : (hi - lo) / periodDays + 1;
+    }
+
+    /** True if both rules' times of day overlap, whatever their dates. */
+    public boolean overlapsTimeOfDay(RecurrenceRule other) {
+        return start.isBefore(other.end) && other.start.isBefore(end);
+    }
+
+    /**
+     * The first day both rules occur on, if there is one. Solves
+     * d = a (mod p) and d = b (mod q), which has solutions only when
+     * gcd(p, q) divides b - a, and then repeats every lcm(p, q) days.
+     */
+    public Optional<LocalDate> firstCommonDate(RecurrenceRule other) {
+        long a = firstDay();
+        long b = other.firstDay();
+        long p = periodDays;
+        long q = other.periodDays;
+        long g = gcd(p, q);
+        long diff = b - a;
+        if (Math.floorMod(diff, g) != 0) return Optional.empty();
+        // a + p*k = b (mod q)  <=>  (p/g)*k = diff/g (mod q/g)
+        long m = q / g;
+        long k = m == 1 ? 0 : Math.floorMod(Math.floorMod(diff / g, m) * inverse(p / g % m, m), m);
+        long x = a + p * k; // one common day
+        long lcm = p / g * q;
+        long lo = Math.max(a, b);
+        long d = x + Math.floorDiv(lo - x + lcm - 1, lcm) * lcm;
+        return d <= Math.min(lastDay(), other.lastDay()) ? Optional.of(LocalDate.ofEpochDay(d)) : Optional.empty();
+    }
+
+    /** The first day both rules are scheduled at overlapping times, if any. */
+    public Optional<LocalDate> firstConflict(RecurrenceRule other) {
+        return overlapsTimeOfDay(other) ? firstCommonDate(other) : Optional.empty();
+    }
+
+    /** Epoch day of the first occurrence on or after {@code day}; may exceed lastDay(). */
+    private long nextDay(long day) {
+        long first = firstDay();
+        if (day <= first) return first;
+        long k = (day - first + periodDays - 1) / periodDays;
+        return first + k * periodDays;
+    }
+
+    private long firstDay() {
+        return firstDate.toEpochDay();
+    }
+
+    private long lastDay() {
+        return untilDate == null ? Long.MAX_VALUE : untilDate.toEpochDay();
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /** Inverse of a modulo m, for coprime a and m > 1 (extended Euclid). */
+    private static long inverse(long a, long m) {
+        long r0 = m, r1 = a, t0 = 0, t1 = 1;
+        while (r1 != 0) {
+            long qt = r0 / r1;
+            long r = r0 - qt * r1;
+            r0 = r1;
+            r1 = r;
+            long t = t0 - qt * t1;
+            t0 = t1;
+            t1 = t;
+        }
+        return Math.floorMod(t0, m);
+    }
+
+    @Override
+    public String toString() {
+        String every = periodDays == 1 ? "daily" : periodDays == 7 ? "weekly" : "every " + periodDays + " days";
+        return String.format("%s - %s: %s [%s] %s from %s%s", start.format(fmt), end.format(fmt), description,
+                priority, every, firstDate, untilDate == null ? "" : " until " + untilDate);
+    }
+}
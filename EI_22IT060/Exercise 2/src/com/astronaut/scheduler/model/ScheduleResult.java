@@ -0,0 +1,41 @@
+package com.astronaut.scheduler.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a non-throwing schedule change (tryAddTask / tryEditTask): either
+ * applied, rejected with every conflict found, or rejected because the task to
+ * edit does not exist.
+ */
+public final class ScheduleResult {
+    public enum Status { APPLIED, CONFLICT, NOT_FOUND }
+
+    private static final ScheduleResult APPLIED = new ScheduleResult(Status.APPLIED, List.of());
+    private static final ScheduleResult NOT_FOUND = new ScheduleResult(Status.NOT_FOUND, List.of());
+
+    private final Status status;
+    private final List<TaskConflict> conflicts;
+
+    private ScheduleResult(Status status, List<TaskConflict> conflicts) {
+        this.status = status;
+        this.conflicts = conflicts;
+    }
+
+    public static ScheduleResult applied() { return APPLIED; }
+    public static ScheduleResult notFound() { return NOT_FOUND; }
+
+    public static ScheduleResult conflicts(List<TaskConflict> conflicts) {
+        return new ScheduleResult(Status.CONFLICT, List.copyOf(conflicts));
+    }
+
+    public Status getStatus() { return status; }
+    public boolean isApplied() { return status == Status.APPLIED; }
+
+    /** Every conflict found, in start order of the conflicting tasks; empty unless status is CONFLICT. */
+    public List<TaskConflict> getConflicts() { return conflicts; }
+
+    @Override
+    public String toString() {
+        return status == Status.CONFLICT ? "CONFLICT " + conflicts : status.name();
+    }
+}
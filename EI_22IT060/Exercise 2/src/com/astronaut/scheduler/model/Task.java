@@ -1,18 +1,17 @@
 package com.astronaut.scheduler.model;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Objects;
+import java.util.Locale;
 
 public final class Task implements Comparable<Task> {
     private final String description;         // must be unique for simplicity
+    private final String key;                 // case-folded description, computed once
+    private int id;                           // 0 until the task is first added to a schedule
     private LocalTime start;
     private LocalTime end;
     private TaskPriority priority;
     private boolean completed = false;
 
-    private static final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
-
     public Task(String description, LocalTime start, LocalTime end, TaskPriority priority) {
         if (description == null || description.isBlank())
             throw new IllegalArgumentException("Description cannot be empty.");
@@ -22,12 +21,32 @@ public final class Task implements Comparable<Task> {
             throw new IllegalArgumentException("Start time must be before end time.");
 
         this.description = description.trim();
+        this.key = keyOf(this.description);
         this.start = start;
         this.end = end;
         this.priority = priority == null ? TaskPriority.MEDIUM : priority;
     }
 
     public String getDescription() { return description; }
+
+    /** The description case-folded, which is what makes two tasks the same task. */
+    public String getKey() { return key; }
+
+    /** Handle assigned by ScheduleManager on first insert; 0 if the task was never added. */
+    public int getId() { return id; }
+
+    /** Sets the handle once; a task keeps its id for life, including across remove and re-add. */
+    public void assignId(int id) {
+        if (id <= 0) throw new IllegalArgumentException("Task id must be positive.");
+        if (this.id != 0 && this.id != id) throw new IllegalStateException("Task already has id " + this.id + ".");
+        this.id = id;
+    }
+
+    /** Case-folds a description for lookups; returns the same string if it is already folded. */
+    public static String keyOf(String description) {
+        return description.toLowerCase(Locale.ROOT);
+    }
+
     public LocalTime getStart() { return start; }
     public LocalTime getEnd() { return end; }
     public TaskPriority getPriority() { return priority; }
@@ -58,22 +77,18 @@ public final class Task implements Comparable<Task> {
 
     @Override
     public String toString() {
-        String base = String.format("%s - %s: %s [%s]",
-                start.format(fmt), end.format(fmt), description, priority);
-        if (completed) base += " (Completed)";
-        return base;
+        return TaskRenderer.append(new StringBuilder(48), this).toString();
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Task)) return false;
-        Task t = (Task) o;
-        return description.equalsIgnoreCase(t.description);
+        return key.equals(((Task) o).key);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(description.toLowerCase());
+        return key.hashCode();
     }
 }
@@ -0,0 +1,26 @@
+package com.astronaut.scheduler.model;
+
+/**
+ * One conflicting pair found while validating a task: the task being placed
+ * and the task (existing or from the same batch) it collides with.
+ */
+public final class TaskConflict {
+    private final Task attempted;
+    private final Task conflicting;
+    private final String message;
+
+    public TaskConflict(Task attempted, Task conflicting, String message) {
+        this.attempted = attempted;
+        this.conflicting = conflicting;
+        this.message = message;
+    }
+
+    public Task getAttempted() { return attempted; }
+    public Task getConflicting() { return conflicting; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return "'" + attempted.getDescription() + "' conflicts with '" + conflicting.getDescription() + "': " + message;
+    }
+}
@@ -0,0 +1,56 @@
+package com.astronaut.scheduler.model;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.Iterator;
+
+/**
+ * Writes tasks in the Task#toString format straight into an Appendable, a
+ * character at a time for the times, instead of building a String per task.
+ * Exporting through a buffered Writer therefore needs no memory per task.
+ */
+public final class TaskRenderer {
+    private TaskRenderer() {}
+
+    /** Appends {@code HH:mm - HH:mm: description [PRIORITY]}, plus " (Completed)" when done. */
+    public static void append(Appendable out, Task t) throws IOException {
+        appendTime(out, t.getStart());
+        out.append(" - ");
+        appendTime(out, t.getEnd());
+        out.append(": ").append(t.getDescription()).append(" [").append(t.getPriority().name()).append(']');
+        if (t.isCompleted()) out.append(" (Completed)");
+    }
+
+    public static StringBuilder append(StringBuilder sb, Task t) {
+        try {
+            append((Appendable) sb, t);
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringBuilder never throws
+        }
+        return sb;
+    }
+
+    /**
+     * Writes one line per task, numbered from 1 as {@code "n. "} when
+     * {@code numbered}; returns how many were written.
+     */
+    public static int appendAll(Appendable out, Iterator<Task> tasks, boolean numbered) throws IOException {
+        int n = 0;
+        while (tasks.hasNext()) {
+            Task t = tasks.next();
+            n++;
+            if (numbered) out.append(Integer.toString(n)).append(". ");
+            append(out, t);
+            out.append('\n');
+        }
+        return n;
+    }
+
+    /** Appends {@code HH:mm}; seconds are dropped, so LocalTime.MAX prints as 23:59. */
+    public static void appendTime(Appendable out, LocalTime t) throws IOException {
+        int h = t.getHour();
+        int m = t.getMinute();
+        out.append((char) ('0' + h / 10)).append((char) ('0' + h % 10)).append(':')
+                .append((char) ('0' + m / 10)).append((char) ('0' + m % 10));
+    }
+}
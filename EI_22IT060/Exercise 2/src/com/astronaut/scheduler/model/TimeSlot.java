@@ -0,0 +1,36 @@
+package com.astronaut.scheduler.model;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A free stretch of the day, [start, end). An end of LocalTime.MAX means the
+ * slot runs to midnight.
+ */
+public final class TimeSlot {
+    private static final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final LocalTime start;
+    private final LocalTime end;
+
+    public TimeSlot(LocalTime start, LocalTime end) {
+        if (start == null || end == null || !start.isBefore(end))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalTime getStart() { return start; }
+    public LocalTime getEnd() { return end; }
+
+    public Duration getDuration() {
+        Duration d = Duration.between(start, end);
+        return end.equals(LocalTime.MAX) ? d.plusNanos(1) : d;
+    }
+
+    @Override
+    public String toString() {
+        return start.format(fmt) + " - " + (end.equals(LocalTime.MAX) ? "24:00" : end.format(fmt));
+    }
+}
@@ -0,0 +1,375 @@
+package com.astronaut.scheduler.observer;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.metrics.ScheduleMetrics;
+import com.astronaut.scheduler.model.Task;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers schedule events to observers off the publishing thread. Every
+ * observer gets its own bounded ring buffer and its own drain loop. Events
+ * reach each observer in the order they were published, which keeps per-task
+ * ordering intact.
+ *
+ * publish never blocks: it appends to a lock-free inbox, so a writer can call
+ * it under its write lock and the inbox order is the mutation order. One
+ * sequencer task moves events from the inbox into the observers' buffers and
+ * never waits for an observer. Under BLOCK and COALESCE, events for a full
+ * buffer go to that observer's overflow queue, so the others keep receiving.
+ * Those policies push back on publishers instead: a writer calls
+ * {@link #awaitCapacity} once it holds no locks and waits there while more than
+ * {@code capacity} events are in the inbox or in overflow queues. So a slow
+ * observer never delays delivery to the others, but it does slow the writers.
+ * Under DROP_OLDEST the inbox is capped at {@code capacity} events as well, and
+ * publish drops the oldest beyond that.
+ *
+ * The observer list is shared with the publisher and read live: an observer
+ * gets a buffer the first time an event is sequenced after it was attached.
+ * Remove an observer from the list before calling {@link #unregister}.
+ */
+public final class AsyncEventDispatcher {
+    private static final int DRAIN_BATCH = 64;
+
+    private final List<ScheduleObserver> observers;
+    private final int capacity;
+    private final BackpressurePolicy policy;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Map<ScheduleObserver, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Queue<ScheduleEvent> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger(); // events in the inbox
+    private final AtomicInteger overflowed = new AtomicInteger(); // events in all overflow queues
+    private final ReentrantLock roomLock = new ReentrantLock();
+    private final Condition room = roomLock.newCondition();
+    private final AtomicInteger roomWaiters = new AtomicInteger();
+    private final CountDownLatch sequencerDone = new CountDownLatch(1);
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final AppLogger logger = AppLogger.getInstance();
+    private volatile Thread sequencer;
+    private volatile boolean sequencerIdle;
+    private volatile boolean closed;
+    private volatile ScheduleMetrics metrics;
+
+    /** Drains each observer on its own daemon thread. */
+    public AsyncEventDispatcher(List<ScheduleObserver> observers, int capacity, BackpressurePolicy policy) {
+        this(observers, capacity, policy, null);
+    }
+
+    /**
+     * Drains each observer as one long-running task on {@code executor}, which must
+     * be able to run one task per observer, plus the sequencer, concurrently (e.g.
+     * a virtual-thread executor). Passing null uses a private pool of daemon threads.
+     */
+    public AsyncEventDispatcher(List<ScheduleObserver> observers, int capacity, BackpressurePolicy policy,
+                                Executor executor) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive.");
+        this.observers = observers;
+        this.capacity = capacity;
+        this.policy = policy == null ? BackpressurePolicy.BLOCK : policy;
+        if (executor == null) {
+            AtomicInteger n = new AtomicInteger();
+            this.ownedExecutor = Executors.newCachedThreadPool(r -> {
+                Thread th = new Thread(r, "schedule-observer-" + n.incrementAndGet());
+                th.setDaemon(true);
+                return th;
+            });
+            this.executor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+        this.executor.execute(this::sequence);
+    }
+
+    /** Queues the events, in order, for every attached observer. Never blocks. */
+    public void publish(List<ScheduleEvent> events) {
+        if (events.isEmpty()) return;
+        if (closed) {
+            dropped.add(events.size());
+            return;
+        }
+        inbox.addAll(events);
+        int queued = backlog.addAndGet(events.size());
+        if (policy == BackpressurePolicy.DROP_OLDEST) {
+            // nobody waits in awaitCapacity under this policy, so bound the inbox here
+            for (; queued > capacity && inbox.poll() != null; queued = backlog.decrementAndGet()) dropped.increment();
+        }
+        if (sequencerIdle) LockSupport.unpark(sequencer);
+    }
+
+    /**
+     * Waits while more than {@code capacity} published events have not reached the
+     * observers' ring buffers yet, unless the policy is DROP_OLDEST. Call it holding
+     * no locks; this is where BLOCK and COALESCE push back on publishers.
+     */
+    public void awaitCapacity() {
+        if (policy == BackpressurePolicy.DROP_OLDEST || !overCapacity()) return;
+        roomWaiters.incrementAndGet();
+        roomLock.lock();
+        try {
+            while (overCapacity() && !closed) room.awaitUninterruptibly();
+        } finally {
+            roomLock.unlock();
+            roomWaiters.decrementAndGet();
+        }
+    }
+
+    private boolean overCapacity() {
+        return backlog.get() + overflowed.get() > capacity;
+    }
+
+    /** The sequencer loop: moves inbox events into every observer's buffer, in order. */
+    private void sequence() {
+        sequencer = Thread.currentThread();
+        try {
+            while (true) {
+                ScheduleEvent e = inbox.poll();
+                if (e == null) {
+                    signalRoom();
+                    if (closed && inbox.isEmpty()) break;
+                    sequencerIdle = true;
+                    if (inbox.isEmpty() && !closed) LockSupport.park(this);
+                    sequencerIdle = false;
+                    continue;
+                }
+                for (ScheduleObserver o : observers) {
+                    Mailbox m = mailboxes.computeIfAbsent(o, this::start);
+                    if (m != null) m.offer(e);
+                }
+                backlog.decrementAndGet();
+                if (roomWaiters.get() > 0 && !overCapacity()) signalRoom();
+            }
+        } finally {
+            for (Mailbox m : mailboxes.values()) m.stop();
+            sequencerDone.countDown();
+            signalRoom();
+        }
+    }
+
+    private void signalRoom() {
+        if (roomWaiters.get() == 0) return;
+        roomLock.lock();
+        try {
+            room.signalAll();
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    /** A mailbox for {@code o}, or null if it was detached after the sequencer read the list. */
+    private Mailbox start(ScheduleObserver o) {
+        // unregister runs after the list removal, and blocks on this computeIfAbsent,
+        // so it either sees the new mailbox or this check sees o gone
+        if (!observers.contains(o)) return null;
+        Mailbox m = new Mailbox(o);
+        if (closed) {
+            m.stop();
+            m.finished.countDown();
+        } else {
+            executor.execute(m);
+        }
+        return m;
+    }
+
+    /** Stops delivering to {@code o} once its already queued events are drained. */
+    public void unregister(ScheduleObserver o) {
+        Mailbox m = mailboxes.remove(o);
+        if (m != null) m.stop();
+    }
+
+    /**
+     * Stops accepting events, lets every observer drain what was already published
+     * and waits up to {@code timeoutMillis} for that to finish, whether or not the
+     * executor was supplied by the caller.
+     */
+    public void shutdown(long timeoutMillis) {
+        closed = true;
+        LockSupport.unpark(sequencer);
+        signalRoom();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            if (sequencerDone.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                for (Mailbox m : mailboxes.values()) {
+                    if (!m.finished.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // out of time: whatever is still queued is dropped
+        for (Mailbox m : mailboxes.values()) m.stop();
+        if (ownedExecutor != null) ownedExecutor.shutdown();
+    }
+
+    /** Times every delivery per observer into {@code m}; null stops. */
+    public void setMetrics(ScheduleMetrics m) { this.metrics = m; }
+
+    public BackpressurePolicy getPolicy() { return policy; }
+    public long getDroppedCount() { return dropped.sum(); }
+    public long getCoalescedCount() { return coalesced.sum(); }
+
+    /** Events published but not yet delivered, counting each observer's copy separately. */
+    public int getPendingCount() {
+        int n = backlog.get();
+        for (Mailbox m : mailboxes.values()) n += m.size();
+        return n;
+    }
+
+    /** Bounded ring buffer of events for one observer, its overflow, plus its drain loop. */
+    private final class Mailbox implements Runnable {
+        private final ScheduleObserver observer;
+        private final ScheduleEvent[] ring = new ScheduleEvent[capacity];
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        // COALESCE only: the update event still queued for each task
+        private final Map<Task, ScheduleEvent> pendingUpdates = new IdentityHashMap<>();
+        // BLOCK and COALESCE: events that arrived while the ring was full, oldest first
+        private final ArrayDeque<ScheduleEvent> overflow = new ArrayDeque<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private int head;
+        private int count;
+        private boolean stopped;
+
+        Mailbox(ScheduleObserver observer) {
+            this.observer = observer;
+        }
+
+        void offer(ScheduleEvent e) {
+            lock.lock();
+            try {
+                if (stopped) {
+                    dropped.increment();
+                    return;
+                }
+                if (policy == BackpressurePolicy.COALESCE && e.getTask() != null) {
+                    if (e.getType() == ScheduleEvent.Type.UPDATED) {
+                        if (pendingUpdates.containsKey(e.getTask())) {
+                            coalesced.increment();
+                            return;
+                        }
+                    } else {
+                        // a later update must not be folded back across this event
+                        pendingUpdates.remove(e.getTask());
+                    }
+                }
+                if (policy == BackpressurePolicy.COALESCE && e.getType() == ScheduleEvent.Type.UPDATED) {
+                    pendingUpdates.put(e.getTask(), e);
+                }
+                if (count == ring.length) {
+                    if (policy != BackpressurePolicy.DROP_OLDEST) {
+                        overflow.add(e);
+                        overflowed.incrementAndGet();
+                        return;
+                    }
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    count--;
+                    dropped.increment();
+                }
+                ring[(head + count) % ring.length] = e;
+                count++;
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Moves up to batch.length events into {@code batch}; returns 0 once stopped and empty. */
+        private int drain(ScheduleEvent[] batch) {
+            lock.lock();
+            try {
+                while (count == 0) {
+                    if (stopped) return 0;
+                    notEmpty.awaitUninterruptibly();
+                }
+                int n = Math.min(count, batch.length);
+                for (int i = 0; i < n; i++) {
+                    ScheduleEvent e = ring[head];
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    if (e.getType() == ScheduleEvent.Type.UPDATED) pendingUpdates.remove(e.getTask(), e);
+                    batch[i] = e;
+                }
+                count -= n;
+                // the ring only fills from the overflow while it has any, so order is kept
+                int moved = 0;
+                for (ScheduleEvent e; count < ring.length && (e = overflow.poll()) != null; moved++) {
+                    ring[(head + count) % ring.length] = e;
+                    count++;
+                }
+                if (moved > 0 && overflowed.addAndGet(-moved) <= capacity) signalRoom();
+                return n;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void stop() {
+            lock.lock();
+            try {
+                stopped = true;
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return count + overflow.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                drainLoop();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        private void drainLoop() {
+            ScheduleEvent[] batch = new ScheduleEvent[DRAIN_BATCH];
+            int n;
+            while ((n = drain(batch)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    try {
+                        ScheduleMetrics m = metrics;
+                        if (m == null) {
+                            batch[i].deliverTo(observer);
+                        } else {
+                            long t0 = System.nanoTime();
+                            batch[i].deliverTo(observer);
+                            m.recordDispatch(observer, System.nanoTime() - t0);
+                        }
+                    } catch (RuntimeException ex) {
+                        logger.error("Observer failed handling " + batch[i].getType() + " event", ex);
+                    }
+                    batch[i] = null;
+                }
+            }
+        }
+    }
+}
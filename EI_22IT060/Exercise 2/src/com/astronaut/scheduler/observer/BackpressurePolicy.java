@@ -0,0 +1,22 @@
+package com.astronaut.scheduler.observer;
+
+/**
+ * What an AsyncEventDispatcher does when an observer's buffer is full.
+ */
+public enum BackpressurePolicy {
+    /**
+     * Nothing is lost: events for a full buffer wait in that observer's overflow
+     * queue, and publishers wait in awaitCapacity, outside their locks, once too
+     * much is queued. One slow observer therefore slows the publishers, but not
+     * delivery to the other observers.
+     */
+    BLOCK,
+    /** The oldest pending event is discarded to make room. */
+    DROP_OLDEST,
+    /**
+     * An update for a task that already has an update pending is folded into it
+     * (observers read the live task, so they still see the latest state). Other
+     * events overflow as with BLOCK.
+     */
+    COALESCE
+}
@@ -0,0 +1,65 @@
+package com.astronaut.scheduler.observer;
+
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.Task;
+
+import java.util.List;
+
+/**
+ * A schedule change captured for deferred delivery to a ScheduleObserver.
+ */
+public final class ScheduleEvent {
+    public enum Type { ADDED, BATCH_ADDED, REMOVED, UPDATED, CONFLICT, RULE_ADDED, RULE_REMOVED }
+
+    private final Type type;
+    private final Task task;
+    private final List<Task> tasks;
+    private final Task conflicting;
+    private final String message;
+    private final RecurrenceRule rule;
+
+    private ScheduleEvent(Type type, Task task, List<Task> tasks, Task conflicting, String message) {
+        this(type, task, tasks, conflicting, message, null);
+    }
+
+    private ScheduleEvent(Type type, Task task, List<Task> tasks, Task conflicting, String message,
+                          RecurrenceRule rule) {
+        this.type = type;
+        this.task = task;
+        this.tasks = tasks;
+        this.conflicting = conflicting;
+        this.message = message;
+        this.rule = rule;
+    }
+
+    public static ScheduleEvent added(Task t) { return new ScheduleEvent(Type.ADDED, t, null, null, null); }
+    public static ScheduleEvent addedAll(List<Task> ts) { return new ScheduleEvent(Type.BATCH_ADDED, null, ts, null, null); }
+    public static ScheduleEvent removed(Task t) { return new ScheduleEvent(Type.REMOVED, t, null, null, null); }
+    public static ScheduleEvent updated(Task t) { return new ScheduleEvent(Type.UPDATED, t, null, null, null); }
+    public static ScheduleEvent conflict(Task attempted, Task conflicting, String msg) {
+        return new ScheduleEvent(Type.CONFLICT, attempted, null, conflicting, msg);
+    }
+    public static ScheduleEvent ruleAdded(RecurrenceRule r) { return new ScheduleEvent(Type.RULE_ADDED, null, null, null, null, r); }
+    public static ScheduleEvent ruleRemoved(RecurrenceRule r) { return new ScheduleEvent(Type.RULE_REMOVED, null, null, null, null, r); }
+
+    public Type getType() { return type; }
+    /** The affected task, or the attempted task for CONFLICT; null for BATCH_ADDED and rule events. */
+    public Task getTask() { return task; }
+    public List<Task> getTasks() { return tasks; }
+    public Task getConflicting() { return conflicting; }
+    public String getMessage() { return message; }
+    /** The affected rule for RULE_ADDED and RULE_REMOVED; null otherwise. */
+    public RecurrenceRule getRule() { return rule; }
+
+    public void deliverTo(ScheduleObserver o) {
+        switch (type) {
+            case ADDED -> o.onTaskAdded(task);
+            case BATCH_ADDED -> o.onTasksAdded(tasks);
+            case REMOVED -> o.onTaskRemoved(task);
+            case UPDATED -> o.onTaskUpdated(task);
+            case CONFLICT -> o.onConflict(task, conflicting, message);
+            case RULE_ADDED -> o.onRuleAdded(rule);
+            case RULE_REMOVED -> o.onRuleRemoved(rule);
+        }
+    }
+}
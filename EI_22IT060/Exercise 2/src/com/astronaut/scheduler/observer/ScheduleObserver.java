@@ -1,10 +1,25 @@
 package com.astronaut.scheduler.observer;
 
+import com.astronaut.scheduler.model.RecurrenceRule;
 import com.astronaut.scheduler.model.Task;
 
+import java.util.List;
+
 public interface ScheduleObserver {
     void onTaskAdded(Task task);
+
+    /** Called once per successful bulk insert; by default forwards each task to onTaskAdded. */
+    default void onTasksAdded(List<Task> tasks) {
+        for (Task t : tasks) onTaskAdded(t);
+    }
+
     void onTaskRemoved(Task task);
     void onTaskUpdated(Task task);
     void onConflict(Task attempted, Task conflicting, String message);
+
+    /** Called when a recurrence rule is stored; ignored by default. */
+    default void onRuleAdded(RecurrenceRule rule) {}
+
+    /** Called when a recurrence rule is removed; ignored by default. */
+    default void onRuleRemoved(RecurrenceRule rule) {}
 }
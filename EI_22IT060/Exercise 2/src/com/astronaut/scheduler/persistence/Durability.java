@@ -0,0 +1,13 @@
+package com.astronaut.scheduler.persistence;
+
+/**
+ * How long a mutation waits for its journal record to reach the disk.
+ */
+public enum Durability {
+    /** Return only after the record has been forced to disk (shared with concurrent writers). */
+    FSYNC,
+    /** Return immediately; the record is forced by the next periodic group commit. */
+    BATCHED,
+    /** Return immediately and never force; the OS decides when the record is written back. */
+    NONE
+}
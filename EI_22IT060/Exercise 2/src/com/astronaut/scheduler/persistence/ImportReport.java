@@ -0,0 +1,55 @@
+package com.astronaut.scheduler.persistence;
+
+import com.astronaut.scheduler.model.Task;
+
+import java.util.List;
+
+/**
+ * Outcome of a file import: the tasks that were accepted, in file order, and
+ * one entry per rejected row.
+ */
+public final class ImportReport {
+    /** A rejected row: its 1-based line number, why it was rejected and (a prefix of) its text. */
+    public static final class RowError {
+        private final long line;
+        private final String message;
+        private final String text;
+
+        public RowError(long line, String message, String text) {
+            this.line = line;
+            this.message = message;
+            this.text = text;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+        public String getText() { return text; }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message + " [" + text + "]";
+        }
+    }
+
+    private final List<Task> tasks;
+    private final List<RowError> errors;
+    private final long rowCount;
+
+    ImportReport(List<Task> tasks, List<RowError> errors, long rowCount) {
+        this.tasks = List.copyOf(tasks);
+        this.errors = List.copyOf(errors);
+        this.rowCount = rowCount;
+    }
+
+    public List<Task> getTasks() { return tasks; }
+    public List<RowError> getErrors() { return errors; }
+    public boolean hasErrors() { return !errors.isEmpty(); }
+
+    /** Data rows seen, excluding blank lines and a CSV header. */
+    public long getRowCount() { return rowCount; }
+
+    @Override
+    public String toString() {
+        return "Imported " + tasks.size() + " of " + rowCount + " rows, " + errors.size() + " rejected";
+    }
+}
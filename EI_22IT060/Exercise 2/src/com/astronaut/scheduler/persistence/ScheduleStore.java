@@ -0,0 +1,691 @@
+package com.astronaut.scheduler.persistence;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable storage for one schedule: an append-only, checksummed journal of
+ * mutations split into segment files, plus compact snapshots.
+ *
+ * Journal records are staged in a direct buffer and written to the current
+ * segment through its FileChannel by a background group-commit thread, which
+ * forces the channel once for every record that asked for durability since
+ * the previous force. FSYNC callers wait for that force; many writers waiting
+ * at the same time share one fsync.
+ *
+ * Recovery loads the newest valid snapshot and replays only the journal
+ * records written after it. A torn or corrupt record ends the replay and the
+ * journal is truncated there.
+ *
+ * Recurrence rules are journaled and snapshotted alongside the tasks. A rule
+ * record is a task record whose payload also carries the rule's first day,
+ * last day and period.
+ *
+ * A batch record (seq, op, count, then count removals and additions) holds a
+ * whole multi-task mutation under one checksum, so recovery replays all of it
+ * or none, as the schedule applied it.
+ *
+ * Layout of {@code dir}: {@code journal-<first seq>.wal} segments and
+ * {@code snapshot-<seq>.snap} files.
+ */
+public final class ScheduleStore implements AutoCloseable {
+    static final byte OP_ADD = 1;
+    static final byte OP_REMOVE = 2;
+    static final byte OP_EDIT = 3;
+    static final byte OP_COMPLETE = 4;
+    static final byte OP_RULE_ADD = 5;
+    static final byte OP_RULE_REMOVE = 6;
+    static final byte OP_BATCH = 7;
+
+    private static final int SNAPSHOT_MAGIC = 0x41535350; // "ASSP"
+    private static final int SNAPSHOT_VERSION = 2;        // 2 added the rules after the tasks
+    private static final int RECORD_HEADER = 8;           // payload length + crc
+    private static final int RECORD_FIXED = 8 + 1 + 1 + 1 + 8 + 8 + 4;
+    private static final int RULE_FIXED = 8 + 8 + 4;      // first day, last day, period after a rule's description
+    private static final int BATCH_FIXED = 8 + 1 + 4;     // seq, op, entry count
+    private static final int ENTRY_FIXED = 1 + 1 + 1 + 8 + 8 + 4;
+    private static final long NO_UNTIL = Long.MAX_VALUE;  // last day of an open-ended rule
+    private static final long SEGMENT_LIMIT = 64L * 1024 * 1024;
+
+    /** Receives the recovered state: the snapshot in one piece, then the journal tail. */
+    public interface Replay {
+        /** The snapshot's tasks, sorted by start time. Called at most once, before any other method. */
+        void onSnapshot(List<Task> tasks);
+        void onAdd(String description, LocalTime start, LocalTime end, TaskPriority priority, boolean completed);
+        void onRemove(String description);
+        void onEdit(String description, LocalTime start, LocalTime end, TaskPriority priority);
+        void onComplete(String description);
+        /** A rule, from the snapshot (after onSnapshot) or from the journal. */
+        void onRuleAdd(RecurrenceRule rule);
+        void onRuleRemove(String description);
+    }
+
+    private final Path dir;
+    private final long commitIntervalMillis;
+    private final AppLogger logger = AppLogger.getInstance();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock(); // one snapshot write at a time
+    private final Condition durable = lock.newCondition();
+    private final Condition work = lock.newCondition();
+    private final ByteBuffer staging = ByteBuffer.allocateDirect(1 << 20);
+    private final CRC32C crc = new CRC32C();
+    private FileChannel segment;
+    private long segmentSize;
+    private long lastSeq;            // last sequence number handed out
+    private long writtenSeq;         // last sequence number written to the channel
+    private long durableSeq;         // last sequence number known to be on disk
+    private long forceWanted;        // highest seq whose caller asked for a force
+    private boolean forcing;         // commit thread is in fsync with the lock released
+    private boolean closed;
+    private IOException failure;
+    private Thread committer;
+    private long snapshotSeq = -1;   // seq of the newest snapshot written; guarded by snapshotLock
+
+    /**
+     * Opens (creating if needed) a store in {@code dir}. Group commits run every
+     * {@code commitIntervalMillis}, or sooner when an FSYNC caller is waiting.
+     */
+    public ScheduleStore(Path dir, long commitIntervalMillis) throws IOException {
+        this.dir = dir;
+        this.commitIntervalMillis = Math.max(1, commitIntervalMillis);
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * Replays the newest snapshot and the journal tail into {@code replay}, then
+     * opens a fresh segment for appends. Must be called once, before any append.
+     * Returns the sequence number of the last recovered mutation.
+     */
+    public long recover(Replay replay) throws IOException {
+        lock.lock();
+        try {
+            if (segment != null) throw new IllegalStateException("Store already recovered.");
+            long snapSeq = loadNewestSnapshot(replay);
+            long seq = snapSeq;
+            List<Path> segments = list("journal-", ".wal");
+            for (int i = 0; i < segments.size(); i++) {
+                long last = replaySegment(segments.get(i), seq, replay);
+                if (last < 0) {
+                    // corrupt tail: nothing after it can be trusted
+                    for (int j = i + 1; j < segments.size(); j++) Files.deleteIfExists(segments.get(j));
+                    seq = -last - 1;
+                    break;
+                }
+                seq = last;
+            }
+            lastSeq = writtenSeq = durableSeq = forceWanted = seq;
+            openSegment(seq + 1);
+            committer = new Thread(this::commitLoop, "schedule-journal-commit");
+            committer.setDaemon(true);
+            committer.start();
+            logger.info("Schedule store recovered at seq {0}", seq);
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long appendAdd(Task t, Durability d) {
+        return append(OP_ADD, t.getDescription(), t.getStart(), t.getEnd(), t.getPriority(), t.isCompleted(), null, d);
+    }
+
+    public long appendRemove(String description, Durability d) {
+        return append(OP_REMOVE, description, null, null, null, false, null, d);
+    }
+
+    public long appendEdit(String description, LocalTime start, LocalTime end, TaskPriority priority, Durability d) {
+        return append(OP_EDIT, description, start, end, priority, false, null, d);
+    }
+
+    public long appendComplete(String description, Durability d) {
+        return append(OP_COMPLETE, description, null, null, null, true, null, d);
+    }
+
+    public long appendRuleAdd(RecurrenceRule r, Durability d) {
+        return append(OP_RULE_ADD, r.getDescription(), r.getStart(), r.getEnd(), r.getPriority(), false, r, d);
+    }
+
+    public long appendRuleRemove(String description, Durability d) {
+        return append(OP_RULE_REMOVE, description, null, null, null, false, null, d);
+    }
+
+    /**
+     * Journals {@code removals} and then {@code additions} as one batch record,
+     * which recovery replays whole or not at all. Returns its sequence number,
+     * or {@link #lastSequence()} if both lists are empty.
+     */
+    public long appendBatch(List<String> removals, List<Task> additions, Durability d) {
+        if (removals.isEmpty() && additions.isEmpty()) return lastSequence();
+        List<byte[]> names = new ArrayList<>(removals.size() + additions.size());
+        long size = BATCH_FIXED;
+        for (String r : removals) names.add(r.getBytes(StandardCharsets.UTF_8));
+        for (Task t : additions) names.add(t.getDescription().getBytes(StandardCharsets.UTF_8));
+        for (byte[] b : names) size += ENTRY_FIXED + b.length;
+        if (size > Integer.MAX_VALUE - RECORD_HEADER) throw new IllegalArgumentException("Batch too large to journal.");
+        int payload = (int) size;
+        lock.lock();
+        try {
+            checkOpen();
+            long seq = lastSeq + 1;
+            ByteBuffer buf = reserve(RECORD_HEADER + payload);
+            int at = buf.position();
+            buf.putInt(payload).putInt(0);
+            buf.putLong(seq).put(OP_BATCH).putInt(names.size());
+            int i = 0;
+            for (; i < removals.size(); i++) putEntry(buf, OP_REMOVE, false, null, null, null, names.get(i));
+            for (Task t : additions) {
+                putEntry(buf, OP_ADD, t.isCompleted(), t.getPriority(), t.getStart(), t.getEnd(), names.get(i++));
+            }
+            return commit(buf, at, seq, d);
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stages one record and returns its sequence number. Does not wait for the
+     * disk; FSYNC callers follow up with {@link #awaitDurable(long)}, ideally
+     * after releasing their own locks so concurrent writers share the fsync.
+     */
+    private long append(byte op, String description, LocalTime start, LocalTime end,
+                        TaskPriority priority, boolean completed, RecurrenceRule rule, Durability d) {
+        byte[] desc = description.getBytes(StandardCharsets.UTF_8);
+        int payload = RECORD_FIXED + desc.length + (rule == null ? 0 : RULE_FIXED);
+        lock.lock();
+        try {
+            checkOpen();
+            long seq = lastSeq + 1;
+            ByteBuffer buf = reserve(RECORD_HEADER + payload);
+            int at = buf.position();
+            buf.putInt(payload).putInt(0);
+            buf.putLong(seq).put(op);
+            putEntry(buf, completed, priority, start, end, desc);
+            if (rule != null) {
+                buf.putLong(rule.getFirstDate().toEpochDay())
+                   .putLong(rule.getUntilDate() == null ? NO_UNTIL : rule.getUntilDate().toEpochDay())
+                   .putInt(rule.getPeriodDays());
+            }
+            return commit(buf, at, seq, d);
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void putEntry(ByteBuffer buf, byte op, boolean completed, TaskPriority priority,
+                                 LocalTime start, LocalTime end, byte[] desc) {
+        buf.put(op);
+        putEntry(buf, completed, priority, start, end, desc);
+    }
+
+    private static void putEntry(ByteBuffer buf, boolean completed, TaskPriority priority,
+                                 LocalTime start, LocalTime end, byte[] desc) {
+        buf.put((byte) (completed ? 1 : 0))
+           .put((byte) (priority == null ? -1 : priority.ordinal()))
+           .putLong(start == null ? -1 : start.toNanoOfDay())
+           .putLong(end == null ? -1 : end.toNanoOfDay())
+           .putInt(desc.length).put(desc);
+    }
+
+    /** The buffer to stage a record of {@code size} bytes in: the staging buffer, or its own if too big. */
+    private ByteBuffer reserve(int size) throws IOException {
+        if (staging.remaining() >= size) return staging;
+        flushStaging();
+        return staging.remaining() >= size ? staging : ByteBuffer.allocate(size);
+    }
+
+    /** Fills in the checksum of the record staged at {@code at} and hands out its seq. */
+    private long commit(ByteBuffer buf, int at, long seq, Durability d) throws IOException {
+        crc.reset();
+        crc.update(buf.duplicate().position(at + RECORD_HEADER).limit(buf.position()));
+        buf.putInt(at + 4, (int) crc.getValue());
+        lastSeq = seq;
+        if (buf != staging) {
+            buf.flip();
+            writeFully(buf);
+            writtenSeq = seq;
+        }
+        if (d != Durability.NONE) {
+            forceWanted = seq;
+            if (d == Durability.FSYNC) work.signal();
+        }
+        return seq;
+    }
+
+    /** Waits until the record with sequence number {@code seq} has been forced to disk. */
+    public void awaitDurable(long seq) {
+        lock.lock();
+        try {
+            if (forceWanted < seq) forceWanted = seq;
+            work.signal();
+            while (durableSeq < seq) {
+                if (failure != null) throw new UncheckedIOException(failure);
+                if (closed) throw new IllegalStateException("Store closed.");
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Group commit: write staged records, then force once for everyone who asked. */
+    private void commitLoop() {
+        lock.lock();
+        try {
+            while (!closed) {
+                if (forceWanted <= durableSeq && staging.position() == 0) {
+                    work.await(commitIntervalMillis, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                try {
+                    flushStaging();
+                    long target = writtenSeq;
+                    boolean force = forceWanted > durableSeq;
+                    if (force) {
+                        FileChannel ch = segment;
+                        // fsync without the lock so appenders keep staging the next batch
+                        forcing = true;
+                        lock.unlock();
+                        try {
+                            ch.force(false);
+                        } finally {
+                            lock.lock();
+                            forcing = false;
+                        }
+                        if (target > durableSeq) durableSeq = target;
+                        durable.signalAll();
+                    }
+                    if (segmentSize >= SEGMENT_LIMIT) rotate();
+                } catch (IOException e) {
+                    failure = e;
+                    durable.signalAll();
+                    logger.error("Schedule journal write failed", e);
+                    return;
+                }
+                if (!closed) work.await(commitIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushStaging() throws IOException {
+        if (staging.position() == 0) return;
+        staging.flip();
+        writeFully(staging);
+        staging.clear();
+        writtenSeq = lastSeq;
+    }
+
+    private void writeFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) segmentSize += segment.write(buf);
+    }
+
+    /** Seals the current segment and starts a new one at the next sequence number. */
+    private void rotate() throws IOException {
+        while (forcing) durable.awaitUninterruptibly();
+        flushStaging();
+        segment.force(false);
+        durableSeq = writtenSeq;
+        durable.signalAll();
+        segment.close();
+        openSegment(lastSeq + 1);
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path p = dir.resolve(String.format("journal-%020d.wal", firstSeq));
+        segment = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+    }
+
+    /**
+     * Writes a snapshot of {@code tasks} (sorted by start time) and {@code rules},
+     * the full schedule state as of {@code seq},
+     * and deletes the journal segments and older snapshots it makes redundant.
+     * The caller must make sure no mutation after {@code seq} is reflected in
+     * {@code tasks} or {@code rules}, typically by capturing them under its read lock.
+     * Concurrent calls are serialised, and one that is older than a snapshot
+     * already written is skipped.
+     */
+    public void writeSnapshot(long seq, List<Task> tasks, List<RecurrenceRule> rules) throws IOException {
+        snapshotLock.lock();
+        try {
+            if (seq < snapshotSeq) return;
+            writeSnapshotFile(seq, tasks, rules);
+            snapshotSeq = seq;
+        } finally {
+            snapshotLock.unlock();
+        }
+        pruneBefore(seq);
+        logger.info("Schedule snapshot written at seq {0}", seq);
+    }
+
+    private void writeSnapshotFile(long seq, List<Task> tasks, List<RecurrenceRule> rules) throws IOException {
+        List<byte[]> names = new ArrayList<>(tasks.size());
+        long size = 4 + 4 + 8 + 4 + 4 + 4;
+        for (Task t : tasks) {
+            byte[] b = t.getDescription().getBytes(StandardCharsets.UTF_8);
+            names.add(b);
+            size += 1 + 8 + 8 + 4 + b.length;
+        }
+        List<byte[]> ruleNames = new ArrayList<>(rules.size());
+        for (RecurrenceRule r : rules) {
+            byte[] b = r.getDescription().getBytes(StandardCharsets.UTF_8);
+            ruleNames.add(b);
+            size += 1 + 8 + 8 + RULE_FIXED + 4 + b.length;
+        }
+        Path tmp = dir.resolve("snapshot.tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(seq).putInt(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                Task t = tasks.get(i);
+                byte[] b = names.get(i);
+                out.put((byte) (t.getPriority().ordinal() | (t.isCompleted() ? 0x80 : 0)))
+                   .putLong(t.getStart().toNanoOfDay())
+                   .putLong(t.getEnd().toNanoOfDay())
+                   .putInt(b.length).put(b);
+            }
+            out.putInt(rules.size());
+            for (int i = 0; i < rules.size(); i++) {
+                RecurrenceRule r = rules.get(i);
+                byte[] b = ruleNames.get(i);
+                out.put((byte) r.getPriority().ordinal())
+                   .putLong(r.getStart().toNanoOfDay())
+                   .putLong(r.getEnd().toNanoOfDay())
+                   .putLong(r.getFirstDate().toEpochDay())
+                   .putLong(r.getUntilDate() == null ? NO_UNTIL : r.getUntilDate().toEpochDay())
+                   .putInt(r.getPeriodDays())
+                   .putInt(b.length).put(b);
+            }
+            CRC32C c = new CRC32C();
+            c.update(out.duplicate().flip());
+            out.putInt((int) c.getValue());
+            out.force();
+        }
+        Path snap = dir.resolve(String.format("snapshot-%020d.snap", seq));
+        Files.move(tmp, snap, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Starts a new journal segment so that every record up to now lives in sealed
+     * segments that a snapshot at {@link #lastSequence()} can retire.
+     */
+    public void sealSegment() throws IOException {
+        lock.lock();
+        try {
+            checkOpen();
+            rotate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pruneBefore(long snapSeq) throws IOException {
+        for (Path p : list("snapshot-", ".snap")) {
+            if (seqOf(p, "snapshot-", ".snap") < snapSeq) Files.deleteIfExists(p);
+        }
+        List<Path> segments = list("journal-", ".wal");
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            // segment i holds seqs [first(i), first(i+1) - 1]
+            if (seqOf(segments.get(i + 1), "journal-", ".wal") - 1 <= snapSeq) Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private long loadNewestSnapshot(Replay replay) throws IOException {
+        List<Path> snaps = list("snapshot-", ".snap");
+        for (int i = snaps.size() - 1; i >= 0; i--) {
+            long seq = loadSnapshot(snaps.get(i), replay);
+            if (seq >= 0) return seq;
+            logger.warning("Ignoring corrupt snapshot {0}", snaps.get(i).getFileName());
+        }
+        return 0;
+    }
+
+    /** Returns the snapshot's seq, or -1 (having replayed nothing) if it fails validation. */
+    private long loadSnapshot(Path p, Replay replay) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < 24) return -1;
+            MappedByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C c = new CRC32C();
+            c.update(in.duplicate().limit((int) size - 4));
+            if (in.getInt((int) size - 4) != (int) c.getValue()) return -1;
+            if (in.getInt() != SNAPSHOT_MAGIC) return -1;
+            int format = in.getInt();
+            if (format != 1 && format != SNAPSHOT_VERSION) return -1;
+            long seq = in.getLong();
+            int count = in.getInt();
+            TaskPriority[] priorities = TaskPriority.values();
+            List<Task> tasks = new ArrayList<>(count);
+            byte[] buf = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int flags = in.get();
+                LocalTime start = LocalTime.ofNanoOfDay(in.getLong());
+                LocalTime end = LocalTime.ofNanoOfDay(in.getLong());
+                int len = in.getInt();
+                if (len > buf.length) buf = new byte[len];
+                in.get(buf, 0, len);
+                Task t = new Task(new String(buf, 0, len, StandardCharsets.UTF_8), start, end, priorities[flags & 0x7f]);
+                if ((flags & 0x80) != 0) t.markCompleted();
+                tasks.add(t);
+            }
+            replay.onSnapshot(tasks);
+            int rules = format == 1 ? 0 : in.getInt();
+            for (int i = 0; i < rules; i++) {
+                TaskPriority priority = priorities[in.get()];
+                LocalTime start = LocalTime.ofNanoOfDay(in.getLong());
+                LocalTime end = LocalTime.ofNanoOfDay(in.getLong());
+                long first = in.getLong();
+                long until = in.getLong();
+                int period = in.getInt();
+                int len = in.getInt();
+                if (len > buf.length) buf = new byte[len];
+                in.get(buf, 0, len);
+                replay.onRuleAdd(rule(new String(buf, 0, len, StandardCharsets.UTF_8), start, end, priority, first, until, period));
+            }
+            return seq;
+        }
+    }
+
+    /**
+     * Replays records with seq greater than {@code after}. Returns the last seq
+     * seen, or {@code -(last good seq) - 1} if the segment ended in a bad record,
+     * in which case the file is truncated after the last good record.
+     */
+    private long replaySegment(Path p, long after, Replay replay) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            if (size == 0) return after;
+            MappedByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            TaskPriority[] priorities = TaskPriority.values();
+            CRC32C c = new CRC32C();
+            byte[] buf = new byte[256];
+            long last = after;
+            while (in.hasRemaining()) {
+                int at = in.position();
+                if (in.remaining() < RECORD_HEADER) return truncate(ch, at, last);
+                int payload = in.getInt();
+                int sum = in.getInt();
+                if (payload < RECORD_FIXED || payload > in.remaining()) return truncate(ch, at, last);
+                c.reset();
+                c.update(in.duplicate().limit(in.position() + payload));
+                if ((int) c.getValue() != sum) return truncate(ch, at, last);
+
+                int next = in.position() + payload;
+                long seq = in.getLong();
+                byte op = in.get();
+                if (op == OP_BATCH) {
+                    if (!validBatch(in.duplicate(), next)) return truncate(ch, at, last);
+                    if (seq > last) {
+                        replayBatch(in, replay);
+                        last = seq;
+                    }
+                    in.position(next);
+                    continue;
+                }
+                boolean completed = in.get() != 0;
+                int prio = in.get();
+                long s = in.getLong();
+                long e = in.getLong();
+                int len = in.getInt();
+                int extra = op == OP_RULE_ADD ? RULE_FIXED : 0;
+                if (len < 0 || RECORD_FIXED + len + extra != payload) return truncate(ch, at, last);
+                if (len > buf.length) buf = new byte[len];
+                in.get(buf, 0, len);
+                if (seq <= last) { // already covered by the snapshot
+                    in.position(next);
+                    continue;
+                }
+                String desc = new String(buf, 0, len, StandardCharsets.UTF_8);
+                TaskPriority priority = prio < 0 ? null : priorities[prio];
+                switch (op) {
+                    case OP_ADD -> replay.onAdd(desc, LocalTime.ofNanoOfDay(s), LocalTime.ofNanoOfDay(e), priority, completed);
+                    case OP_REMOVE -> replay.onRemove(desc);
+                    case OP_EDIT -> replay.onEdit(desc, LocalTime.ofNanoOfDay(s), LocalTime.ofNanoOfDay(e), priority);
+                    case OP_COMPLETE -> replay.onComplete(desc);
+                    case OP_RULE_ADD -> replay.onRuleAdd(rule(desc, LocalTime.ofNanoOfDay(s), LocalTime.ofNanoOfDay(e),
+                            priority, in.getLong(), in.getLong(), in.getInt()));
+                    case OP_RULE_REMOVE -> replay.onRuleRemove(desc);
+                    default -> { return truncate(ch, at, last); }
+                }
+                last = seq;
+            }
+            return last;
+        }
+    }
+
+    /** Whether the batch entries after the op byte exactly fill the record ending at {@code next}. */
+    private static boolean validBatch(ByteBuffer in, int next) {
+        if (next - in.position() < 4) return false;
+        int count = in.getInt();
+        if (count < 1) return false;
+        for (int i = 0; i < count; i++) {
+            if (next - in.position() < ENTRY_FIXED) return false;
+            byte op = in.get();
+            if (op != OP_ADD && op != OP_REMOVE) return false;
+            in.position(in.position() + ENTRY_FIXED - 1 - 4);
+            int len = in.getInt();
+            if (len < 0 || len > next - in.position()) return false;
+            in.position(in.position() + len);
+        }
+        return in.position() == next;
+    }
+
+    /** Replays a batch already checked by validBatch. */
+    private static void replayBatch(ByteBuffer in, Replay replay) {
+        TaskPriority[] priorities = TaskPriority.values();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            byte op = in.get();
+            boolean completed = in.get() != 0;
+            int prio = in.get();
+            long s = in.getLong();
+            long e = in.getLong();
+            byte[] b = new byte[in.getInt()];
+            in.get(b);
+            String desc = new String(b, StandardCharsets.UTF_8);
+            if (op == OP_REMOVE) replay.onRemove(desc);
+            else replay.onAdd(desc, LocalTime.ofNanoOfDay(s), LocalTime.ofNanoOfDay(e), priorities[prio], completed);
+        }
+    }
+
+    private static RecurrenceRule rule(String description, LocalTime start, LocalTime end, TaskPriority priority,
+                                       long firstDay, long untilDay, int periodDays) {
+        return new RecurrenceRule(description, start, end, priority, LocalDate.ofEpochDay(firstDay),
+                untilDay == NO_UNTIL ? null : LocalDate.ofEpochDay(untilDay), periodDays);
+    }
+
+    private long truncate(FileChannel ch, long at, long last) throws IOException {
+        logger.warning("Truncating schedule journal after seq {0}", last);
+        ch.truncate(at);
+        return -last - 1;
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(p -> {
+                        String n = p.getFileName().toString();
+                        return n.startsWith(prefix) && n.endsWith(suffix);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long seqOf(Path p, String prefix, String suffix) {
+        String n = p.getFileName().toString();
+        return Long.parseLong(n.substring(prefix.length(), n.length() - suffix.length()));
+    }
+
+    private void checkOpen() {
+        if (segment == null) throw new IllegalStateException("Store not recovered yet.");
+        if (closed) throw new IllegalStateException("Store closed.");
+        if (failure != null) throw new UncheckedIOException(failure);
+    }
+
+    /** Writes and forces everything staged, then stops the commit thread. */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            while (forcing) durable.awaitUninterruptibly();
+            if (segment != null) {
+                flushStaging();
+                segment.force(false);
+                durableSeq = writtenSeq;
+                segment.close();
+            }
+            closed = true;
+            work.signalAll();
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (committer != null) {
+            try {
+                committer.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
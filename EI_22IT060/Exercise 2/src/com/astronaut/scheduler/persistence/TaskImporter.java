@@ -0,0 +1,540 @@
+package com.astronaut.scheduler.persistence;
+
+import com.astronaut.scheduler.exceptions.BatchConflictException;
+import com.astronaut.scheduler.factory.TaskFactory;
+import com.astronaut.scheduler.model.ScheduleResult;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskConflict;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Streams task files into the scheduler.
+ *
+ * Two formats are read. CSV rows are {@code description,start,end[,priority]}.
+ * The description may be double-quoted, with "" as an escaped quote, and an
+ * optional header row is skipped. NDJSON rows are flat objects with
+ * {@code description}, {@code start}, {@code end} and optional
+ * {@code priority} string fields. Times are strict HH:mm.
+ *
+ * The file is cut into line-aligned ranges that are memory-mapped and
+ * validated in parallel. Times and priorities are parsed straight from the
+ * mapped bytes without allocating, and a description is decoded only once the
+ * rest of its row is valid. A bad row becomes an entry in the report instead
+ * of an exception.
+ */
+public final class TaskImporter {
+    public enum Format {
+        CSV, NDJSON;
+
+        /** NDJSON for .ndjson, .jsonl and .json files, CSV otherwise. */
+        public static Format forPath(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final int MAX_CHUNK = 64 << 20;
+    private static final int MAX_ERROR_TEXT = 120;
+    private static final int IMPORT_BATCH = 4096;
+
+    private static final String BAD_TIME = "Invalid time format. Use HH:mm (24-hour).";
+    private static final String BAD_ORDER = "Start time must be before end time.";
+    private static final String EMPTY_DESCRIPTION = "Description cannot be empty.";
+    private static final String BAD_CSV = "Expected description,start,end[,priority].";
+    private static final String BAD_JSON = "Malformed JSON row.";
+    private static final String MISSING_FIELDS = "Expected description, start and end fields.";
+
+    private TaskImporter() {}
+
+    public static ImportReport read(Path file) throws IOException {
+        return read(file, Format.forPath(file));
+    }
+
+    /** Parses and validates every row of {@code file} without touching any schedule. */
+    public static ImportReport read(Path file, Format format) throws IOException {
+        Parsed p = parse(file, format);
+        return new ImportReport(p.tasks, p.errors, p.rows);
+    }
+
+    public static ImportReport importInto(Path file, ScheduleManager manager) throws IOException {
+        return importInto(file, Format.forPath(file), manager);
+    }
+
+    /**
+     * Parses {@code file} and adds its valid rows to {@code manager} in file order.
+     * Rows are inserted in batches through addTasks. A batch that is rejected is
+     * retried row by row, so a conflict rejects only its own row, and it is
+     * reported at that row's line like a parse error. The retry goes through
+     * tryAddTask, which does not notify observers: they have already been told
+     * of the batch's conflicts once, when addTasks rejected it.
+     */
+    public static ImportReport importInto(Path file, Format format, ScheduleManager manager) throws IOException {
+        Parsed p = parse(file, format);
+        List<Task> added = new ArrayList<>(p.tasks.size());
+        List<ImportReport.RowError> errors = new ArrayList<>(p.errors);
+        for (int from = 0; from < p.tasks.size(); from += IMPORT_BATCH) {
+            int to = Math.min(from + IMPORT_BATCH, p.tasks.size());
+            List<Task> batch = p.tasks.subList(from, to);
+            try {
+                manager.addTasks(batch);
+                added.addAll(batch);
+                continue;
+            } catch (BatchConflictException ignored) {
+                // fall through to single inserts for this batch only
+            }
+            for (int i = from; i < to; i++) {
+                Task t = p.tasks.get(i);
+                ScheduleResult r = manager.tryAddTask(t);
+                if (r.isApplied()) {
+                    added.add(t);
+                } else {
+                    errors.add(new ImportReport.RowError(p.lines[i], conflictMessage(r.getConflicts().get(0)), t.toString()));
+                }
+            }
+        }
+        errors.sort(Comparator.comparingLong(ImportReport.RowError::getLine));
+        return new ImportReport(added, errors, p.rows);
+    }
+
+    /** The message addTask would have thrown for this conflict. */
+    private static String conflictMessage(TaskConflict c) {
+        return c.getConflicting().getKey().equals(c.getAttempted().getKey())
+                ? c.getMessage()
+                : "Task conflicts with existing task: " + c.getConflicting().getDescription();
+    }
+
+    private static Parsed parse(Path file, Format format) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> ranges = split(ch);
+            List<Chunk> chunks;
+            try {
+                chunks = ranges.parallelStream()
+                        .map(r -> Chunk.parse(ch, r[0], r[1], format))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return Parsed.merge(chunks);
+        }
+    }
+
+    /** Cuts the file into ranges that each end just after a newline (or at EOF). */
+    private static List<long[]> split(FileChannel ch) throws IOException {
+        long size = ch.size();
+        long target = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / (ForkJoinPool.getCommonPoolParallelism() * 4L)));
+        List<long[]> ranges = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long pos = 0;
+        while (pos < size) {
+            long end = size - pos <= target ? size : nextLine(ch, pos + target, size, probe);
+            if (end - pos > Integer.MAX_VALUE) throw new IOException("Line too long near offset " + pos);
+            ranges.add(new long[] { pos, end });
+            pos = end;
+        }
+        return ranges;
+    }
+
+    private static long nextLine(FileChannel ch, long from, long size, ByteBuffer probe) throws IOException {
+        long pos = from;
+        while (pos < size) {
+            probe.clear();
+            int n = ch.read(probe, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') return pos + i + 1;
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    /** Merged result of all chunks; lines[i] is the line number of tasks.get(i). */
+    private static final class Parsed {
+        final List<Task> tasks;
+        final long[] lines;
+        final List<ImportReport.RowError> errors;
+        final long rows;
+
+        private Parsed(List<Task> tasks, long[] lines, List<ImportReport.RowError> errors, long rows) {
+            this.tasks = tasks;
+            this.lines = lines;
+            this.errors = errors;
+            this.rows = rows;
+        }
+
+        static Parsed merge(List<Chunk> chunks) {
+            int total = 0;
+            for (Chunk c : chunks) total += c.tasks.size();
+            List<Task> tasks = new ArrayList<>(total);
+            long[] lines = new long[total];
+            List<ImportReport.RowError> errors = new ArrayList<>();
+            long lineOffset = 0;
+            long rows = 0;
+            for (Chunk c : chunks) {
+                for (int i = 0; i < c.tasks.size(); i++) lines[tasks.size() + i] = lineOffset + c.lines[i];
+                tasks.addAll(c.tasks);
+                for (int i = 0; i < c.errorLines.size(); i++) {
+                    errors.add(new ImportReport.RowError(lineOffset + c.errorLines.get(i),
+                            c.errorMessages.get(i), c.errorTexts.get(i)));
+                }
+                lineOffset += c.lineCount;
+                rows += c.rows;
+            }
+            return new Parsed(tasks, lines, errors, rows);
+        }
+    }
+
+    /** Parser state for one mapped range; used by a single worker thread. */
+    private static final class Chunk {
+        final boolean firstChunk;
+        final Format format;
+        final List<Task> tasks = new ArrayList<>();
+        int[] lines = new int[256];
+        final List<Integer> errorLines = new ArrayList<>();
+        final List<String> errorMessages = new ArrayList<>();
+        final List<String> errorTexts = new ArrayList<>();
+        int lineCount;
+        long rows;
+
+        private ByteBuffer buf;
+        private int lineFrom;
+        private int lineTo;
+        private byte[] scratch = new byte[256];
+
+        // field bounds of the current row, -1 when absent
+        private int descFrom, descTo, startFrom, startTo, endFrom, endTo, prioFrom, prioTo;
+        private boolean descEscaped;
+
+        private Chunk(boolean firstChunk, Format format) {
+            this.firstChunk = firstChunk;
+            this.format = format;
+        }
+
+        static Chunk parse(FileChannel ch, long from, long to, Format format) {
+            Chunk c = new Chunk(from == 0, format);
+            try {
+                c.run(ch.map(FileChannel.MapMode.READ_ONLY, from, to - from));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return c;
+        }
+
+        private void run(MappedByteBuffer b) {
+            buf = b;
+            int n = b.limit();
+            int ls = 0;
+            while (ls < n) {
+                int le = ls;
+                while (le < n && b.get(le) != '\n') le++;
+                lineCount++;
+                int e = le;
+                if (e > ls && b.get(e - 1) == '\r') e--;
+                ls = skipWs(ls, e);
+                if (ls < e) {
+                    lineFrom = ls;
+                    lineTo = e;
+                    if (format == Format.CSV) csvRow();
+                    else jsonRow();
+                }
+                ls = le + 1;
+            }
+        }
+
+        private void csvRow() {
+            int to = lineTo;
+            int i = lineFrom;
+            descEscaped = false;
+            if (buf.get(i) == '"') {
+                descFrom = ++i;
+                while (true) {
+                    if (i >= to) {
+                        rows++;
+                        error("Unterminated quoted description.");
+                        return;
+                    }
+                    if (buf.get(i) == '"') {
+                        if (i + 1 < to && buf.get(i + 1) == '"') {
+                            descEscaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                descTo = i;
+                i = skipWs(i + 1, to);
+                if (i < to && buf.get(i) != ',') {
+                    rows++;
+                    error(BAD_CSV);
+                    return;
+                }
+            } else {
+                descFrom = i;
+                while (i < to && buf.get(i) != ',') i++;
+                descTo = i;
+            }
+            if (firstChunk && lineCount == 1 && !descEscaped && equalsIgnoreCase(descFrom, trimEnd(descFrom, descTo), "description")) {
+                return; // header row
+            }
+            rows++;
+            int fields = 0;
+            startFrom = endFrom = prioFrom = -1;
+            while (i < to && fields < 3) {
+                int fs = ++i; // skip the comma
+                while (i < to && buf.get(i) != ',') i++;
+                if (fields == 0) { startFrom = fs; startTo = i; }
+                else if (fields == 1) { endFrom = fs; endTo = i; }
+                else { prioFrom = fs; prioTo = i; }
+                fields++;
+            }
+            if (i < to || fields < 2) {
+                error(BAD_CSV);
+                return;
+            }
+            accept();
+        }
+
+        /** Flat object scanner: string keys, string or bare values, no nesting. */
+        private void jsonRow() {
+            rows++;
+            int to = lineTo;
+            int i = lineFrom;
+            descFrom = startFrom = endFrom = prioFrom = -1;
+            descEscaped = false;
+            if (buf.get(i) != '{') {
+                error(BAD_JSON);
+                return;
+            }
+            i = skipWs(i + 1, to);
+            if (i < to && buf.get(i) == '}') {
+                i++;
+            } else {
+                while (true) {
+                    if (i >= to || buf.get(i) != '"') { error(BAD_JSON); return; }
+                    int kf = i + 1;
+                    int kt = closingQuote(kf, to);
+                    if (kt < 0) { error(BAD_JSON); return; }
+                    i = skipWs(kt + 1, to);
+                    if (i >= to || buf.get(i) != ':') { error(BAD_JSON); return; }
+                    i = skipWs(i + 1, to);
+                    if (i >= to) { error(BAD_JSON); return; }
+                    int vf;
+                    int vt;
+                    boolean escaped = false;
+                    byte c = buf.get(i);
+                    if (c == '"') {
+                        vf = i + 1;
+                        vt = closingQuote(vf, to);
+                        if (vt < 0) { error(BAD_JSON); return; }
+                        for (int j = vf; j < vt; j++) {
+                            if (buf.get(j) == '\\') { escaped = true; break; }
+                        }
+                        i = vt + 1;
+                    } else if (c == '{' || c == '[') {
+                        error(BAD_JSON);
+                        return;
+                    } else {
+                        vf = i;
+                        while (i < to && buf.get(i) != ',' && buf.get(i) != '}') i++;
+                        vt = trimEnd(vf, i);
+                        if (equals(vf, vt, "null")) vf = -1;
+                    }
+                    if (equals(kf, kt, "description")) { descFrom = vf; descTo = vt; descEscaped = escaped; }
+                    else if (equals(kf, kt, "start")) { startFrom = vf; startTo = vt; }
+                    else if (equals(kf, kt, "end")) { endFrom = vf; endTo = vt; }
+                    else if (equals(kf, kt, "priority")) { prioFrom = vf; prioTo = vt; }
+                    i = skipWs(i, to);
+                    if (i < to && buf.get(i) == ',') {
+                        i = skipWs(i + 1, to);
+                        continue;
+                    }
+                    if (i < to && buf.get(i) == '}') {
+                        i++;
+                        break;
+                    }
+                    error(BAD_JSON);
+                    return;
+                }
+            }
+            if (skipWs(i, to) != to) {
+                error(BAD_JSON);
+                return;
+            }
+            if (descFrom < 0 || startFrom < 0 || endFrom < 0) {
+                error(MISSING_FIELDS);
+                return;
+            }
+            accept();
+        }
+
+        /** Validates the current row's fields; the description is decoded only for a row that passes. */
+        private void accept() {
+            int s = minutes(startFrom, startTo);
+            int e = minutes(endFrom, endTo);
+            if (s < 0 || e < 0) {
+                error(BAD_TIME);
+                return;
+            }
+            if (s >= e) {
+                error(BAD_ORDER);
+                return;
+            }
+            String desc = description();
+            if (desc.isBlank()) {
+                error(EMPTY_DESCRIPTION);
+                return;
+            }
+            if (tasks.size() == lines.length) lines = Arrays.copyOf(lines, lines.length * 2);
+            lines[tasks.size()] = lineCount;
+            tasks.add(new Task(desc, TaskFactory.timeOf(s), TaskFactory.timeOf(e), priority()));
+        }
+
+        private String description() {
+            int len = descTo - descFrom;
+            if (scratch.length < len) scratch = new byte[Math.max(len, scratch.length * 2)];
+            buf.get(descFrom, scratch, 0, len);
+            if (!descEscaped) return new String(scratch, 0, len, StandardCharsets.UTF_8);
+            if (format == Format.CSV) {
+                int w = 0;
+                for (int r = 0; r < len; r++, w++) {
+                    scratch[w] = scratch[r];
+                    if (scratch[r] == '"') r++; // "" -> "
+                }
+                return new String(scratch, 0, w, StandardCharsets.UTF_8);
+            }
+            return unescapeJson(new String(scratch, 0, len, StandardCharsets.UTF_8));
+        }
+
+        /** Same rules as TaskFactory.parseMinutes, read straight from the mapped bytes. */
+        private int minutes(int from, int to) {
+            from = skipWs(from, to);
+            to = trimEnd(from, to);
+            if (to - from != 5 || buf.get(from + 2) != ':') return -1;
+            int h1 = digit(buf.get(from));
+            int h2 = digit(buf.get(from + 1));
+            int m1 = digit(buf.get(from + 3));
+            int m2 = digit(buf.get(from + 4));
+            if ((h1 | h2 | m1 | m2) < 0) return -1;
+            int h = h1 * 10 + h2;
+            int m = m1 * 10 + m2;
+            return h < 24 && m < 60 ? h * 60 + m : -1;
+        }
+
+        /** Same rules as TaskPriority.fromString: unknown or missing means MEDIUM. */
+        private TaskPriority priority() {
+            if (prioFrom < 0) return TaskPriority.MEDIUM;
+            int from = skipWs(prioFrom, prioTo);
+            int to = trimEnd(from, prioTo);
+            if (equalsIgnoreCase(from, to, "high")) return TaskPriority.HIGH;
+            if (equalsIgnoreCase(from, to, "low")) return TaskPriority.LOW;
+            return TaskPriority.MEDIUM;
+        }
+
+        private void error(String message) {
+            int len = Math.min(lineTo - lineFrom, MAX_ERROR_TEXT);
+            byte[] text = new byte[len];
+            buf.get(lineFrom, text, 0, len);
+            errorLines.add(lineCount);
+            errorMessages.add(message);
+            errorTexts.add(new String(text, StandardCharsets.UTF_8));
+        }
+
+        private int closingQuote(int from, int to) {
+            for (int i = from; i < to; i++) {
+                byte c = buf.get(i);
+                if (c == '\\') i++;
+                else if (c == '"') return i;
+            }
+            return -1;
+        }
+
+        private int skipWs(int from, int to) {
+            while (from < to && isWs(buf.get(from))) from++;
+            return from;
+        }
+
+        private int trimEnd(int from, int to) {
+            while (to > from && isWs(buf.get(to - 1))) to--;
+            return to;
+        }
+
+        private boolean equals(int from, int to, String ascii) {
+            if (to - from != ascii.length()) return false;
+            for (int i = 0; i < ascii.length(); i++) {
+                if (buf.get(from + i) != ascii.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        private boolean equalsIgnoreCase(int from, int to, String lowerAscii) {
+            if (to - from != lowerAscii.length()) return false;
+            for (int i = 0; i < lowerAscii.length(); i++) {
+                int c = buf.get(from + i);
+                if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+                if (c != lowerAscii.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        private static boolean isWs(byte c) {
+            return c == ' ' || c == '\t' || c == '\r';
+        }
+
+        private static int digit(byte c) {
+            return c >= '0' && c <= '9' ? c - '0' : -1;
+        }
+
+        private static String unescapeJson(String s) {
+            StringBuilder sb = new StringBuilder(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c != '\\' || i + 1 >= s.length()) {
+                    sb.append(c);
+                    continue;
+                }
+                char n = s.charAt(++i);
+                switch (n) {
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'r' -> sb.append('\r');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (i + 4 < s.length()) {
+                            try {
+                                sb.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                                i += 4;
+                            } catch (NumberFormatException e) {
+                                sb.append("\\u");
+                            }
+                        } else {
+                            sb.append("\\u");
+                        }
+                    }
+                    default -> sb.append(n);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
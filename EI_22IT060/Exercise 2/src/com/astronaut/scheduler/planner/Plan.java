@@ -0,0 +1,57 @@
+package com.astronaut.scheduler.planner;
+
+import com.astronaut.scheduler.exceptions.BatchConflictException;
+import com.astronaut.scheduler.model.FlexibleTask;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.time.Duration;
+import java.util.List;
+
+/** Result of TaskPlanner.plan: the tasks it placed, those it could not, and how well it did. */
+public final class Plan {
+    private final List<Task> placed;
+    private final List<FlexibleTask> unplaced;
+    private final long score;
+    private final long greedyScore;
+    private final long maxScore;
+    private final long moves;
+    private final Duration elapsed;
+
+    Plan(List<Task> placed, List<FlexibleTask> unplaced, long score, long greedyScore, long maxScore,
+         long moves, Duration elapsed) {
+        this.placed = List.copyOf(placed);
+        this.unplaced = List.copyOf(unplaced);
+        this.score = score;
+        this.greedyScore = greedyScore;
+        this.maxScore = maxScore;
+        this.moves = moves;
+        this.elapsed = elapsed;
+    }
+
+    /** Placed tasks with their chosen times, sorted by start time. */
+    public List<Task> getPlaced() { return placed; }
+    public List<FlexibleTask> getUnplaced() { return unplaced; }
+
+    /** Total priority of the placed tasks (LOW 1, MEDIUM 2, HIGH 3). */
+    public long getScore() { return score; }
+    /** Score after the greedy pass alone, before local search. */
+    public long getGreedyScore() { return greedyScore; }
+    /** Score if every placeable task fitted; an upper bound, not always reachable. */
+    public long getMaxScore() { return maxScore; }
+    /** Local-search moves evaluated across all workers. */
+    public long getMoves() { return moves; }
+    public Duration getElapsed() { return elapsed; }
+
+    /** Adds every placed task to {@code schedule} at once; fails if it changed since planning and now overlaps. */
+    public void applyTo(ScheduleManager schedule) throws BatchConflictException {
+        if (!placed.isEmpty()) schedule.addTasks(placed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Placed %d of %d tasks, score %d of %d (greedy %d), %d moves in %d ms",
+                placed.size(), placed.size() + unplaced.size(), score, maxScore, greedyScore, moves,
+                elapsed.toMillis());
+    }
+}
@@ -0,0 +1,59 @@
+package com.astronaut.scheduler.planner;
+
+import com.astronaut.scheduler.model.FlexibleTask;
+import com.astronaut.scheduler.model.Task;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** The flexible tasks flattened into arrays, plus the minutes the fixed tasks already hold. */
+final class Problem {
+    final List<FlexibleTask> tasks;
+    final int[] duration;
+    final int[] lo;          // earliest start minute
+    final int[] hi;          // latest start minute
+    final int[] weight;
+    final boolean[] feasible; // false for a description already taken, which could never be added
+    final List<int[]> fixed = new ArrayList<>(); // [start, end) minutes
+    final long maxScore;
+
+    Problem(List<Task> fixedTasks, List<FlexibleTask> tasks) {
+        this.tasks = List.copyOf(tasks);
+        int n = tasks.size();
+        duration = new int[n];
+        lo = new int[n];
+        hi = new int[n];
+        weight = new int[n];
+        feasible = new boolean[n];
+        Set<String> taken = new HashSet<>();
+        for (Task t : fixedTasks) {
+            taken.add(t.getKey());
+            int s = t.getStart().toSecondOfDay() / 60;
+            int e = t.getEnd().equals(LocalTime.MAX) ? Solution.DAY : (t.getEnd().toSecondOfDay() + 59) / 60;
+            fixed.add(new int[] { s, e });
+        }
+        long max = 0;
+        for (int i = 0; i < n; i++) {
+            FlexibleTask f = tasks.get(i);
+            duration[i] = f.getDurationMinutes();
+            lo[i] = f.getEarliestStartMinute();
+            hi[i] = f.getLatestStartMinute();
+            weight[i] = weight(f);
+            feasible[i] = lo[i] <= hi[i] && taken.add(Task.keyOf(f.getDescription()));
+            if (feasible[i]) max += weight[i];
+        }
+        maxScore = max;
+    }
+
+    int size() {
+        return duration.length;
+    }
+
+    /** LOW, MEDIUM and HIGH count 1, 2 and 3 towards the total. */
+    static int weight(FlexibleTask f) {
+        return f.getPriority().ordinal() + 1;
+    }
+}
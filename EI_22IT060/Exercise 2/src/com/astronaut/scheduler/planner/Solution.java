@@ -0,0 +1,171 @@
+package com.astronaut.scheduler.planner;
+
+import java.util.Arrays;
+
+/**
+ * Mutable placement of the flexible tasks over one day at minute resolution.
+ * A 1440-bit busy map answers "where is the next free run" a word at a time,
+ * and an owner-per-minute table finds the tasks inside a stretch of the day.
+ * Changes since {@link #mark()} are journalled so a rejected move is undone
+ * in proportion to what it touched, not to the size of the problem.
+ */
+final class Solution {
+    static final int DAY = 24 * 60;
+    private static final int WORDS = (DAY + 63) / 64;
+    private static final int FIXED = -2;
+    private static final int FREE = -1;
+
+    final Problem problem;
+    final int[] start;           // start minute per task, -1 when unplaced
+    private final long[] busy;   // bit m set when minute m is taken; bits past DAY are always set
+    private final int[] owner;   // task id per minute, FIXED or FREE
+    long score;
+    int placed;
+
+    private int[] journal = new int[64]; // pairs of (task, start before the change)
+    private int journalSize;
+
+    Solution(Problem problem) {
+        this.problem = problem;
+        this.start = new int[problem.size()];
+        Arrays.fill(start, -1);
+        this.busy = new long[WORDS];
+        this.owner = new int[DAY];
+        Arrays.fill(owner, FREE);
+        for (int m = DAY; m < WORDS * 64; m++) busy[m >>> 6] |= 1L << m;
+        for (int[] f : problem.fixed) {
+            for (int m = f[0]; m < f[1]; m++) {
+                busy[m >>> 6] |= 1L << m;
+                owner[m] = FIXED;
+            }
+        }
+    }
+
+    private Solution(Solution s) {
+        this.problem = s.problem;
+        this.start = s.start.clone();
+        this.busy = s.busy.clone();
+        this.owner = s.owner.clone();
+        this.score = s.score;
+        this.placed = s.placed;
+    }
+
+    Solution copy() {
+        return new Solution(this);
+    }
+
+    /** First start in [lo, hi] with {@code len} free minutes, or -1. */
+    int earliestFit(int lo, int hi, int len) {
+        int p = nextClear(lo);
+        while (p <= hi) {
+            int q = nextSet(p);
+            if (q - p >= len) return p;
+            p = nextClear(q);
+        }
+        return -1;
+    }
+
+    /** Last start in [lo, hi] with {@code len} free minutes, or -1. */
+    int latestFit(int lo, int hi, int len) {
+        int best = -1;
+        int p = nextClear(lo);
+        while (p <= hi) {
+            int q = nextSet(p);
+            int s = Math.min(q - len, hi);
+            if (s >= p) best = s;
+            p = nextClear(q);
+        }
+        return best;
+    }
+
+    /** Places task i at its earliest (or latest) feasible start; false if none. */
+    boolean place(int i, boolean latest) {
+        if (start[i] >= 0 || !problem.feasible[i]) return false;
+        int len = problem.duration[i];
+        int s = latest ? latestFit(problem.lo[i], problem.hi[i], len) : earliestFit(problem.lo[i], problem.hi[i], len);
+        if (s < 0) return false;
+        log(i, -1);
+        occupy(i, s);
+        return true;
+    }
+
+    void remove(int i) {
+        int s = start[i];
+        if (s < 0) return;
+        log(i, s);
+        release(i);
+    }
+
+    /** Appends to {@code out} (from index n) every placed task using a minute in [from, to); returns the new count. */
+    int placedIn(int from, int to, int[] out, int n) {
+        from = Math.max(0, from);
+        to = Math.min(DAY, to);
+        for (int m = from; m < to; m++) {
+            int o = owner[m];
+            if (o >= 0 && (m == from || owner[m - 1] != o) && n < out.length) out[n++] = o;
+        }
+        return n;
+    }
+
+    void mark() {
+        journalSize = 0;
+    }
+
+    /** Undoes every place/remove since the last mark, newest first. */
+    void rollback() {
+        for (int k = journalSize - 2; k >= 0; k -= 2) {
+            int i = journal[k];
+            int before = journal[k + 1];
+            if (start[i] >= 0) release(i);
+            if (before >= 0) occupy(i, before);
+        }
+        journalSize = 0;
+    }
+
+    private void occupy(int i, int s) {
+        int e = s + problem.duration[i];
+        for (int m = s; m < e; m++) {
+            busy[m >>> 6] |= 1L << m;
+            owner[m] = i;
+        }
+        start[i] = s;
+        score += problem.weight[i];
+        placed++;
+    }
+
+    private void release(int i) {
+        int s = start[i];
+        int e = s + problem.duration[i];
+        for (int m = s; m < e; m++) {
+            busy[m >>> 6] &= ~(1L << m);
+            owner[m] = FREE;
+        }
+        start[i] = -1;
+        score -= problem.weight[i];
+        placed--;
+    }
+
+    private void log(int i, int before) {
+        if (journalSize + 2 > journal.length) journal = Arrays.copyOf(journal, journal.length * 2);
+        journal[journalSize++] = i;
+        journal[journalSize++] = before;
+    }
+
+    private int nextClear(int from) {
+        int w = from >>> 6;
+        long word = ~busy[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == WORDS) return DAY;
+            word = ~busy[w];
+        }
+        return Math.min(DAY, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /** Never past DAY, because those bits are always set. */
+    private int nextSet(int from) {
+        int w = from >>> 6;
+        long word = busy[w] & (-1L << from);
+        while (word == 0) word = busy[++w];
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
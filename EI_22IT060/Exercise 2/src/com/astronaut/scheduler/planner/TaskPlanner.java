@@ -0,0 +1,217 @@
+package com.astronaut.scheduler.planner;
+
+import com.astronaut.scheduler.model.FlexibleTask;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Places flexible tasks around the fixed ones so that their total priority is
+ * as high as possible without overlaps, e.g.
+ * {@code TaskPlanner.create().budget(Duration.ofMillis(200)).plan(schedule, tasks)}.
+ *
+ * A greedy pass places tasks in order of priority per minute of duration, then
+ * tightest window, each at its earliest free start. Local search then improves
+ * on it for the time budget: each move clears a random stretch of the day and
+ * refills it, together with a sample of unplaced tasks, in the same order with
+ * ties shuffled; moves that lower the score are undone. The search runs in
+ * rounds of up to 20 ms on a ForkJoinPool, one worker per thread, each with its
+ * own random stream, all starting from the best plan of the previous round.
+ */
+public final class TaskPlanner {
+    private static final long ROUND_NANOS = 20_000_000L;
+    private static final int ROUND_MOVES = 4096;
+    private static final int SAMPLE = 24;
+
+    private Duration budget = Duration.ofMillis(100);
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private long maxMoves = Long.MAX_VALUE;
+    private long seed = 42;
+
+    private TaskPlanner() {}
+
+    public static TaskPlanner create() {
+        return new TaskPlanner();
+    }
+
+    /** Time allowed for local search; zero keeps the greedy result. */
+    public TaskPlanner budget(Duration budget) {
+        if (budget == null || budget.isNegative()) throw new IllegalArgumentException("Budget cannot be negative.");
+        this.budget = budget;
+        return this;
+    }
+
+    public TaskPlanner parallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be positive.");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /** Stops local search after this many moves in total, even if time remains. */
+    public TaskPlanner maxMoves(long maxMoves) {
+        if (maxMoves < 0) throw new IllegalArgumentException("Move limit cannot be negative.");
+        this.maxMoves = maxMoves;
+        return this;
+    }
+
+    /** Seeds the workers' random streams; rounds are time-boxed, so runs may still differ. */
+    public TaskPlanner seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** Plans around the tasks currently in {@code schedule}; does not change it (see Plan.applyTo). */
+    public Plan plan(ScheduleManager schedule, List<FlexibleTask> tasks) {
+        return plan(schedule.viewAllTasks(), tasks);
+    }
+
+    public Plan plan(List<Task> fixed, List<FlexibleTask> tasks) {
+        long t0 = System.nanoTime();
+        Problem p = new Problem(fixed, tasks);
+        Solution best = greedy(p);
+        long greedyScore = best.score;
+        long moves = 0;
+        long deadline = t0 + budget.toNanos();
+        if (best.score < p.maxScore && maxMoves > 0 && !budget.isZero()) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for (int round = 0; best.score < p.maxScore && moves < maxMoves; round++) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) break;
+                    long left = maxMoves - moves;
+                    long perWorker = Math.min(ROUND_MOVES, left / parallelism + (left % parallelism == 0 ? 0 : 1));
+                    Round r = new Round(best, parallelism, seed, round, Math.min(deadline, now + ROUND_NANOS), perWorker);
+                    best = pool.invoke(r);
+                    moves += r.moves;
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return toPlan(p, best, greedyScore, moves, Duration.ofNanos(System.nanoTime() - t0));
+    }
+
+    static Solution greedy(Problem p) {
+        List<Integer> order = new ArrayList<>(p.size());
+        for (int i = 0; i < p.size(); i++) order.add(i);
+        // highest priority per minute first: w[i]/d[i] > w[j]/d[j]  <=>  w[i]*d[j] > w[j]*d[i]
+        Comparator<Integer> density = (i, j) -> Long.compare((long) p.weight[j] * p.duration[i],
+                (long) p.weight[i] * p.duration[j]);
+        order.sort(density.thenComparingInt(i -> p.hi[i] - p.lo[i]));
+        Solution s = new Solution(p);
+        for (int i : order) s.place(i, false);
+        return s;
+    }
+
+    private static Plan toPlan(Problem p, Solution s, long greedyScore, long moves, Duration elapsed) {
+        List<Task> placed = new ArrayList<>(s.placed);
+        List<FlexibleTask> unplaced = new ArrayList<>(p.size() - s.placed);
+        for (int i = 0; i < p.size(); i++) {
+            FlexibleTask f = p.tasks.get(i);
+            int start = s.start[i];
+            if (start < 0) {
+                unplaced.add(f);
+                continue;
+            }
+            int end = start + p.duration[i];
+            placed.add(new Task(f.getDescription(), LocalTime.of(start / 60, start % 60),
+                    end == Solution.DAY ? LocalTime.MAX : LocalTime.of(end / 60, end % 60), f.getPriority()));
+        }
+        placed.sort(null);
+        return new Plan(placed, unplaced, s.score, greedyScore, p.maxScore, moves, elapsed);
+    }
+
+    /** One round: forks a search per worker from the same plan and keeps the best result. */
+    private static final class Round extends RecursiveTask<Solution> {
+        private final List<Search> workers = new ArrayList<>();
+        long moves;
+
+        Round(Solution from, int parallelism, long seed, int round, long deadline, long moveLimit) {
+            for (int w = 0; w < parallelism; w++) {
+                long s = seed * 0x9E3779B97F4A7C15L + (long) round * parallelism + w;
+                workers.add(new Search(from.copy(), s, deadline, moveLimit));
+            }
+        }
+
+        @Override
+        protected Solution compute() {
+            invokeAll(workers);
+            // a worker never ends below its start; on a tie keep its drift rather than the old plan
+            Solution best = workers.get(0).solution;
+            for (Search s : workers) {
+                moves += s.moves;
+                if (s.solution.score > best.score) best = s.solution;
+            }
+            return best;
+        }
+    }
+
+    /** Ruin-and-recreate search on a private copy; only ever accepts moves that keep or raise the score. */
+    private static final class Search extends RecursiveAction {
+        final Solution solution;
+        private final SplittableRandom rnd;
+        private final long deadline;
+        private final long moveLimit;
+        long moves;
+
+        Search(Solution solution, long seed, long deadline, long moveLimit) {
+            this.solution = solution;
+            this.rnd = new SplittableRandom(seed);
+            this.deadline = deadline;
+            this.moveLimit = moveLimit;
+        }
+
+        @Override
+        protected void compute() {
+            Solution s = solution;
+            Problem p = s.problem;
+            int n = p.size();
+            int[] cand = new int[256];
+            while (moves < moveLimit && s.score < p.maxScore) {
+                if ((moves & 15) == 0 && System.nanoTime() >= deadline) break;
+                s.mark();
+                long before = s.score;
+                int width = 15 + rnd.nextInt(166);
+                int from = rnd.nextInt(Solution.DAY) - width / 2;
+                int c = s.placedIn(from, from + width, cand, 0);
+                for (int k = 0; k < c; k++) s.remove(cand[k]);
+                for (int k = 0; k < SAMPLE && c < cand.length; k++) {
+                    int i = rnd.nextInt(n);
+                    if (s.start[i] < 0 && p.feasible[i]) cand[c++] = i;
+                }
+                order(cand, c, p);
+                for (int k = 0; k < c; k++) s.place(cand[k], rnd.nextInt(4) == 0);
+                if (s.score < before) s.rollback();
+                moves++;
+            }
+        }
+
+        /** Shuffles, then stable-sorts by priority per minute, so ties come out in random order. */
+        private void order(int[] a, int n, Problem p) {
+            for (int i = n - 1; i > 0; i--) {
+                int j = rnd.nextInt(i + 1);
+                int t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+            for (int i = 1; i < n; i++) {
+                int v = a[i];
+                int j = i - 1;
+                while (j >= 0 && (long) p.weight[a[j]] * p.duration[v] < (long) p.weight[v] * p.duration[a[j]]) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.astronaut.scheduler.replication;
+
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire format of the replication stream, big-endian as written by DataOutputStream.
+ *
+ * <pre>
+ * follower hello:  epoch:long  appliedVersion:long       (-1 when it has nothing)
+ * SNAPSHOT (1):    epoch:long  version:long  count:int  entry*  ruleCount:int  rule*
+ * RECORD   (2):    version:long  op:byte  count:int  entry*    (RULE_ADD: count 1, one rule)
+ * HEARTBEAT(3):    lastVersion:long
+ * entry:           flags:byte  start:long  end:long  length:int  utf8:byte*
+ * rule:            entry  firstDay:long  untilDay:long  period:int
+ * </pre>
+ *
+ * Entry flags hold the priority ordinal and 0x80 when completed; times are
+ * nanos of the day, -1 where the op has none. Rule days are epoch days, with
+ * Long.MAX_VALUE for a rule without an end. A RESTORE record carries the whole
+ * new task list, like a snapshot inside the stream.
+ */
+final class Frames {
+    static final byte SNAPSHOT = 1;
+    static final byte RECORD = 2;
+    static final byte HEARTBEAT = 3;
+
+    static final byte OP_ADD = 1;
+    static final byte OP_REMOVE = 2;
+    static final byte OP_EDIT = 3;
+    static final byte OP_COMPLETE = 4;
+    static final byte OP_RESTORE = 5;
+    static final byte OP_RULE_ADD = 6;
+    static final byte OP_RULE_REMOVE = 7;
+
+    private static final long NO_UNTIL = Long.MAX_VALUE;
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private Frames() {}
+
+    static byte[] record(long version, byte op, List<Task> tasks) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + 48 * tasks.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(RECORD);
+            out.writeLong(version);
+            out.writeByte(op);
+            out.writeInt(tasks.size());
+            for (Task t : tasks) writeEntry(out, t.getDescription(), t.getStart(), t.getEnd(), t.getPriority(), t.isCompleted());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] record(long version, byte op, String description, LocalTime start, LocalTime end,
+                         TaskPriority priority) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48 + description.length());
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(RECORD);
+            out.writeLong(version);
+            out.writeByte(op);
+            out.writeInt(1);
+            writeEntry(out, description, start, end, priority, op == OP_COMPLETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] record(long version, RecurrenceRule rule) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rule.getDescription().length());
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(RECORD);
+            out.writeLong(version);
+            out.writeByte(OP_RULE_ADD);
+            out.writeInt(1);
+            writeRule(out, rule);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static void writeSnapshot(DataOutputStream out, long epoch, long version, List<Task> tasks,
+                              List<RecurrenceRule> rules) throws IOException {
+        out.writeByte(SNAPSHOT);
+        out.writeLong(epoch);
+        out.writeLong(version);
+        out.writeInt(tasks.size());
+        for (Task t : tasks) writeEntry(out, t.getDescription(), t.getStart(), t.getEnd(), t.getPriority(), t.isCompleted());
+        out.writeInt(rules.size());
+        for (RecurrenceRule r : rules) writeRule(out, r);
+    }
+
+    static void writeHeartbeat(DataOutputStream out, long lastVersion) throws IOException {
+        out.writeByte(HEARTBEAT);
+        out.writeLong(lastVersion);
+    }
+
+    private static void writeEntry(DataOutputStream out, String description, LocalTime start, LocalTime end,
+                                   TaskPriority priority, boolean completed) throws IOException {
+        out.writeByte((priority == null ? 0 : priority.ordinal()) | (completed ? 0x80 : 0));
+        out.writeLong(start == null ? -1 : start.toNanoOfDay());
+        out.writeLong(end == null ? -1 : end.toNanoOfDay());
+        byte[] b = description.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static void writeRule(DataOutputStream out, RecurrenceRule r) throws IOException {
+        writeEntry(out, r.getDescription(), r.getStart(), r.getEnd(), r.getPriority(), false);
+        out.writeLong(r.getFirstDate().toEpochDay());
+        out.writeLong(r.getUntilDate() == null ? NO_UNTIL : r.getUntilDate().toEpochDay());
+        out.writeInt(r.getPeriodDays());
+    }
+
+    /** One decoded entry; times and priority are null where the op has none. */
+    static final class Entry {
+        final String description;
+        final LocalTime start;
+        final LocalTime end;
+        final TaskPriority priority;
+        final boolean completed;
+
+        private Entry(String description, LocalTime start, LocalTime end, TaskPriority priority, boolean completed) {
+            this.description = description;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.completed = completed;
+        }
+
+        Task toTask() {
+            Task t = new Task(description, start, end, priority);
+            if (completed) t.markCompleted();
+            return t;
+        }
+    }
+
+    static Entry readEntry(DataInputStream in) throws IOException {
+        int flags = in.readUnsignedByte();
+        long s = in.readLong();
+        long e = in.readLong();
+        int len = in.readInt();
+        if (len < 0 || len > 1 << 20) throw new IOException("Corrupt replication entry.");
+        byte[] b = new byte[len];
+        in.readFully(b);
+        int p = flags & 0x7f;
+        if (p >= PRIORITIES.length) throw new IOException("Corrupt replication entry.");
+        return new Entry(new String(b, StandardCharsets.UTF_8),
+                s < 0 ? null : LocalTime.ofNanoOfDay(s), e < 0 ? null : LocalTime.ofNanoOfDay(e),
+                s < 0 ? null : PRIORITIES[p], (flags & 0x80) != 0);
+    }
+
+    static List<Task> readTasks(DataInputStream in, int count) throws IOException {
+        if (count < 0) throw new IOException("Corrupt replication frame.");
+        List<Task> tasks = new ArrayList<>(Math.min(count, 1 << 16));
+        for (int i = 0; i < count; i++) tasks.add(readEntry(in).toTask());
+        return tasks;
+    }
+
+    /** Reads one rule; an invalid one surfaces as IllegalArgumentException, like a diverged record. */
+    static RecurrenceRule readRule(DataInputStream in) throws IOException {
+        Entry e = readEntry(in);
+        long first = in.readLong();
+        long until = in.readLong();
+        int period = in.readInt();
+        if (e.start == null || e.end == null) throw new IOException("Corrupt replication rule.");
+        return new RecurrenceRule(e.description, e.start, e.end, e.priority, LocalDate.ofEpochDay(first),
+                until == NO_UNTIL ? null : LocalDate.ofEpochDay(until), period);
+    }
+
+    static List<RecurrenceRule> readRules(DataInputStream in, int count) throws IOException {
+        if (count < 0) throw new IOException("Corrupt replication frame.");
+        List<RecurrenceRule> rules = new ArrayList<>(Math.min(count, 1 << 16));
+        for (int i = 0; i < count; i++) rules.add(readRule(in));
+        return rules;
+    }
+}
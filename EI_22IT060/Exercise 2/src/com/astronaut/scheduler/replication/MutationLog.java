@@ -0,0 +1,158 @@
+package com.astronaut.scheduler.replication;
+
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.scheduler.MutationListener;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The leader's recent mutations, each encoded once as a RECORD frame and kept
+ * in a ring of fixed capacity that every follower session reads from at its
+ * own position. A follower that falls further behind than the ring reaches is
+ * sent a snapshot instead. Positions count records from 0 and never wrap.
+ */
+final class MutationLog implements MutationListener {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final byte[][] frames;
+    private final long[] versions;
+    private long head;        // position of the next record
+    private long baseVersion = Long.MAX_VALUE; // every record above this version is still in the ring
+    private long lastVersion;
+    private boolean closed;
+
+    MutationLog(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Backlog must be positive.");
+        frames = new byte[capacity][];
+        versions = new long[capacity];
+    }
+
+    /**
+     * Sets the version the log starts after, as returned when it was attached to
+     * the schedule; records may already have arrived in between.
+     */
+    void startAfter(long version) {
+        lock.lock();
+        try {
+            if (head < frames.length) baseVersion = version;
+            lastVersion = Math.max(lastVersion, version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onAdd(long version, List<Task> added) {
+        append(version, Frames.record(version, Frames.OP_ADD, added));
+    }
+
+    @Override
+    public void onRemove(long version, String description) {
+        append(version, Frames.record(version, Frames.OP_REMOVE, description, null, null, null));
+    }
+
+    @Override
+    public void onEdit(long version, String description, LocalTime start, LocalTime end, TaskPriority priority) {
+        append(version, Frames.record(version, Frames.OP_EDIT, description, start, end, priority));
+    }
+
+    @Override
+    public void onComplete(long version, String description) {
+        append(version, Frames.record(version, Frames.OP_COMPLETE, description, null, null, null));
+    }
+
+    @Override
+    public void onRestore(long version, List<Task> tasks) {
+        append(version, Frames.record(version, Frames.OP_RESTORE, tasks));
+    }
+
+    @Override
+    public void onRuleAdd(long version, RecurrenceRule rule) {
+        append(version, Frames.record(version, rule));
+    }
+
+    @Override
+    public void onRuleRemove(long version, String description) {
+        append(version, Frames.record(version, Frames.OP_RULE_REMOVE, description, null, null, null));
+    }
+
+    private void append(long version, byte[] frame) {
+        lock.lock();
+        try {
+            int i = (int) (head % frames.length);
+            if (head >= frames.length) baseVersion = versions[i]; // evicting the oldest record
+            frames[i] = frame;
+            versions[i] = version;
+            head++;
+            lastVersion = version;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Position of the first record after {@code version}, or -1 when the ring no
+     * longer holds all of them (or the version is from the future, i.e. from
+     * another leader), so the follower needs a snapshot.
+     */
+    long positionAfter(long version) {
+        lock.lock();
+        try {
+            if (version < baseVersion || version > lastVersion) return -1;
+            long lo = Math.max(0, head - frames.length);
+            long hi = head;
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                if (versions[(int) (mid % frames.length)] <= version) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies up to {@code out.length} frames from position {@code pos}, waiting up
+     * to {@code timeoutNanos} for the first. Returns how many were copied (0 on
+     * timeout or close), or -1 if {@code pos} has already been overwritten.
+     */
+    int read(long pos, byte[][] out, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            long wait = timeoutNanos;
+            while (pos >= head && !closed && wait > 0) wait = appended.awaitNanos(wait);
+            if (pos < head - frames.length) return -1;
+            int n = (int) Math.min(out.length, head - pos);
+            for (int k = 0; k < n; k++) out[k] = frames[(int) ((pos + k) % frames.length)];
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long lastVersion() {
+        lock.lock();
+        try {
+            return lastVersion;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.astronaut.scheduler.replication;
+
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+import com.astronaut.scheduler.server.ScheduleServer;
+
+/**
+ * Runs one replica per JVM, each serving the line protocol (see ScheduleServer)
+ * to clients, so a replicated setup can be tried with several JVMs on one host.
+ *
+ * <pre>
+ * java com.astronaut.scheduler.replication.ReplicaNode --leader [--port 7070] [--replication-port 7071] [--backlog N]
+ * java com.astronaut.scheduler.replication.ReplicaNode --follow host:7071 [--port 7080]
+ * </pre>
+ *
+ * The leader takes writes on {@code --port} and streams them to followers on
+ * {@code --replication-port}. A follower's server is read-only; for
+ * read-your-writes, ask the leader for VERSION after writing and send
+ * {@code SYNC <version>} to the follower before reading.
+ */
+public final class ReplicaNode {
+    private ReplicaNode() {}
+
+    public static void main(String[] args) throws Exception {
+        boolean lead = false;
+        String follow = null;
+        int port = -1;
+        int replicationPort = 7071;
+        int backlog = 65_536;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--leader" -> lead = true;
+                case "--follow" -> follow = args[++i];
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--replication-port" -> replicationPort = Integer.parseInt(args[++i]);
+                case "--backlog" -> backlog = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (lead == (follow != null)) throw new IllegalArgumentException("Give exactly one of --leader or --follow host:port.");
+        ScheduleManager schedule = ScheduleManager.getInstance();
+        if (lead) {
+            ReplicationLeader leader = new ReplicationLeader(schedule, replicationPort).backlog(backlog).start();
+            ScheduleServer server = new ScheduleServer(schedule, port < 0 ? 7070 : port).start();
+            System.out.println("Leader: clients on port " + server.getPort() + ", followers on port " + leader.getPort()
+                    + ". Ctrl+C to stop.");
+        } else {
+            int colon = follow.lastIndexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("Expected --follow host:port.");
+            ReplicationFollower follower = new ReplicationFollower(schedule, follow.substring(0, colon),
+                    Integer.parseInt(follow.substring(colon + 1))).start();
+            ScheduleServer server = new ScheduleServer(schedule, port < 0 ? 7080 : port)
+                    .versions(follower).readOnly(true).start();
+            System.out.println("Follower of " + follow + ": read-only clients on port " + server.getPort()
+                    + ". Ctrl+C to stop.");
+        }
+        Thread.currentThread().join();
+    }
+}
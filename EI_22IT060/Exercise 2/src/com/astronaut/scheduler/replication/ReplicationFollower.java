@@ -0,0 +1,244 @@
+package com.astronaut.scheduler.replication;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.exceptions.BatchConflictException;
+import com.astronaut.scheduler.exceptions.RuleConflictException;
+import com.astronaut.scheduler.exceptions.TaskConflictException;
+import com.astronaut.scheduler.exceptions.TaskNotFoundException;
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+import com.astronaut.scheduler.server.VersionSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a local ScheduleManager in step with a ReplicationLeader and serves
+ * reads from it. Changes are applied through the schedule's public methods,
+ * so its own observers, metrics and store see them like local writes; nothing
+ * else may write to that schedule. Versions are the leader's, so a client that
+ * wrote to the leader can pass the leader's version after its write to
+ * {@link #readAfter} (or SYNC, over a server using this as its VersionSource)
+ * and is then guaranteed to read its own writes here.
+ *
+ * The follower reconnects on its own with growing back-off, resuming from the
+ * last version it applied. If an applied change ever fails (the copies have
+ * diverged) it drops its position and reloads from a snapshot.
+ */
+public final class ReplicationFollower implements VersionSource, AutoCloseable {
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final int READ_TIMEOUT_MILLIS = 10_000; // ten missed heartbeats
+
+    private final ScheduleManager schedule;
+    private final InetSocketAddress leader;
+    private final AppLogger logger = AppLogger.getInstance();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition advanced = lock.newCondition();
+    private long epoch;                            // leader incarnation of appliedVersion, 0 for none
+    private volatile long appliedVersion = -1;
+    private volatile long leaderVersion = -1;
+    private volatile boolean connected;
+    private volatile boolean closed;
+    private volatile Socket socket;
+    private Thread worker;
+
+    public ReplicationFollower(ScheduleManager schedule, String host, int port) {
+        this.schedule = schedule;
+        this.leader = new InetSocketAddress(host, port);
+    }
+
+    /** Connects on a daemon thread and returns immediately; see isConnected and awaitVersion. */
+    public ReplicationFollower start() {
+        if (worker != null) throw new IllegalStateException("Follower already started.");
+        worker = new Thread(this::run, "replication-follower");
+        worker.setDaemon(true);
+        worker.start();
+        return this;
+    }
+
+    public ScheduleManager getSchedule() { return schedule; }
+    public boolean isConnected() { return connected; }
+    /** Newest version the leader has reported, or -1 before the first frame. */
+    public long getLeaderVersion() { return leaderVersion; }
+
+    /** Versions the leader has and this follower has not applied yet. */
+    public long getLag() {
+        return Math.max(0, leaderVersion - appliedVersion);
+    }
+
+    /** The leader version this schedule reflects, or -1 before the first snapshot. */
+    @Override
+    public long currentVersion() {
+        return appliedVersion;
+    }
+
+    @Override
+    public boolean awaitVersion(long version, Duration timeout) throws InterruptedException {
+        if (appliedVersion >= version) return true;
+        long wait = timeout.toNanos();
+        lock.lock();
+        try {
+            while (appliedVersion < version) {
+                if (wait <= 0 || closed) return false;
+                wait = advanced.awaitNanos(wait);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The schedule once it reflects at least {@code version}, for read-your-writes:
+     * pass the leader's version taken after the write.
+     */
+    public ScheduleManager readAfter(long version, Duration timeout) throws InterruptedException, TimeoutException {
+        if (!awaitVersion(version, timeout)) {
+            throw new TimeoutException("Follower at version " + appliedVersion + " did not reach " + version
+                    + " within " + timeout.toMillis() + " ms.");
+        }
+        return schedule;
+    }
+
+    private void run() {
+        long backoff = 100;
+        while (!closed) {
+            try (Socket s = new Socket()) {
+                socket = s;
+                s.connect(leader, CONNECT_TIMEOUT_MILLIS);
+                s.setTcpNoDelay(true);
+                s.setSoTimeout(READ_TIMEOUT_MILLIS);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+                out.writeLong(epoch);
+                out.writeLong(appliedVersion);
+                out.flush();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream(), 64 * 1024));
+                connected = true;
+                backoff = 100;
+                logger.info("Following {0}", leader);
+                while (!closed) {
+                    if (!applyFrame(in)) break;
+                }
+            } catch (IOException e) {
+                if (!closed) logger.warning("Replication from {0} interrupted, reconnecting", leader);
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            if (closed) break;
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, 5_000);
+        }
+        signal();
+    }
+
+    /** Reads and applies one frame; false if the copies diverged and a snapshot is needed. */
+    private boolean applyFrame(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case Frames.SNAPSHOT -> {
+                long e = in.readLong();
+                long version = in.readLong();
+                List<Task> tasks = Frames.readTasks(in, in.readInt());
+                List<RecurrenceRule> rules = Frames.readRules(in, in.readInt());
+                try {
+                    schedule.restore(tasks);
+                    schedule.replaceRules(rules);
+                } catch (RuleConflictException | IllegalArgumentException ex) {
+                    throw new IOException("Corrupt replication snapshot.", ex);
+                }
+                epoch = e;
+                advance(version);
+                logger.info(() -> "Loaded snapshot of " + tasks.size() + " tasks and " + rules.size() + " rules at version " + version);
+            }
+            case Frames.RECORD -> {
+                long version = in.readLong();
+                byte op = in.readByte();
+                int count = in.readInt();
+                try {
+                    apply(in, op, count);
+                } catch (TaskConflictException | BatchConflictException | TaskNotFoundException
+                         | RuleConflictException | IllegalArgumentException ex) {
+                    logger.warning("Replica diverged at version {0}; reloading from a snapshot", version);
+                    epoch = 0;
+                    appliedVersion = -1;
+                    return false;
+                }
+                advance(version);
+            }
+            case Frames.HEARTBEAT -> leaderVersion = Math.max(leaderVersion, in.readLong());
+            default -> throw new IOException("Unknown replication frame type " + type);
+        }
+        return true;
+    }
+
+    private void apply(DataInputStream in, byte op, int count)
+            throws IOException, TaskConflictException, BatchConflictException, TaskNotFoundException,
+                   RuleConflictException {
+        if (op == Frames.OP_ADD || op == Frames.OP_RESTORE) {
+            List<Task> tasks = Frames.readTasks(in, count);
+            if (op == Frames.OP_RESTORE) schedule.restore(tasks);
+            else if (tasks.size() == 1) schedule.addTask(tasks.get(0));
+            else schedule.addTasks(tasks);
+            return;
+        }
+        if (count != 1) throw new IOException("Corrupt replication record.");
+        if (op == Frames.OP_RULE_ADD) {
+            schedule.addRule(Frames.readRule(in));
+            return;
+        }
+        Frames.Entry e = Frames.readEntry(in);
+        switch (op) {
+            case Frames.OP_REMOVE -> schedule.removeTask(e.description);
+            case Frames.OP_EDIT -> schedule.editTask(e.description, e.start, e.end, e.priority);
+            case Frames.OP_COMPLETE -> schedule.markCompleted(e.description);
+            case Frames.OP_RULE_REMOVE -> schedule.removeRule(e.description);
+            default -> throw new IOException("Unknown replication op " + op);
+        }
+    }
+
+    private void advance(long version) {
+        appliedVersion = version;
+        if (version > leaderVersion) leaderVersion = version;
+        signal();
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            advanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stops following; the schedule keeps whatever it had applied. */
+    @Override
+    public void close() {
+        closed = true;
+        Socket s = socket;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+        }
+        if (worker != null) worker.interrupt();
+        signal();
+    }
+}
@@ -0,0 +1,180 @@
+package com.astronaut.scheduler.replication;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+import com.astronaut.scheduler.scheduler.ScheduleView;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams every change to a ScheduleManager, in order, to ReplicationFollowers
+ * connected over TCP (see Frames for the format). Mutations are captured as a
+ * MutationListener under the schedule's write lock, encoded once into a
+ * MutationLog ring, and sent to each follower by its own thread, so a slow
+ * follower never holds up writers or other followers.
+ *
+ * A follower reconnecting with a version the ring still covers gets only the
+ * records after it; one that is further behind, new, or last synced with an
+ * earlier leader (a different epoch) gets a snapshot of the whole schedule
+ * first. Idle followers get a heartbeat every second.
+ */
+public final class ReplicationLeader implements AutoCloseable {
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int BATCH = 256;
+
+    private final ScheduleManager schedule;
+    private final ServerSocket socket;
+    private final long epoch = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AppLogger logger = AppLogger.getInstance();
+    private volatile MutationLog log;
+    private int backlog = 65_536;
+    private volatile boolean closed;
+
+    /** Binds to {@code port} on all interfaces; 0 picks a free port. */
+    public ReplicationLeader(ScheduleManager schedule, int port) throws IOException {
+        this(schedule, new InetSocketAddress(port));
+    }
+
+    public ReplicationLeader(ScheduleManager schedule, InetSocketAddress address) throws IOException {
+        this.schedule = schedule;
+        this.socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(address, 64);
+    }
+
+    /** A leader on the loopback interface only, for local testing. */
+    public static ReplicationLeader onLocalhost(ScheduleManager schedule, int port) throws IOException {
+        return new ReplicationLeader(schedule, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /** Mutations kept for followers that reconnect; further behind than this, they get a snapshot. */
+    public ReplicationLeader backlog(int records) {
+        if (log != null) throw new IllegalStateException("Leader already started.");
+        if (records < 1) throw new IllegalArgumentException("Backlog must be positive.");
+        this.backlog = records;
+        return this;
+    }
+
+    /** Starts logging the schedule's changes and accepting followers on a daemon thread. */
+    public ReplicationLeader start() {
+        if (log != null) throw new IllegalStateException("Leader already started.");
+        log = new MutationLog(backlog);
+        log.startAfter(schedule.attachMutationListener(log));
+        Thread th = new Thread(this::acceptLoop, "replication-leader-accept");
+        th.setDaemon(true);
+        th.start();
+        logger.info("Replication leader listening on port {0}", getPort());
+        return this;
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public int getFollowerCount() {
+        return open.size();
+    }
+
+    /** The version a client should pass to a follower to read its own writes (see ReplicationFollower). */
+    public long version() {
+        return schedule.version();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket s;
+            try {
+                s = socket.accept();
+            } catch (IOException e) {
+                if (!closed) logger.error("Accept failed", e);
+                continue;
+            }
+            open.add(s);
+            Thread th = new Thread(() -> serve(s), "replication-session-" + sessions.incrementAndGet());
+            th.setDaemon(true);
+            th.start();
+        }
+    }
+
+    private void serve(Socket s) {
+        try {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream(), 64 * 1024));
+            long followerEpoch = in.readLong();
+            long applied = in.readLong();
+            long pos = followerEpoch == epoch ? log.positionAfter(applied) : -1;
+            logger.info("Follower {0} connected at version {1}", s.getRemoteSocketAddress(), applied);
+            byte[][] batch = new byte[BATCH][];
+            while (!closed) {
+                if (pos < 0) {
+                    ScheduleView v = schedule.copyView();
+                    Frames.writeSnapshot(out, epoch, v.getVersion(), v.getTasks(), v.getRules());
+                    out.flush();
+                    pos = log.positionAfter(v.getVersion()); // -1 again only if the ring lapped us meanwhile
+                    continue;
+                }
+                int n = log.read(pos, batch, HEARTBEAT_NANOS);
+                if (n < 0) {
+                    logger.warning("Follower {0} fell behind the backlog; sending a snapshot", s.getRemoteSocketAddress());
+                    pos = -1;
+                    continue;
+                }
+                if (n == 0) {
+                    Frames.writeHeartbeat(out, log.lastVersion());
+                } else {
+                    for (int k = 0; k < n; k++) {
+                        out.write(batch[k]);
+                        batch[k] = null;
+                    }
+                    pos += n;
+                }
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // follower went away or the leader is closing
+        } catch (IOException | RuntimeException e) {
+            if (!closed) logger.error("Replication session failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            open.remove(s);
+            closeQuietly(s);
+        }
+    }
+
+    /** Stops logging, disconnects every follower and closes the port. */
+    @Override
+    public void close() {
+        closed = true;
+        if (log != null) {
+            schedule.detachMutationListener(log);
+            log.close();
+        }
+        closeQuietly(socket);
+        for (Socket s : open) closeQuietly(s);
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        try {
+            c.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The free gaps between scheduled tasks, kept in step with the start index.
+ *
+ * Gaps are stored in a treap keyed by start, where every node also carries the
+ * longest gap in its subtree. "First gap of at least d after t" walks a single
+ * root-to-leaf path, and listing every long-enough gap in a window skips whole
+ * subtrees whose longest gap is too short. Times are nanos of day; the day ends
+ * at {@link #DAY_END}, reported as LocalTime.MAX.
+ *
+ * Not thread-safe; callers guard it with the manager's lock.
+ */
+final class GapIndex {
+    static final long DAY_END = 24L * 60 * 60 * 1_000_000_000L;
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxLen;
+        Node left;
+        Node right;
+
+        Node(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.maxLen = end - start;
+        }
+    }
+
+    private Node root = new Node(0, DAY_END); // empty schedule: the whole day is free
+
+    /** Marks [start, end) busy; it must lie inside one gap (tasks never overlap). */
+    void occupy(Task t) {
+        long s = t.getStart().toNanoOfDay();
+        long e = nanos(t.getEnd());
+        Node gap = floor(s);
+        if (gap == null || gap.end < e) throw new IllegalStateException("Gap index out of sync at " + t.getStart());
+        root = delete(root, gap.start);
+        if (gap.start < s) root = insert(root, new Node(gap.start, s));
+        if (e < gap.end) root = insert(root, new Node(e, gap.end));
+    }
+
+    /** Marks [start, end) free again, merging with the gaps on either side. */
+    void release(Task t) {
+        long s = t.getStart().toNanoOfDay();
+        long e = nanos(t.getEnd());
+        long from = s;
+        long to = e;
+        Node before = floor(s);
+        if (before != null && before.end == s) {
+            from = before.start;
+            root = delete(root, before.start);
+        }
+        Node after = floor(e);
+        if (after != null && after.start == e) {
+            to = after.end;
+            root = delete(root, after.start);
+        }
+        root = insert(root, new Node(from, to));
+    }
+
+    /** Rebuilds the index from non-overlapping tasks sorted by start, in linear time. */
+    void rebuild(Iterable<Task> sorted) {
+        List<Node> gaps = new ArrayList<>();
+        long cursor = 0;
+        for (Task t : sorted) {
+            long s = t.getStart().toNanoOfDay();
+            if (s > cursor) gaps.add(new Node(cursor, s));
+            cursor = nanos(t.getEnd());
+        }
+        if (cursor < DAY_END) gaps.add(new Node(cursor, DAY_END));
+        root = buildCartesian(gaps);
+    }
+
+    /**
+     * The first free slot of at least {@code minNanos} that starts at or after
+     * {@code from}, or the gap containing {@code from} clipped to start there.
+     */
+    TimeSlot firstFit(long from, long minNanos) {
+        Node containing = floor(from);
+        if (containing != null && containing.end - from >= minNanos && containing.end > from) {
+            return slot(from, containing.end);
+        }
+        Node n = firstAfter(root, from, minNanos);
+        return n == null ? null : slot(n.start, n.end);
+    }
+
+    /** Every free slot of at least {@code minNanos} within [from, to), clipped to the window. */
+    List<TimeSlot> fits(long from, long to, long minNanos) {
+        List<TimeSlot> out = new ArrayList<>();
+        Node containing = floor(from);
+        if (containing != null && containing.start < from) {
+            long e = Math.min(containing.end, to);
+            if (e - from >= minNanos && e > from) out.add(slot(from, e));
+        }
+        collect(root, from, to, minNanos, out);
+        return out;
+    }
+
+    private static Node firstAfter(Node n, long from, long minNanos) {
+        if (n == null || n.maxLen < minNanos) return null;
+        if (n.start <= from) return firstAfter(n.right, from, minNanos);
+        Node l = firstAfter(n.left, from, minNanos);
+        if (l != null) return l;
+        if (n.end - n.start >= minNanos) return n;
+        return firstAfter(n.right, from, minNanos);
+    }
+
+    /** In-order walk of gaps starting in [from, to), pruning subtrees with no long-enough gap. */
+    private static void collect(Node n, long from, long to, long minNanos, List<TimeSlot> out) {
+        if (n == null || n.maxLen < minNanos) return;
+        if (n.start >= from) collect(n.left, from, to, minNanos, out);
+        if (n.start >= from && n.start < to) {
+            long e = Math.min(n.end, to);
+            if (e - n.start >= minNanos) out.add(slot(n.start, e));
+        }
+        if (n.start < to) collect(n.right, from, to, minNanos, out);
+    }
+
+    private Node floor(long key) {
+        Node n = root;
+        Node best = null;
+        while (n != null) {
+            if (n.start == key) return n;
+            if (n.start < key) {
+                best = n;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return best;
+    }
+
+    private static Node insert(Node n, Node x) {
+        if (n == null) return x;
+        if (x.priority > n.priority) {
+            Node[] parts = split(n, x.start);
+            x.left = parts[0];
+            x.right = parts[1];
+            return pull(x);
+        }
+        if (x.start < n.start) n.left = insert(n.left, x);
+        else n.right = insert(n.right, x);
+        return pull(n);
+    }
+
+    private static Node delete(Node n, long key) {
+        if (n == null) return null;
+        if (n.start == key) return merge(n.left, n.right);
+        if (key < n.start) n.left = delete(n.left, key);
+        else n.right = delete(n.right, key);
+        return pull(n);
+    }
+
+    /** Splits into keys < key and keys >= key. */
+    private static Node[] split(Node n, long key) {
+        if (n == null) return new Node[2];
+        if (n.start < key) {
+            Node[] r = split(n.right, key);
+            n.right = r[0];
+            r[0] = pull(n);
+            return r;
+        }
+        Node[] l = split(n.left, key);
+        n.left = l[1];
+        l[1] = pull(n);
+        return l;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return pull(a);
+        }
+        b.left = merge(a, b.left);
+        return pull(b);
+    }
+
+    /** Classic stack-based Cartesian tree construction over keys already in order. */
+    private static Node buildCartesian(List<Node> sorted) {
+        Node[] stack = new Node[sorted.size()];
+        int top = 0;
+        for (Node x : sorted) {
+            Node last = null;
+            while (top > 0 && stack[top - 1].priority < x.priority) last = stack[--top];
+            x.left = last;
+            if (top > 0) stack[top - 1].right = x;
+            stack[top++] = x;
+        }
+        if (top == 0) return null;
+        fixMax(stack[0]);
+        return stack[0];
+    }
+
+    private static long fixMax(Node n) {
+        if (n == null) return Long.MIN_VALUE;
+        n.maxLen = Math.max(n.end - n.start, Math.max(fixMax(n.left), fixMax(n.right)));
+        return n.maxLen;
+    }
+
+    private static Node pull(Node n) {
+        long m = n.end - n.start;
+        if (n.left != null && n.left.maxLen > m) m = n.left.maxLen;
+        if (n.right != null && n.right.maxLen > m) m = n.right.maxLen;
+        n.maxLen = m;
+        return n;
+    }
+
+    /** A task ending at LocalTime.MAX occupies the day up to DAY_END. */
+    private static long nanos(LocalTime end) {
+        return end.equals(LocalTime.MAX) ? DAY_END : end.toNanoOfDay();
+    }
+
+    private static TimeSlot slot(long start, long end) {
+        return new TimeSlot(LocalTime.ofNanoOfDay(start), end >= DAY_END ? LocalTime.MAX : LocalTime.ofNanoOfDay(end));
+    }
+}
@@ -0,0 +1,179 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.Task;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Start-time ordered index used for overlap detection.
+ *
+ * ScheduleManager never admits overlapping tasks, so within one schedule the
+ * tasks sorted by start are also sorted by end and every start is unique. That
+ * means only the task starting just before a probe interval can reach into it
+ * from the left, and every other candidate starts inside the interval: an
+ * overlap query is one floor lookup plus a range walk, O(log n + k).
+ *
+ * Not thread-safe; callers guard it with the manager's lock.
+ */
+final class IntervalIndex {
+    private final NavigableMap<LocalTime, Task> byStart = new TreeMap<>();
+
+    void add(Task t) {
+        byStart.put(t.getStart(), t);
+    }
+
+    /**
+     * Adds non-overlapping tasks already sorted by start. Into an empty index this
+     * builds the tree in linear time instead of n separate inserts.
+     */
+    void addAllSorted(List<Task> sorted) {
+        if (!byStart.isEmpty() || sorted.isEmpty()) {
+            for (Task t : sorted) add(t);
+            return;
+        }
+        // TreeMap.putAll takes its linear buildFromSorted path for an ordered SortedMap source
+        byStart.putAll(new SortedTaskView(sorted));
+    }
+
+    /** Removes the task using its current start time, so call this before mutating the task. */
+    void remove(Task t) {
+        byStart.remove(t.getStart(), t);
+    }
+
+    /**
+     * Returns the earliest task overlapping [start, end), ignoring {@code exclude}, or null.
+     */
+    Task firstOverlap(LocalTime start, LocalTime end, Task exclude) {
+        Map.Entry<LocalTime, Task> before = byStart.lowerEntry(start);
+        if (before != null && before.getValue() != exclude && before.getValue().getEnd().isAfter(start)) {
+            return before.getValue();
+        }
+        for (Task t : byStart.subMap(start, true, end, false).values()) {
+            if (t != exclude) return t;
+        }
+        return null;
+    }
+
+    /**
+     * Returns every task overlapping [start, end) in start order, ignoring {@code exclude}.
+     */
+    List<Task> overlapping(LocalTime start, LocalTime end, Task exclude) {
+        List<Task> out = new ArrayList<>(2);
+        Map.Entry<LocalTime, Task> before = byStart.lowerEntry(start);
+        if (before != null && before.getValue() != exclude && before.getValue().getEnd().isAfter(start)) {
+            out.add(before.getValue());
+        }
+        for (Task t : byStart.subMap(start, true, end, false).values()) {
+            if (t != exclude) out.add(t);
+        }
+        return out;
+    }
+
+    /** The first task starting at or after {@code time}, or null. */
+    Task ceiling(LocalTime time) {
+        Map.Entry<LocalTime, Task> e = byStart.ceilingEntry(time);
+        return e == null ? null : e.getValue();
+    }
+
+    /** The task running at {@code time} (start <= time < end), or null. */
+    Task containing(LocalTime time) {
+        Map.Entry<LocalTime, Task> e = byStart.floorEntry(time);
+        return e != null && e.getValue().getEnd().isAfter(time) ? e.getValue() : null;
+    }
+
+    /** Tasks starting at or after (or strictly after) {@code from}, in start order; a live view like values(). */
+    Collection<Task> from(LocalTime from, boolean inclusive) {
+        return byStart.tailMap(from, inclusive).values();
+    }
+
+    /** Tasks in start order; a live view, so copy it before releasing the lock. */
+    Collection<Task> values() {
+        return byStart.values();
+    }
+
+    int size() {
+        return byStart.size();
+    }
+
+    /**
+     * Read-only SortedMap over a start-ordered task list, so TreeMap.putAll can take
+     * its linear path. Range views are sublists found by binary search.
+     */
+    private static final class SortedTaskView extends AbstractMap<LocalTime, Task> implements SortedMap<LocalTime, Task> {
+        private final List<Task> sorted;
+
+        SortedTaskView(List<Task> sorted) {
+            this.sorted = sorted;
+        }
+
+        @Override
+        public Set<Map.Entry<LocalTime, Task>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<LocalTime, Task>> iterator() {
+                    Iterator<Task> it = sorted.iterator();
+                    return new Iterator<>() {
+                        public boolean hasNext() { return it.hasNext(); }
+                        public Map.Entry<LocalTime, Task> next() {
+                            Task t = it.next();
+                            return new SimpleImmutableEntry<>(t.getStart(), t);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return sorted.size();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return sorted.size();
+        }
+
+        @Override public Comparator<? super LocalTime> comparator() { return null; }
+
+        @Override
+        public LocalTime firstKey() {
+            if (sorted.isEmpty()) throw new NoSuchElementException();
+            return sorted.get(0).getStart();
+        }
+
+        @Override
+        public LocalTime lastKey() {
+            if (sorted.isEmpty()) throw new NoSuchElementException();
+            return sorted.get(sorted.size() - 1).getStart();
+        }
+
+        @Override
+        public SortedMap<LocalTime, Task> subMap(LocalTime from, LocalTime to) {
+            if (from.isAfter(to)) throw new IllegalArgumentException("Range start must not be after its end.");
+            return new SortedTaskView(sorted.subList(indexOf(from), indexOf(to)));
+        }
+
+        @Override
+        public SortedMap<LocalTime, Task> headMap(LocalTime to) {
+            return new SortedTaskView(sorted.subList(0, indexOf(to)));
+        }
+
+        @Override
+        public SortedMap<LocalTime, Task> tailMap(LocalTime from) {
+            return new SortedTaskView(sorted.subList(indexOf(from), sorted.size()));
+        }
+
+        /** Index of the first task starting at or after {@code time}. */
+        private int indexOf(LocalTime time) {
+            int lo = 0;
+            int hi = sorted.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted.get(mid).getStart().isBefore(time)) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Receives every change to a ScheduleManager in the order it was applied,
+ * with the schedule version that change produced (see ScheduleManager#version).
+ * Called under the manager's write lock, so implementations must be quick and
+ * must copy what they need from a task before returning; they must not call
+ * back into the manager.
+ */
+public interface MutationListener {
+    void onAdd(long version, List<Task> added);
+    void onRemove(long version, String description);
+    void onEdit(long version, String description, LocalTime start, LocalTime end, TaskPriority priority);
+    void onComplete(long version, String description);
+    /** The whole schedule was replaced by {@code tasks} (see ScheduleManager#restore). */
+    void onRestore(long version, List<Task> tasks);
+    void onRuleAdd(long version, RecurrenceRule rule);
+    void onRuleRemove(long version, String description);
+}
@@ -0,0 +1,48 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.Occurrence;
+import com.astronaut.scheduler.model.RecurrenceRule;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Lazily merges the occurrences of several rules within [from, to], ordered
+ * by date, then start time. Holds one pending occurrence per rule, so memory
+ * follows the number of rules, not the length of the range, and days on which
+ * nothing recurs are skipped rather than visited.
+ */
+final class OccurrenceIterator implements Iterator<Occurrence> {
+    private static final Comparator<Occurrence> ORDER = Comparator.comparing(Occurrence::getDate)
+            .thenComparing(Occurrence::getStart)
+            .thenComparing(Occurrence::getDescription);
+
+    private final PriorityQueue<Occurrence> heads;
+    private final LocalDate to;
+
+    OccurrenceIterator(Iterable<RecurrenceRule> rules, LocalDate from, LocalDate to) {
+        this.heads = new PriorityQueue<>(ORDER);
+        this.to = to;
+        for (RecurrenceRule r : rules) offer(r, from);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public Occurrence next() {
+        Occurrence o = heads.poll();
+        if (o == null) throw new NoSuchElementException();
+        offer(o.getRule(), o.getDate().plusDays(1));
+        return o;
+    }
+
+    private void offer(RecurrenceRule r, LocalDate from) {
+        r.nextOccurrence(from).filter(d -> !d.isAfter(to)).ifPresent(d -> heads.add(new Occurrence(r, d)));
+    }
+}
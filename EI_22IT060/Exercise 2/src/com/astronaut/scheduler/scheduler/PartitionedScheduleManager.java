@@ -0,0 +1,292 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.exceptions.BatchConflictException;
+import com.astronaut.scheduler.exceptions.TaskConflictException;
+import com.astronaut.scheduler.exceptions.TaskNotFoundException;
+import com.astronaut.scheduler.metrics.ScheduleMetrics;
+import com.astronaut.scheduler.model.ScheduleResult;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.observer.AsyncEventDispatcher;
+import com.astronaut.scheduler.observer.BackpressurePolicy;
+import com.astronaut.scheduler.observer.ScheduleObserver;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Schedules partitioned by (crew member, date). Each partition is its own
+ * ScheduleManager with its own index and lock, so writes to different
+ * astronauts or days never contend. Partitions are created on first use and
+ * empty partitions that stay idle are evicted. Cross-partition queries fan out
+ * over the partitions of a date in parallel.
+ *
+ * All partitions share one observer list, so an observer attached here sees
+ * events from every partition, including ones created later.
+ */
+public final class PartitionedScheduleManager {
+    private final Map<Key, Partition> partitions = new ConcurrentHashMap<>();
+    private final List<ScheduleObserver> observers = new CopyOnWriteArrayList<>();
+    private final AppLogger logger = AppLogger.getInstance();
+    private final ScheduledExecutorService evictor;
+    private volatile AsyncEventDispatcher dispatcher; // shared by all partitions when async
+    private volatile boolean stacklessExceptions;
+    private volatile ScheduleMetrics metrics; // shared by all partitions when set
+
+    /** Partitions are only evicted through explicit {@link #evictIdle(Duration)} calls. */
+    public PartitionedScheduleManager() {
+        this.evictor = null;
+    }
+
+    /** Evicts empty partitions idle for longer than {@code idleTimeout} in the background. */
+    public PartitionedScheduleManager(Duration idleTimeout) {
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread th = new Thread(r, "schedule-partition-evictor");
+            th.setDaemon(true);
+            return th;
+        });
+        long period = Math.max(1, idleTimeout.toMillis());
+        evictor.scheduleWithFixedDelay(() -> evictIdle(idleTimeout), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Identifies one partition: a crew member's schedule on one date. */
+    public static final class Key {
+        private final String crewMember;
+        private final LocalDate date;
+
+        public Key(String crewMember, LocalDate date) {
+            if (crewMember == null || crewMember.isBlank())
+                throw new IllegalArgumentException("Crew member cannot be empty.");
+            if (date == null) throw new IllegalArgumentException("Date must be provided.");
+            this.crewMember = crewMember.trim();
+            this.date = date;
+        }
+
+        public String getCrewMember() { return crewMember; }
+        public LocalDate getDate() { return date; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return crewMember.equalsIgnoreCase(k.crewMember) && date.equals(k.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(crewMember.toLowerCase(), date);
+        }
+
+        @Override
+        public String toString() {
+            return crewMember + "@" + date;
+        }
+    }
+
+    /**
+     * A partition plus an in-flight counter. The evictor retires a partition by
+     * swinging the counter from 0 to RETIRED, which no caller can pass, so a
+     * partition is never dropped while an operation is using it. Only the evictor
+     * removes partitions from the map: while one is retired it either removes it
+     * (if it is still empty) or puts the counter back, and callers that see
+     * RETIRED wait for that and look the key up again.
+     */
+    private final class Partition {
+        static final int RETIRED = Integer.MIN_VALUE;
+        final ScheduleManager schedule = new ScheduleManager(observers);
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile long lastAccess = System.nanoTime();
+    }
+
+    @FunctionalInterface
+    private interface PartitionOp<T, E1 extends Exception, E2 extends Exception> {
+        T apply(ScheduleManager schedule) throws E1, E2;
+    }
+
+    private <T, E1 extends Exception, E2 extends Exception> T withPartition(
+            String crewMember, LocalDate date, PartitionOp<T, E1, E2> op) throws E1, E2 {
+        Key key = new Key(crewMember, date);
+        while (true) {
+            Partition p = partitions.computeIfAbsent(key, k -> new Partition());
+            int n = p.inFlight.get();
+            if (n == Partition.RETIRED) {
+                Thread.onSpinWait(); // the evictor is deciding; it holds RETIRED only briefly
+                continue;
+            }
+            if (!p.inFlight.compareAndSet(n, n + 1)) continue;
+            try {
+                p.lastAccess = System.nanoTime();
+                AsyncEventDispatcher d = dispatcher;
+                if (p.schedule.dispatcher() != d) p.schedule.setDispatcher(d);
+                ScheduleMetrics m = metrics;
+                if (p.schedule.getMetrics() != m) p.schedule.setMetrics(m);
+                if (p.schedule.isStacklessExceptions() != stacklessExceptions) {
+                    p.schedule.setStacklessExceptions(stacklessExceptions);
+                }
+                return op.apply(p.schedule);
+            } finally {
+                p.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    public void attachObserver(ScheduleObserver o) {
+        if (o == null) return;
+        observers.add(o);
+    }
+
+    public void detachObserver(ScheduleObserver o) {
+        observers.remove(o);
+        AsyncEventDispatcher d = dispatcher;
+        if (d != null) d.unregister(o);
+    }
+
+    /**
+     * Delivers events from every partition through one shared AsyncEventDispatcher,
+     * so each observer has a single buffer and drain thread however many partitions
+     * exist. Partitions switch over on their next operation.
+     */
+    public void enableAsyncDispatch(int capacity, BackpressurePolicy policy, Executor executor) {
+        AsyncEventDispatcher old = dispatcher;
+        dispatcher = new AsyncEventDispatcher(observers, capacity, policy, executor);
+        dispatcher.setMetrics(metrics);
+        for (Partition p : partitions.values()) p.schedule.setDispatcher(dispatcher);
+        if (old != null) old.shutdown(1000);
+    }
+
+    public void disableAsyncDispatch() {
+        AsyncEventDispatcher old = dispatcher;
+        dispatcher = null;
+        for (Partition p : partitions.values()) p.schedule.setDispatcher(null);
+        if (old != null) old.shutdown(1000);
+    }
+
+    public void addTask(String crewMember, LocalDate date, Task t) throws TaskConflictException {
+        withPartition(crewMember, date, s -> { s.addTask(t); return null; });
+    }
+
+    public void addTasks(String crewMember, LocalDate date, Collection<Task> batch) throws BatchConflictException {
+        withPartition(crewMember, date, s -> { s.addTasks(batch); return null; });
+    }
+
+    public void removeTask(String crewMember, LocalDate date, String description) throws TaskNotFoundException {
+        withPartition(crewMember, date, s -> { s.removeTask(description); return null; });
+    }
+
+    public void editTask(String crewMember, LocalDate date, String description,
+                         LocalTime newStart, LocalTime newEnd, TaskPriority newPriority)
+            throws TaskNotFoundException, TaskConflictException {
+        this.<Void, TaskNotFoundException, TaskConflictException>withPartition(crewMember, date, s -> {
+            s.editTask(description, newStart, newEnd, newPriority);
+            return null;
+        });
+    }
+
+    public ScheduleResult tryAddTask(String crewMember, LocalDate date, Task t) {
+        return withPartition(crewMember, date, s -> s.tryAddTask(t));
+    }
+
+    public ScheduleResult tryEditTask(String crewMember, LocalDate date, String description,
+                                      LocalTime newStart, LocalTime newEnd, TaskPriority newPriority) {
+        return withPartition(crewMember, date, s -> s.tryEditTask(description, newStart, newEnd, newPriority));
+    }
+
+    /**
+     * Records every partition into one shared ScheduleMetrics (null turns it off).
+     * Partitions switch on their next operation.
+     */
+    public void setMetrics(ScheduleMetrics m) {
+        metrics = m;
+        AsyncEventDispatcher d = dispatcher;
+        if (d != null) d.setMetrics(m);
+    }
+
+    public ScheduleMetrics getMetrics() { return metrics; }
+
+    /** See ScheduleManager.setStacklessExceptions; partitions pick the setting up on their next operation. */
+    public void setStacklessExceptions(boolean stackless) { this.stacklessExceptions = stackless; }
+
+    public void markCompleted(String crewMember, LocalDate date, String description) throws TaskNotFoundException {
+        withPartition(crewMember, date, s -> { s.markCompleted(description); return null; });
+    }
+
+    public List<Task> viewAllTasks(String crewMember, LocalDate date) {
+        Partition p = partitions.get(new Key(crewMember, date));
+        return p == null ? List.of() : p.schedule.viewAllTasks();
+    }
+
+    public List<Task> viewTasksByPriority(String crewMember, LocalDate date, TaskPriority priority) {
+        Partition p = partitions.get(new Key(crewMember, date));
+        return p == null ? List.of() : p.schedule.viewTasksByPriority(priority);
+    }
+
+    public Optional<Task> findByDescription(String crewMember, LocalDate date, String description) {
+        Partition p = partitions.get(new Key(crewMember, date));
+        return p == null ? Optional.empty() : p.schedule.findByDescription(description);
+    }
+
+    /** Every crew member's tasks on {@code date}, keyed by crew member, queried in parallel. */
+    public Map<String, List<Task>> viewAllTasks(LocalDate date) {
+        return fanOut(date, ScheduleManager::viewAllTasks);
+    }
+
+    /** e.g. all HIGH tasks for the crew today, keyed by crew member, queried in parallel. */
+    public Map<String, List<Task>> viewTasksByPriority(LocalDate date, TaskPriority priority) {
+        return fanOut(date, s -> s.viewTasksByPriority(priority));
+    }
+
+    private Map<String, List<Task>> fanOut(LocalDate date, Function<ScheduleManager, List<Task>> query) {
+        return partitions.entrySet().parallelStream()
+                .filter(e -> e.getKey().getDate().equals(date))
+                .map(e -> Map.entry(e.getKey().getCrewMember(), query.apply(e.getValue().schedule)))
+                .filter(e -> !e.getValue().isEmpty())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    public Set<Key> partitionKeys() {
+        return Collections.unmodifiableSet(partitions.keySet());
+    }
+
+    /**
+     * Drops partitions that hold no tasks and have not been used for {@code idle}.
+     * Partitions with tasks are kept: evicting them would lose schedule state.
+     * Returns the number of partitions evicted.
+     */
+    public int evictIdle(Duration idle) {
+        long cutoff = System.nanoTime() - idle.toNanos();
+        int evicted = 0;
+        for (Map.Entry<Key, Partition> e : partitions.entrySet()) {
+            Partition p = e.getValue();
+            if (p.lastAccess - cutoff > 0 || p.schedule.size() != 0) continue;
+            if (!p.inFlight.compareAndSet(0, Partition.RETIRED)) continue;
+            // no operation can start on a retired partition, so an empty one stays empty
+            if (p.schedule.size() == 0) {
+                partitions.remove(e.getKey(), p);
+                evicted++;
+            } else {
+                p.inFlight.set(0);
+            }
+        }
+        if (evicted > 0) logger.info("Evicted idle schedule partitions: {0}", evicted);
+        return evicted;
+    }
+
+    /** Stops the background evictor, if one was started, and drains async observers. */
+    public void shutdown() {
+        if (evictor != null) evictor.shutdownNow();
+        disableAsyncDispatch();
+    }
+}
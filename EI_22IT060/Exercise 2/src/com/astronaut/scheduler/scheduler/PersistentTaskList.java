@@ -0,0 +1,171 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.Task;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable list of tasks in start order, stored as an AVL tree with subtree
+ * sizes. with and without return a new list that shares all but the O(log n)
+ * nodes on the changed path, so ScheduleManager can keep one up to date on
+ * every write and hand it out as a view without copying. Starts are unique
+ * within a schedule, so the start alone orders the tree; a task must be
+ * removed before its start changes. get costs O(log n); iterate instead of
+ * indexing in a loop.
+ */
+final class PersistentTaskList extends AbstractList<Task> {
+    static final PersistentTaskList EMPTY = new PersistentTaskList(null);
+
+    private final Node root;
+
+    private static final class Node {
+        final Task task;
+        final Node left;
+        final Node right;
+        final int size;
+        final int height;
+
+        Node(Task task, Node left, Node right) {
+            this.task = task;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private PersistentTaskList(Node root) {
+        this.root = root;
+    }
+
+    /** A list of {@code sorted}, which must already be in start order; built in linear time. */
+    static PersistentTaskList of(List<Task> sorted) {
+        return sorted.isEmpty() ? EMPTY : new PersistentTaskList(build(sorted, 0, sorted.size()));
+    }
+
+    PersistentTaskList with(Task t) {
+        return new PersistentTaskList(insert(root, t));
+    }
+
+    /** This list without {@code t}, found by its current start; this list if it is absent. */
+    PersistentTaskList without(Task t) {
+        Node r = delete(root, t);
+        if (r == root) return this;
+        return r == null ? EMPTY : new PersistentTaskList(r);
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size());
+        Node n = root;
+        while (true) {
+            int left = size(n.left);
+            if (index < left) {
+                n = n.left;
+            } else if (index == left) {
+                return n.task;
+            } else {
+                index -= left + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private final Node[] stack = new Node[height(root)];
+            private int depth;
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node n) {
+                for (; n != null; n = n.left) stack[depth++] = n;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            public Task next() {
+                if (depth == 0) throw new NoSuchElementException();
+                Node n = stack[--depth];
+                pushLeft(n.right);
+                return n.task;
+            }
+        };
+    }
+
+    private static Node build(List<Task> sorted, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node(sorted.get(mid), build(sorted, from, mid), build(sorted, mid + 1, to));
+    }
+
+    private static Node insert(Node n, Task t) {
+        if (n == null) return new Node(t, null, null);
+        if (t.getStart().isBefore(n.task.getStart())) return balance(n.task, insert(n.left, t), n.right);
+        return balance(n.task, n.left, insert(n.right, t));
+    }
+
+    private static Node delete(Node n, Task t) {
+        if (n == null) return null;
+        if (n.task == t) return join(n.left, n.right);
+        if (t.getStart().isBefore(n.task.getStart())) {
+            Node l = delete(n.left, t);
+            return l == n.left ? n : balance(n.task, l, n.right);
+        }
+        Node r = delete(n.right, t);
+        return r == n.right ? n : balance(n.task, n.left, r);
+    }
+
+    private static Node join(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        Node min = right;
+        while (min.left != null) min = min.left;
+        return balance(min.task, left, deleteMin(right));
+    }
+
+    private static Node deleteMin(Node n) {
+        if (n.left == null) return n.right;
+        return balance(n.task, deleteMin(n.left), n.right);
+    }
+
+    private static Node balance(Task task, Node l, Node r) {
+        int hl = height(l);
+        int hr = height(r);
+        if (hl > hr + 1) {
+            if (height(l.left) >= height(l.right)) return new Node(l.task, l.left, new Node(task, l.right, r));
+            Node lr = l.right;
+            return new Node(lr.task, new Node(l.task, l.left, lr.left), new Node(task, lr.right, r));
+        }
+        if (hr > hl + 1) {
+            if (height(r.right) >= height(r.left)) return new Node(r.task, new Node(task, l, r.left), r.right);
+            Node rl = r.left;
+            return new Node(rl.task, new Node(task, l, rl.left), new Node(r.task, rl.right, r.right));
+        }
+        return new Node(task, l, r);
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+}
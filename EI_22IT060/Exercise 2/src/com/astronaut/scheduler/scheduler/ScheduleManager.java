@@ -1,29 +1,195 @@
 package com.astronaut.scheduler.scheduler;
 
 import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.exceptions.BatchConflictException;
+import com.astronaut.scheduler.exceptions.RuleConflictException;
 import com.astronaut.scheduler.exceptions.TaskConflictException;
 import com.astronaut.scheduler.exceptions.TaskNotFoundException;
+import com.astronaut.scheduler.metrics.ScheduleMetrics;
+import com.astronaut.scheduler.model.Occurrence;
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.ScheduleResult;
 import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskConflict;
 import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.model.TimeSlot;
+import com.astronaut.scheduler.observer.AsyncEventDispatcher;
+import com.astronaut.scheduler.observer.BackpressurePolicy;
+import com.astronaut.scheduler.observer.ScheduleEvent;
 import com.astronaut.scheduler.observer.ScheduleObserver;
+import com.astronaut.scheduler.persistence.Durability;
+import com.astronaut.scheduler.persistence.ScheduleStore;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Singleton ScheduleManager that stores tasks and provides thread-safe operations.
- * Observers are notified on adds/removes/updates and on conflicts.
+ * Observers are notified on adds/removes/updates and on conflicts, either
+ * synchronously under the write lock (default) or, once async dispatch is
+ * enabled, through an AsyncEventDispatcher that delivers them on its own threads.
  */
 public final class ScheduleManager {
     private static volatile ScheduleManager instance;
-    private final Map<String, Task> tasks = new HashMap<>(); // key = description (unique)
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(); // ids are unique across managers
+    private static final int STREAM_PAGE = 256; // tasks fetched per lock hold by iterateTasks
+
+    private final Map<String, Task> tasks = new HashMap<>(); // key = Task.getKey() (unique)
+    private final TaskIdIndex byId = new TaskIdIndex(); // same tasks by Task.getId()
+    private final IntervalIndex byTime = new IntervalIndex(); // kept in sync with tasks
+    // secondary indexes, each start-ordered over a subset of tasks (see index/unindex)
+    private final Map<TaskPriority, IntervalIndex> byPriority = new EnumMap<>(TaskPriority.class);
+    private final IntervalIndex completedTasks = new IntervalIndex();
+    private final IntervalIndex openTasks = new IntervalIndex();
+    private final GapIndex gaps = new GapIndex(); // free time between tasks
+    // false after a bulk load leaves gaps and the secondary indexes empty; the first read needing them builds them
+    private volatile boolean derivedBuilt = true;
+    // recurring routines, stored as rules and expanded on demand; ruleList is a sorted copy read without locking
+    private final Map<String, RecurrenceRule> rules = new HashMap<>(); // guarded by the write lock
+    private volatile List<RecurrenceRule> ruleList = List.of();
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final List<ScheduleObserver> observers = new CopyOnWriteArrayList<>();
+    private final List<ScheduleObserver> observers;
     private final AppLogger logger = AppLogger.getInstance();
 
-    private ScheduleManager() {}
+    // async dispatch: only changed under the write lock, so a writer sees one value throughout
+    private volatile AsyncEventDispatcher dispatcher;
+    private final List<ScheduleEvent> pending = new ArrayList<>(); // guarded by the write lock
+
+    // persistence: store is set once under the write lock; fsyncSeq is guarded by it
+    private volatile ScheduleStore store;
+    private volatile Durability defaultDurability = Durability.BATCHED;
+    private long fsyncSeq;
+
+    // bumped by every successful mutation under the write lock; view caches the sorted list for one version
+    private volatile long version;
+    private volatile ScheduleView view = new ScheduleView(0, List.of(), List.of());
+    private PersistentTaskList ordered = PersistentTaskList.EMPTY; // the tasks in start order; guarded by the lock
+
+    private volatile boolean stacklessExceptions;
+
+    // instrumentation: null means off; writeLockedAt is guarded by the write lock
+    private volatile ScheduleMetrics metrics;
+    private volatile MutationListener mutationListener;
+    private long writeLockedAt;
+
+    private ScheduleManager() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    /** Used by PartitionedScheduleManager so all partitions share one observer list. */
+    ScheduleManager(List<ScheduleObserver> observers) {
+        this.observers = observers;
+        for (TaskPriority p : TaskPriority.values()) byPriority.put(p, new IntervalIndex());
+    }
+
+    /** Makes t findable by key and id, giving it an id on its first insert. */
+    private void register(Task t) {
+        if (t.getId() == 0) t.assignId(NEXT_ID.incrementAndGet());
+        tasks.put(t.getKey(), t);
+        byId.put(t);
+    }
+
+    /** register for a bulk load: reserves the ids in one step and sizes byId once. */
+    private void registerAll(List<Task> batch) {
+        byId.ensureCapacity(byId.size() + batch.size());
+        int next = NEXT_ID.getAndAdd(batch.size());
+        for (Task t : batch) {
+            if (t.getId() == 0) t.assignId(++next);
+            tasks.put(t.getKey(), t);
+            byId.put(t);
+        }
+    }
+
+    private void unregister(Task t) {
+        tasks.remove(t.getKey());
+        byId.remove(t.getId());
+    }
+
+    /** By id when {@code key} is null, else by case-folded description. */
+    private Task lookup(String key, int id) {
+        return key != null ? tasks.get(key) : byId.get(id);
+    }
+
+    /** Adds t to the start index and, unless a bulk load left them unbuilt, the derived indexes. */
+    private void index(Task t) {
+        byTime.add(t);
+        ordered = ordered.with(t);
+        if (!derivedBuilt) return;
+        gaps.occupy(t);
+        byPriority.get(t.getPriority()).add(t);
+        (t.isCompleted() ? completedTasks : openTasks).add(t);
+    }
+
+    /** Removes t from all indexes; call before changing its start, priority or completion. */
+    private void unindex(Task t) {
+        byTime.remove(t);
+        ordered = ordered.without(t);
+        if (!derivedBuilt) return;
+        gaps.release(t);
+        byPriority.get(t.getPriority()).remove(t);
+        (t.isCompleted() ? completedTasks : openTasks).remove(t);
+    }
+
+    /**
+     * Loads tasks into an empty schedule. Only the start index is built here, so
+     * recovering or restoring a large schedule does not also pay for the gap and
+     * secondary indexes; lockReadDerived does that on the first read that uses them.
+     */
+    private void indexAllSorted(List<Task> sorted) {
+        byTime.addAllSorted(sorted);
+        ordered = PersistentTaskList.of(sorted);
+        derivedBuilt = false;
+    }
+
+    /**
+     * Takes the read lock with gaps and the secondary indexes built. If a bulk load
+     * left them empty, builds them under the write lock and downgrades to the read
+     * lock, so no restore can empty them again before the caller reads them.
+     */
+    private void lockReadDerived(ScheduleMetrics m) {
+        lockRead(m);
+        if (derivedBuilt) return;
+        lock.readLock().unlock();
+        lockWrite(m);
+        try {
+            if (!derivedBuilt) {
+                List<Task> sorted = new ArrayList<>(byTime.values());
+                gaps.rebuild(sorted);
+                indexDerived(sorted);
+                derivedBuilt = true;
+            }
+            lock.readLock().lock();
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    private void indexDerived(List<Task> sorted) {
+        Map<TaskPriority, List<Task>> perPriority = new EnumMap<>(TaskPriority.class);
+        List<Task> completed = new ArrayList<>();
+        List<Task> open = new ArrayList<>();
+        for (Task t : sorted) {
+            perPriority.computeIfAbsent(t.getPriority(), p -> new ArrayList<>()).add(t);
+            (t.isCompleted() ? completed : open).add(t);
+        }
+        perPriority.forEach((p, list) -> byPriority.get(p).addAllSorted(list));
+        completedTasks.addAllSorted(completed);
+        openTasks.addAllSorted(open);
+    }
 
     public static ScheduleManager getInstance() {
         if (instance == null) {
@@ -41,136 +207,1189 @@ public final class ScheduleManager {
 
     public void detachObserver(ScheduleObserver o) {
         observers.remove(o);
+        AsyncEventDispatcher d = dispatcher;
+        if (d != null) d.unregister(o);
+    }
+
+    /**
+     * Switches observer notification to asynchronous mode: each observer gets a
+     * bounded buffer of {@code capacity} events drained on its own thread. A slow
+     * observer never holds the write lock up; under BLOCK and COALESCE a writer
+     * waits for it only after releasing the lock.
+     */
+    public void enableAsyncDispatch(int capacity, BackpressurePolicy policy) {
+        enableAsyncDispatch(capacity, policy, null);
+    }
+
+    /** As above, draining observers on {@code executor} (one long-running task per observer). */
+    public void enableAsyncDispatch(int capacity, BackpressurePolicy policy, Executor executor) {
+        AsyncEventDispatcher d = new AsyncEventDispatcher(observers, capacity, policy, executor);
+        d.setMetrics(metrics);
+        AsyncEventDispatcher old = setDispatcher(d);
+        if (old != null) old.shutdown(1000);
+    }
+
+    /** Returns to synchronous notification after draining events already queued. */
+    public void disableAsyncDispatch() {
+        AsyncEventDispatcher old = setDispatcher(null);
+        if (old != null) old.shutdown(1000);
+    }
+
+    AsyncEventDispatcher dispatcher() {
+        return dispatcher;
+    }
+
+    /** Swaps the dispatcher under the write lock and returns the previous one. */
+    AsyncEventDispatcher setDispatcher(AsyncEventDispatcher d) {
+        lock.writeLock().lock();
+        try {
+            AsyncEventDispatcher old = dispatcher;
+            dispatcher = d;
+            return old;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     private void notifyAdded(Task t) {
-        for (ScheduleObserver o : observers) o.onTaskAdded(t);
+        if (dispatcher != null) { pending.add(ScheduleEvent.added(t)); return; }
+        deliver(o -> o.onTaskAdded(t));
+    }
+    private void notifyAddedAll(List<Task> batch) {
+        if (dispatcher != null) { pending.add(ScheduleEvent.addedAll(batch)); return; }
+        deliver(o -> o.onTasksAdded(batch));
     }
     private void notifyRemoved(Task t) {
-        for (ScheduleObserver o : observers) o.onTaskRemoved(t);
+        if (dispatcher != null) { pending.add(ScheduleEvent.removed(t)); return; }
+        deliver(o -> o.onTaskRemoved(t));
     }
     private void notifyUpdated(Task t) {
-        for (ScheduleObserver o : observers) o.onTaskUpdated(t);
+        if (dispatcher != null) { pending.add(ScheduleEvent.updated(t)); return; }
+        deliver(o -> o.onTaskUpdated(t));
     }
     private void notifyConflict(Task attempted, Task conflicting, String msg) {
-        for (ScheduleObserver o : observers) o.onConflict(attempted, conflicting, msg);
+        if (dispatcher != null) { pending.add(ScheduleEvent.conflict(attempted, conflicting, msg)); return; }
+        deliver(o -> o.onConflict(attempted, conflicting, msg));
+    }
+    private void notifyRuleAdded(RecurrenceRule r) {
+        if (dispatcher != null) { pending.add(ScheduleEvent.ruleAdded(r)); return; }
+        deliver(o -> o.onRuleAdded(r));
+    }
+    private void notifyRuleRemoved(RecurrenceRule r) {
+        if (dispatcher != null) { pending.add(ScheduleEvent.ruleRemoved(r)); return; }
+        deliver(o -> o.onRuleRemoved(r));
+    }
+
+    /** Synchronous delivery to every observer, timing each one when metrics are on. */
+    private void deliver(Consumer<ScheduleObserver> call) {
+        ScheduleMetrics m = metrics;
+        for (ScheduleObserver o : observers) {
+            if (m == null) {
+                call.accept(o);
+                continue;
+            }
+            long t0 = System.nanoTime();
+            call.accept(o);
+            m.recordDispatch(o, System.nanoTime() - t0);
+        }
+    }
+
+    /**
+     * Publishes events queued while the write lock was held and releases it.
+     * Publishing only appends to the dispatcher's inbox, so it is done before the
+     * unlock to keep events in mutation order; waiting for observers to catch up
+     * (BLOCK, COALESCE) happens after, when this writer holds no lock.
+     */
+    private void unlockWrite() {
+        long waitSeq = fsyncSeq;
+        fsyncSeq = 0;
+        if (writeLockedAt != 0) {
+            ScheduleMetrics m = metrics;
+            if (m != null) m.recordWriteLockHold(System.nanoTime() - writeLockedAt);
+            writeLockedAt = 0;
+        }
+        AsyncEventDispatcher d = null;
+        if (!pending.isEmpty()) {
+            d = dispatcher;
+            d.publish(pending);
+            pending.clear();
+        }
+        lock.writeLock().unlock();
+        if (d != null) d.awaitCapacity();
+        // FSYNC writers wait here, off the lock, so concurrent writers share one fsync
+        if (waitSeq > 0) store.awaitDurable(waitSeq);
+    }
+
+    /**
+     * Makes this schedule durable: recovers its state from {@code store} (latest
+     * snapshot plus journal tail) and journals every later mutation there,
+     * recurrence rules included. The schedule must be empty and have no rules. {@code defaultDurability} applies to mutations that
+     * do not pass their own.
+     */
+    public void attachStore(ScheduleStore store, Durability defaultDurability) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (this.store != null) throw new IllegalStateException("A store is already attached.");
+            if (!tasks.isEmpty() || !rules.isEmpty())
+                throw new IllegalStateException("Schedule must be empty to recover from a store.");
+            long seq = store.recover(new ScheduleStore.Replay() {
+                @Override
+                public void onSnapshot(List<Task> sorted) {
+                    registerAll(sorted);
+                    indexAllSorted(sorted);
+                }
+
+                @Override
+                public void onAdd(String description, LocalTime start, LocalTime end, TaskPriority priority, boolean completed) {
+                    Task t = new Task(description, start, end, priority);
+                    if (completed) t.markCompleted();
+                    register(t);
+                    index(t);
+                }
+
+                @Override
+                public void onRemove(String description) {
+                    Task t = tasks.get(Task.keyOf(description));
+                    if (t == null) return;
+                    unregister(t);
+                    unindex(t);
+                }
+
+                @Override
+                public void onEdit(String description, LocalTime start, LocalTime end, TaskPriority priority) {
+                    Task t = tasks.get(Task.keyOf(description));
+                    if (t == null) return;
+                    unindex(t);
+                    t.setStart(start);
+                    t.setEnd(end);
+                    t.setPriority(priority);
+                    index(t);
+                }
+
+                @Override
+                public void onComplete(String description) {
+                    Task t = tasks.get(Task.keyOf(description));
+                    if (t == null || t.isCompleted()) return;
+                    unindex(t);
+                    t.markCompleted();
+                    index(t);
+                }
+
+                @Override
+                public void onRuleAdd(RecurrenceRule rule) {
+                    rules.put(Task.keyOf(rule.getDescription()), rule);
+                }
+
+                @Override
+                public void onRuleRemove(String description) {
+                    rules.remove(Task.keyOf(description));
+                }
+            });
+            publishRules();
+            this.defaultDurability = defaultDurability == null ? Durability.BATCHED : defaultDurability;
+            this.store = store;
+            version++;
+            logger.info("Recovered {0} tasks up to journal seq {1}", tasks.size(), seq);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current schedule to the attached store so that
+     * recovery only replays the journal written after it.
+     */
+    public void snapshot() throws IOException {
+        ScheduleStore s = store;
+        if (s == null) throw new IllegalStateException("No store attached.");
+        List<Task> copy;
+        List<RecurrenceRule> ruleCopy;
+        long seq;
+        lockRead(metrics);
+        try {
+            // writers journal under the write lock, so seq matches exactly this state
+            seq = s.lastSequence();
+            copy = new ArrayList<>(byTime.size());
+            for (Task t : byTime.values()) copy.add(copyOf(t));
+            ruleCopy = ruleList;
+            s.sealSegment();
+        } finally {
+            lock.readLock().unlock();
+        }
+        s.writeSnapshot(seq, copy, ruleCopy);
+    }
+
+    /**
+     * Takes a snapshot every {@code every} on a daemon thread; cancel the returned
+     * future to stop. Failures are logged and retried on the next tick.
+     */
+    public ScheduledFuture<?> scheduleSnapshots(Duration every) {
+        ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread th = new Thread(r, "schedule-snapshot");
+            th.setDaemon(true);
+            return th;
+        });
+        long period = Math.max(1, every.toMillis());
+        return ses.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Periodic snapshot failed", e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private Durability durability(Durability d) {
+        return d == null ? defaultDurability : d;
+    }
+
+    /** Remembers the seq an FSYNC caller must wait for once the write lock is released. */
+    private void journaled(long seq, Durability d) {
+        if (d == Durability.FSYNC) fsyncSeq = seq;
     }
 
     /**
      * Adds the task if no conflict. Throws TaskConflictException when conflict arises.
      */
     public void addTask(Task t) throws TaskConflictException {
+        addTask(t, null);
+    }
+
+    /** As addTask(Task), with an explicit durability when a store is attached. */
+    public void addTask(Task t, Durability durability) throws TaskConflictException {
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        lockWrite(m);
+        try {
+            Task dup = tasks.get(t.getKey());
+            if (dup != null) throw conflict("Task with same description already exists.", dup);
+
+            // conflict detection: overlap detection
+            Task existing = byTime.firstOverlap(t.getStart(), t.getEnd(), null);
+            if (existing != null) {
+                notifyConflict(t, existing, "Overlapping time period.");
+                throw conflict("Task conflicts with existing task: " + existing.getDescription(), existing);
+            }
+
+            applyAdd(t, durability);
+        } finally {
+            unlockWrite();
+            stopTimer(m, ScheduleMetrics.Operation.ADD, t0);
+        }
+    }
+
+    /**
+     * Adds the task unless it conflicts, without throwing. A rejected result lists
+     * every conflict: the task with the same description, if any, and every task
+     * the new one overlaps. The check runs under the read lock first, so rejected
+     * probes do not block each other or readers. Rejections are returned to the
+     * caller only; observers are not told about them.
+     */
+    public ScheduleResult tryAddTask(Task t) {
+        return tryAddTask(t, null);
+    }
+
+    public ScheduleResult tryAddTask(Task t, Durability durability) {
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        ScheduleResult r = tryAdd(t, durability, m);
+        if (m != null && !r.isApplied()) {
+            m.recordRejection();
+            if (!r.getConflicts().isEmpty()) m.recordConflict(r.getConflicts().size());
+        }
+        stopTimer(m, ScheduleMetrics.Operation.ADD, t0);
+        return r;
+    }
+
+    private ScheduleResult tryAdd(Task t, Durability durability, ScheduleMetrics m) {
+        lockRead(m);
+        try {
+            List<TaskConflict> conflicts = conflictsFor(t, t.getStart(), t.getEnd(), null);
+            if (!conflicts.isEmpty()) return ScheduleResult.conflicts(conflicts);
+        } finally {
+            lock.readLock().unlock();
+        }
+        lockWrite(m);
+        try {
+            // re-check: another writer may have got in between the two locks
+            List<TaskConflict> conflicts = conflictsFor(t, t.getStart(), t.getEnd(), null);
+            if (!conflicts.isEmpty()) return ScheduleResult.conflicts(conflicts);
+            applyAdd(t, durability);
+            return ScheduleResult.applied();
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    private void applyAdd(Task t, Durability durability) {
+        if (store != null) journaled(store.appendAdd(t, durability(durability)), durability(durability));
+        register(t);
+        index(t);
+        version++;
+        MutationListener ml = mutationListener;
+        if (ml != null) ml.onAdd(version, List.of(t));
+        logger.info("Task added: {0}", t.getDescription());
+        notifyAdded(t);
+    }
+
+    /**
+     * Every conflict {@code attempted} would cause if it occupied [start, end). For an
+     * edit, {@code self} is the task being moved: it is skipped and its description
+     * is not checked.
+     */
+    private List<TaskConflict> conflictsFor(Task attempted, LocalTime start, LocalTime end, Task self) {
+        List<TaskConflict> out = new ArrayList<>(2);
+        if (self == null) {
+            Task dup = tasks.get(attempted.getKey());
+            if (dup != null) out.add(new TaskConflict(attempted, dup, "Task with same description already exists."));
+        }
+        String msg = self == null ? "Overlapping time period." : "Update causes overlap.";
+        for (Task o : byTime.overlapping(start, end, self)) out.add(new TaskConflict(attempted, o, msg));
+        return out;
+    }
+
+    /** Whether this manager throws its checked exceptions without a stack trace. */
+    public boolean isStacklessExceptions() { return stacklessExceptions; }
+
+    /**
+     * Throw TaskConflictException, TaskNotFoundException, BatchConflictException
+     * and RuleConflictException without filling in a stack trace, for callers
+     * that handle rejections as routine outcomes and never print the trace.
+     */
+    public void setStacklessExceptions(boolean stackless) { this.stacklessExceptions = stackless; }
+
+    private TaskConflictException conflict(String message, Task conflicting) {
+        ScheduleMetrics m = metrics;
+        if (m != null) m.recordConflict(1);
+        return new TaskConflictException(message, conflicting, !stacklessExceptions);
+    }
+
+    private TaskNotFoundException notFound(String description) {
+        ScheduleMetrics m = metrics;
+        if (m != null) m.recordNotFound();
+        return new TaskNotFoundException("Task not found: " + description, !stacklessExceptions);
+    }
+
+    /** For lookups that came by id when {@code description} is null. */
+    private TaskNotFoundException notFound(String description, int id) {
+        return notFound(description != null ? description : "id " + id);
+    }
+
+    /**
+     * Records operation latencies, lock wait and hold times, conflict counts and
+     * per-observer dispatch times into {@code m} (which may be shared with other
+     * managers and registered as an MBean); null switches instrumentation off.
+     */
+    public void setMetrics(ScheduleMetrics m) {
+        lock.writeLock().lock();
+        try {
+            metrics = m;
+            if (dispatcher != null) dispatcher.setMetrics(m);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ScheduleMetrics getMetrics() { return metrics; }
+
+    /**
+     * Sends every later change to {@code l} (see MutationListener) and returns the
+     * version it starts after. One listener at a time.
+     */
+    public long attachMutationListener(MutationListener l) {
+        lock.writeLock().lock();
+        try {
+            if (mutationListener != null) throw new IllegalStateException("A mutation listener is already attached.");
+            mutationListener = l;
+            return version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void detachMutationListener(MutationListener l) {
         lock.writeLock().lock();
         try {
-            String key = t.getDescription().toLowerCase();
-            if (tasks.containsKey(key)) {
-                throw new TaskConflictException("Task with same description already exists.", tasks.get(key));
+            if (mutationListener == l) mutationListener = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void lockWrite(ScheduleMetrics m) {
+        if (m == null) {
+            lock.writeLock().lock();
+            return;
+        }
+        long t0 = System.nanoTime();
+        lock.writeLock().lock();
+        long now = System.nanoTime();
+        m.recordWriteLockWait(now - t0);
+        writeLockedAt = now;
+    }
+
+    private void lockRead(ScheduleMetrics m) {
+        if (m == null) {
+            lock.readLock().lock();
+            return;
+        }
+        long t0 = System.nanoTime();
+        lock.readLock().lock();
+        m.recordReadLockWait(System.nanoTime() - t0);
+    }
+
+    private static long startTimer(ScheduleMetrics m) {
+        return m == null ? 0 : System.nanoTime();
+    }
+
+    private static void stopTimer(ScheduleMetrics m, ScheduleMetrics.Operation op, long t0) {
+        if (m != null) m.recordOperation(op, System.nanoTime() - t0);
+    }
+
+    /**
+     * Adds all tasks or none. The batch is sorted once and swept together with the
+     * existing tasks it spans, so every conflicting pair (inside the batch or against
+     * the schedule) is collected in one pass. Throws BatchConflictException listing
+     * all of them; on success observers get a single onTasksAdded call.
+     */
+    public void addTasks(Collection<Task> batch) throws BatchConflictException {
+        addTasks(batch, null);
+    }
+
+    public void addTasks(Collection<Task> batch, Durability durability) throws BatchConflictException {
+        if (batch.isEmpty()) return;
+        Task[] sorted = batch.toArray(new Task[0]);
+        Arrays.sort(sorted);
+
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        lockWrite(m);
+        try {
+            List<TaskConflict> conflicts = new ArrayList<>();
+            Map<String, Task> batchKeys = new HashMap<>(sorted.length * 2);
+            LocalTime maxEnd = sorted[0].getEnd();
+            for (Task t : sorted) {
+                Task dup = tasks.get(t.getKey());
+                if (dup == null) dup = batchKeys.putIfAbsent(t.getKey(), t);
+                if (dup != null) conflicts.add(new TaskConflict(t, dup, "Task with same description already exists."));
+                if (t.getEnd().isAfter(maxEnd)) maxEnd = t.getEnd();
             }
 
-            // conflict detection: overlap detection
-            for (Task existing : tasks.values()) {
-                if (isOverlap(t.getStart(), t.getEnd(), existing.getStart(), existing.getEnd())) {
-                    notifyConflict(t, existing, "Overlapping time period.");
-                    throw new TaskConflictException("Task conflicts with existing task: " + existing.getDescription(), existing);
+            // sweep batch and existing tasks in start order, keeping the intervals still open;
+            // existing tasks never overlap each other, so only pairs involving the batch count
+            List<Task> existing = byTime.overlapping(sorted[0].getStart(), maxEnd, null);
+            List<Task> openBatch = new ArrayList<>();
+            List<Task> openExisting = new ArrayList<>();
+            int i = 0, j = 0;
+            while (i < sorted.length) {
+                boolean fromBatch = j == existing.size() || sorted[i].compareTo(existing.get(j)) <= 0;
+                Task next = fromBatch ? sorted[i++] : existing.get(j++);
+                openBatch.removeIf(o -> !o.getEnd().isAfter(next.getStart()));
+                openExisting.removeIf(o -> !o.getEnd().isAfter(next.getStart()));
+                if (fromBatch) {
+                    for (Task o : openBatch) conflicts.add(new TaskConflict(next, o, "Overlaps another task in the batch."));
+                    for (Task o : openExisting) conflicts.add(new TaskConflict(next, o, "Overlapping time period."));
+                    openBatch.add(next);
+                } else {
+                    for (Task o : openBatch) conflicts.add(new TaskConflict(o, next, "Overlapping time period."));
+                    openExisting.add(next);
                 }
             }
 
-            tasks.put(key, t);
-            logger.info("Task added: " + t.getDescription());
-            notifyAdded(t);
+            if (!conflicts.isEmpty()) {
+                for (TaskConflict c : conflicts) notifyConflict(c.getAttempted(), c.getConflicting(), c.getMessage());
+                if (m != null) m.recordConflict(conflicts.size());
+                throw new BatchConflictException("Batch rejected: " + conflicts.size() + " conflict(s).", conflicts,
+                        !stacklessExceptions);
+            }
+
+            if (store != null) {
+                // one record, so recovery never sees part of a batch the schedule applied whole
+                journaled(store.appendBatch(List.of(), Arrays.asList(sorted), durability(durability)),
+                        durability(durability));
+            }
+            for (Task t : sorted) {
+                register(t);
+                index(t);
+            }
+            version++;
+            List<Task> added = List.of(sorted);
+            MutationListener ml = mutationListener;
+            if (ml != null) ml.onAdd(version, added);
+            logger.info("Batch added: {0} tasks", added.size());
+            notifyAddedAll(added);
         } finally {
-            lock.writeLock().unlock();
+            unlockWrite();
+            stopTimer(m, ScheduleMetrics.Operation.ADD_BATCH, t0);
+        }
+    }
+
+    /**
+     * Replaces the whole schedule with {@code tasks} as a single change: readers
+     * see the old schedule or the new one, never a mix. Observers hear of each
+     * removal, then of one batch add, and an attached store journals the same.
+     * Replication followers load a leader's snapshot this way.
+     */
+    public void restore(List<Task> tasks) {
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(null);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            Task t = sorted.get(i);
+            if (!keys.add(t.getKey()))
+                throw new IllegalArgumentException("Task with same description already exists: " + t.getDescription());
+            if (i > 0 && sorted.get(i - 1).getEnd().isAfter(t.getStart()))
+                throw new IllegalArgumentException("Tasks overlap: " + sorted.get(i - 1).getDescription() + ", "
+                        + t.getDescription());
+        }
+        ScheduleMetrics m = metrics;
+        lockWrite(m);
+        try {
+            List<Task> old = new ArrayList<>(byTime.values());
+            if (store != null) {
+                List<String> removed = new ArrayList<>(old.size());
+                for (Task t : old) removed.add(t.getDescription());
+                Durability d = durability(null);
+                journaled(store.appendBatch(removed, sorted, d), d);
+            }
+            for (Task t : old) {
+                unregister(t);
+                unindex(t);
+            }
+            registerAll(sorted);
+            indexAllSorted(sorted);
+            version++;
+            List<Task> added = List.copyOf(sorted);
+            MutationListener ml = mutationListener;
+            if (ml != null) ml.onRestore(version, added);
+            logger.info("Schedule restored: {0} tasks replaced by {1}", old.size(), added.size());
+            for (Task t : old) notifyRemoved(t);
+            if (!added.isEmpty()) notifyAddedAll(added);
+        } finally {
+            unlockWrite();
         }
     }
 
     public void removeTask(String description) throws TaskNotFoundException {
-        lock.writeLock().lock();
+        removeTask(description, null);
+    }
+
+    public void removeTask(String description, Durability durability) throws TaskNotFoundException {
+        remove(Task.keyOf(description), 0, description, durability);
+    }
+
+    /** Removes by the id from Task.getId(), with no string work on the way. */
+    public void removeTask(int id) throws TaskNotFoundException {
+        remove(null, id, null, null);
+    }
+
+    public void removeTask(int id, Durability durability) throws TaskNotFoundException {
+        remove(null, id, null, durability);
+    }
+
+    private void remove(String key, int id, String description, Durability durability) throws TaskNotFoundException {
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        lockWrite(m);
         try {
-            String key = description.toLowerCase();
-            Task removed = tasks.remove(key);
-            if (removed == null) throw new TaskNotFoundException("Task not found: " + description);
-            logger.info("Task removed: " + removed.getDescription());
+            Task removed = lookup(key, id);
+            if (removed == null) throw notFound(description, id);
+            if (store != null) {
+                journaled(store.appendRemove(removed.getDescription(), durability(durability)), durability(durability));
+            }
+            unregister(removed);
+            unindex(removed);
+            version++;
+            MutationListener ml = mutationListener;
+            if (ml != null) ml.onRemove(version, removed.getDescription());
+            logger.info("Task removed: {0}", removed.getDescription());
             notifyRemoved(removed);
         } finally {
-            lock.writeLock().unlock();
+            unlockWrite();
+            stopTimer(m, ScheduleMetrics.Operation.REMOVE, t0);
         }
     }
 
+    /**
+     * All tasks sorted by start time, as an unmodifiable list shared with other
+     * readers. Served without copying, and without locking while the schedule is
+     * unchanged. Indexing the list costs O(log n); iterate it instead.
+     */
     public List<Task> viewAllTasks() {
-        lock.readLock().lock();
+        ScheduleMetrics m = metrics;
+        if (m == null) return currentView().getTasks();
+        long t0 = System.nanoTime();
+        List<Task> out = currentView().getTasks();
+        stopTimer(m, ScheduleMetrics.Operation.VIEW_ALL, t0);
+        return out;
+    }
+
+    /** Number of mutations applied so far; changes whenever the sorted view would. */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * The current sorted view. Writers keep a persistent start-ordered list up to
+     * date at O(log n) per change, sharing structure with earlier versions. The
+     * first reader to see a new version wraps that list under the read lock in
+     * O(1) and publishes it through a volatile field, so later readers get it with
+     * two volatile reads. The list is fixed but its tasks are the live ones; see
+     * copyView.
+     */
+    public ScheduleView currentView() {
+        ScheduleView v = view;
+        if (v.getVersion() == version) return v;
+        lockRead(metrics);
+        try {
+            // version cannot move while we hold the read lock
+            v = view;
+            if (v.getVersion() != version) {
+                v = new ScheduleView(version, ordered, ruleList);
+                view = v;
+            }
+            return v;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A copy of every task together with the rules and the version they reflect,
+     * taken under the read lock. Unlike currentView, whose tasks are the live ones,
+     * later edits do not show through, so the tasks and the version stay consistent.
+     */
+    public ScheduleView copyView() {
+        lockRead(metrics);
+        try {
+            List<Task> copy = new ArrayList<>(byTime.size());
+            for (Task t : byTime.values()) copy.add(copyOf(t));
+            return new ScheduleView(version, Collections.unmodifiableList(copy), ruleList);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Task copyOf(Task t) {
+        Task c = new Task(t.getDescription(), t.getStart(), t.getEnd(), t.getPriority());
+        if (t.isCompleted()) c.markCompleted();
+        return c;
+    }
+
+    /** The current view if the schedule changed after {@code sinceVersion}, else empty. */
+    public Optional<ScheduleView> viewIfChangedSince(long sinceVersion) {
+        if (version == sinceVersion) return Optional.empty();
+        ScheduleView v = currentView();
+        return v.getVersion() == sinceVersion ? Optional.empty() : Optional.of(v);
+    }
+
+    /**
+     * Up to {@code limit} tasks starting at or after {@code from}, in start order,
+     * plus a token for the next page. Walks the start index from {@code from}
+     * under the read lock, so a page costs O(log n + limit) and nothing beyond
+     * it is copied.
+     */
+    public TaskPage view(LocalTime from, int limit) {
+        if (from == null) throw new IllegalArgumentException("From time must be provided.");
+        return page(from, true, limit);
+    }
+
+    /** The page following the one that returned {@code token} (see TaskPage#getNextToken). */
+    public TaskPage viewNext(String token, int limit) {
+        if (token == null) throw new IllegalArgumentException("Invalid page token.");
+        return page(TaskPage.decode(token), false, limit);
+    }
+
+    private TaskPage page(LocalTime from, boolean inclusive, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Page size must be positive.");
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        lockRead(m);
         try {
-            List<Task> list = new ArrayList<>(tasks.values());
-            Collections.sort(list);
-            return list;
+            Iterator<Task> it = byTime.from(from, inclusive).iterator();
+            List<Task> out = new ArrayList<>(Math.min(limit, STREAM_PAGE));
+            while (out.size() < limit && it.hasNext()) out.add(it.next());
+            return new TaskPage(Collections.unmodifiableList(out), it.hasNext());
         } finally {
             lock.readLock().unlock();
+            stopTimer(m, ScheduleMetrics.Operation.VIEW_PAGE, t0);
+        }
+    }
+
+    /**
+     * Tasks starting at or after {@code from} in start order, fetched lazily a
+     * page at a time, so memory stays constant however large the schedule.
+     * Each page is a consistent snapshot; across pages it behaves like TaskPage.
+     */
+    public Iterator<Task> iterateTasks(LocalTime from) {
+        if (from == null) throw new IllegalArgumentException("From time must be provided.");
+        return new PagedIterator(page(from, true, STREAM_PAGE));
+    }
+
+    /** Every task as a lazy, start-ordered stream; see iterateTasks. */
+    public Stream<Task> streamTasks() {
+        Spliterator<Task> it = Spliterators.spliteratorUnknownSize(iterateTasks(LocalTime.MIN),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+        return StreamSupport.stream(it, false);
+    }
+
+    private final class PagedIterator implements Iterator<Task> {
+        private TaskPage page;
+        private int i;
+
+        PagedIterator(TaskPage first) {
+            this.page = first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (i == page.getTasks().size()) {
+                if (page.after == null) return false;
+                page = page(page.after, false, STREAM_PAGE);
+                i = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return page.getTasks().get(i++);
         }
     }
 
     public List<Task> viewTasksByPriority(TaskPriority priority) {
-        lock.readLock().lock();
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        lockReadDerived(m);
+        try {
+            return new ArrayList<>(byPriority.get(priority).values());
+        } finally {
+            lock.readLock().unlock();
+            stopTimer(m, ScheduleMetrics.Operation.VIEW_BY_PRIORITY, t0);
+        }
+    }
+
+    /**
+     * Tasks matching every criterion of {@code q}, sorted by start time. Starts from
+     * the smallest index that already satisfies one criterion (priority, completion
+     * or the whole start index), narrows it to the time window with a range lookup
+     * and filters the rest, so the cost follows the size of that slice rather than
+     * the whole schedule.
+     */
+    public List<Task> query(TaskQuery q) {
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        if (q.getPriority() != null || q.getCompleted() != null) lockReadDerived(m);
+        else lockRead(m);
         try {
+            IntervalIndex source = byTime;
+            if (q.getPriority() != null) {
+                IntervalIndex idx = byPriority.get(q.getPriority());
+                if (idx.size() < source.size()) source = idx;
+            }
+            if (q.getCompleted() != null) {
+                IntervalIndex idx = q.getCompleted() ? completedTasks : openTasks;
+                if (idx.size() < source.size()) source = idx;
+            }
+            Collection<Task> slice = q.getFrom() == null
+                    ? source.values()
+                    : source.overlapping(q.getFrom(), q.getTo(), null);
             List<Task> out = new ArrayList<>();
-            for (Task t : tasks.values()) {
-                if (t.getPriority() == priority) out.add(t);
+            for (Task t : slice) {
+                if (q.getPriority() != null && t.getPriority() != q.getPriority()) continue;
+                if (q.getCompleted() != null && t.isCompleted() != q.getCompleted()) continue;
+                out.add(t);
             }
-            Collections.sort(out);
             return out;
         } finally {
             lock.readLock().unlock();
+            stopTimer(m, ScheduleMetrics.Operation.QUERY, t0);
         }
     }
 
     public void editTask(String description, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority)
             throws TaskNotFoundException, TaskConflictException {
-        lock.writeLock().lock();
+        editTask(description, newStart, newEnd, newPriority, null);
+    }
+
+    public void editTask(String description, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority,
+                         Durability durability) throws TaskNotFoundException, TaskConflictException {
+        edit(Task.keyOf(description), 0, description, newStart, newEnd, newPriority, durability);
+    }
+
+    public void editTask(int id, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority)
+            throws TaskNotFoundException, TaskConflictException {
+        edit(null, id, null, newStart, newEnd, newPriority, null);
+    }
+
+    public void editTask(int id, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority,
+                         Durability durability) throws TaskNotFoundException, TaskConflictException {
+        edit(null, id, null, newStart, newEnd, newPriority, durability);
+    }
+
+    private void edit(String key, int id, String description, LocalTime newStart, LocalTime newEnd,
+                      TaskPriority newPriority, Durability durability) throws TaskNotFoundException, TaskConflictException {
+        if (newStart == null || newEnd == null || !newStart.isBefore(newEnd))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        lockWrite(m);
         try {
-            String key = description.toLowerCase();
-            Task existing = tasks.get(key);
-            if (existing == null) throw new TaskNotFoundException("Task not found: " + description);
+            Task existing = lookup(key, id);
+            if (existing == null) throw notFound(description, id);
 
-            // create a temporal task to check conflict (excluding the current one)
-            for (Task other : tasks.values()) {
-                if (other.equals(existing)) continue;
-                if (isOverlap(newStart, newEnd, other.getStart(), other.getEnd())) {
-                    notifyConflict(existing, other, "Update causes overlap.");
-                    throw new TaskConflictException("Updated time overlaps with " + other.getDescription(), other);
-                }
+            // check conflict against every other task (excluding the current one)
+            Task other = byTime.firstOverlap(newStart, newEnd, existing);
+            if (other != null) {
+                notifyConflict(existing, other, "Update causes overlap.");
+                throw conflict("Updated time overlaps with " + other.getDescription(), other);
             }
 
-            existing.setStart(newStart);
-            existing.setEnd(newEnd);
-            existing.setPriority(newPriority);
-            logger.info("Task updated: " + existing.getDescription());
-            notifyUpdated(existing);
+            applyEdit(existing, newStart, newEnd, newPriority, durability);
         } finally {
-            lock.writeLock().unlock();
+            unlockWrite();
+            stopTimer(m, ScheduleMetrics.Operation.EDIT, t0);
         }
     }
 
+    /**
+     * Non-throwing editTask: NOT_FOUND if there is no such task, CONFLICT with every
+     * task the new interval overlaps, otherwise APPLIED. Like tryAddTask, the check
+     * runs under the read lock first and rejections are not sent to observers.
+     */
+    public ScheduleResult tryEditTask(String description, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority) {
+        return tryEditTask(description, newStart, newEnd, newPriority, null);
+    }
+
+    public ScheduleResult tryEditTask(String description, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority,
+                                      Durability durability) {
+        return tryEditTask(Task.keyOf(description), 0, newStart, newEnd, newPriority, durability);
+    }
+
+    public ScheduleResult tryEditTask(int id, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority) {
+        return tryEditTask(null, id, newStart, newEnd, newPriority, null);
+    }
+
+    public ScheduleResult tryEditTask(int id, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority,
+                                      Durability durability) {
+        return tryEditTask(null, id, newStart, newEnd, newPriority, durability);
+    }
+
+    private ScheduleResult tryEditTask(String key, int id, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority,
+                                       Durability durability) {
+        if (newStart == null || newEnd == null || !newStart.isBefore(newEnd))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        ScheduleResult r = tryEdit(key, id, newStart, newEnd, newPriority, durability, m);
+        if (m != null && !r.isApplied()) {
+            m.recordRejection();
+            if (!r.getConflicts().isEmpty()) m.recordConflict(r.getConflicts().size());
+        }
+        stopTimer(m, ScheduleMetrics.Operation.EDIT, t0);
+        return r;
+    }
+
+    private ScheduleResult tryEdit(String key, int id, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority,
+                                   Durability durability, ScheduleMetrics m) {
+        lockRead(m);
+        try {
+            Task existing = lookup(key, id);
+            if (existing == null) return ScheduleResult.notFound();
+            List<TaskConflict> conflicts = conflictsFor(existing, newStart, newEnd, existing);
+            if (!conflicts.isEmpty()) return ScheduleResult.conflicts(conflicts);
+        } finally {
+            lock.readLock().unlock();
+        }
+        lockWrite(m);
+        try {
+            Task existing = lookup(key, id);
+            if (existing == null) return ScheduleResult.notFound();
+            List<TaskConflict> conflicts = conflictsFor(existing, newStart, newEnd, existing);
+            if (!conflicts.isEmpty()) return ScheduleResult.conflicts(conflicts);
+            applyEdit(existing, newStart, newEnd, newPriority, durability);
+            return ScheduleResult.applied();
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    private void applyEdit(Task existing, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority,
+                           Durability durability) {
+        if (store != null) {
+            journaled(store.appendEdit(existing.getDescription(), newStart, newEnd, newPriority, durability(durability)),
+                    durability(durability));
+        }
+        unindex(existing);
+        existing.setStart(newStart);
+        existing.setEnd(newEnd);
+        existing.setPriority(newPriority);
+        index(existing);
+        version++;
+        MutationListener ml = mutationListener;
+        if (ml != null) ml.onEdit(version, existing.getDescription(), newStart, newEnd, newPriority);
+        logger.info("Task updated: {0}", existing.getDescription());
+        notifyUpdated(existing);
+    }
+
     public void markCompleted(String description) throws TaskNotFoundException {
-        lock.writeLock().lock();
+        markCompleted(description, null);
+    }
+
+    public void markCompleted(String description, Durability durability) throws TaskNotFoundException {
+        complete(Task.keyOf(description), 0, description, durability);
+    }
+
+    public void markCompleted(int id) throws TaskNotFoundException {
+        complete(null, id, null, null);
+    }
+
+    public void markCompleted(int id, Durability durability) throws TaskNotFoundException {
+        complete(null, id, null, durability);
+    }
+
+    private void complete(String key, int id, String description, Durability durability) throws TaskNotFoundException {
+        ScheduleMetrics m = metrics;
+        long t0 = startTimer(m);
+        lockWrite(m);
         try {
-            String key = description.toLowerCase();
-            Task t = tasks.get(key);
-            if (t == null) throw new TaskNotFoundException("Task not found: " + description);
-            t.markCompleted();
-            logger.info("Task marked completed: " + t.getDescription());
+            Task t = lookup(key, id);
+            if (t == null) throw notFound(description, id);
+            if (store != null) {
+                journaled(store.appendComplete(t.getDescription(), durability(durability)), durability(durability));
+            }
+            if (!t.isCompleted()) {
+                unindex(t);
+                t.markCompleted();
+                index(t);
+            }
+            version++;
+            MutationListener ml = mutationListener;
+            if (ml != null) ml.onComplete(version, t.getDescription());
+            logger.info("Task marked completed: {0}", t.getDescription());
             notifyUpdated(t);
         } finally {
-            lock.writeLock().unlock();
+            unlockWrite();
+            stopTimer(m, ScheduleMetrics.Operation.COMPLETE, t0);
+        }
+    }
+
+    /**
+     * Free windows of at least {@code minLength} inside [from, to), clipped to that
+     * window, in time order. An end of LocalTime.MAX means free until midnight.
+     */
+    public List<TimeSlot> findFreeSlots(Duration minLength, LocalTime from, LocalTime to) {
+        if (from == null || to == null || !from.isBefore(to))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        lockReadDerived(metrics);
+        try {
+            long end = to.equals(LocalTime.MAX) ? GapIndex.DAY_END : to.toNanoOfDay();
+            return gaps.fits(from.toNanoOfDay(), end, minLength.toNanos());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The earliest free window of at least {@code minLength} at or after {@code from}
+     * (e.g. the next free 45 minutes after 14:00), as the whole free stretch from
+     * its start, or from {@code from} if that falls inside it.
+     */
+    public Optional<TimeSlot> findFirstFreeSlot(Duration minLength, LocalTime from) {
+        lockReadDerived(metrics);
+        try {
+            return Optional.ofNullable(gaps.firstFit(from.toNanoOfDay(), minLength.toNanos()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The first task starting at or after {@code time}. */
+    public Optional<Task> nextTask(LocalTime time) {
+        lockRead(metrics);
+        try {
+            return Optional.ofNullable(byTime.ceiling(time));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The task in progress at {@code time}, if any. */
+    public Optional<Task> taskAt(LocalTime time) {
+        lockRead(metrics);
+        try {
+            return Optional.ofNullable(byTime.containing(time));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a recurring routine as a single rule. It is rejected if another rule
+     * has the same description, or if the two ever fall on the same day at
+     * overlapping times; that is decided from the rules' periods and first dates
+     * (see RecurrenceRule#firstConflict), so the check costs the same for a
+     * six-month mission as for a week. Rules live on the mission calendar and
+     * are not checked against the single-day task list.
+     *
+     * Like a task change, adding or removing a rule bumps the version, is
+     * journaled by an attached store, reaches MutationListeners (and so
+     * replication followers) and is reported to observers.
+     */
+    public void addRule(RecurrenceRule rule) throws RuleConflictException {
+        addRule(rule, null);
+    }
+
+    public void addRule(RecurrenceRule rule, Durability durability) throws RuleConflictException {
+        lockWrite(metrics);
+        try {
+            RuleConflictException e = ruleConflict(rule, ruleList);
+            if (e != null) throw e;
+            applyRuleAdd(rule, durability);
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    public void removeRule(String description) throws TaskNotFoundException {
+        removeRule(description, null);
+    }
+
+    public void removeRule(String description, Durability durability) throws TaskNotFoundException {
+        lockWrite(metrics);
+        try {
+            RecurrenceRule removed = rules.get(Task.keyOf(description));
+            if (removed == null) throw notFound(description);
+            applyRuleRemove(removed, durability);
+            publishRules();
+        } finally {
+            unlockWrite();
         }
     }
 
-    private boolean isOverlap(LocalTime s1, LocalTime e1, LocalTime s2, LocalTime e2) {
-        // overlap if s1 < e2 && s2 < e1
-        return s1.isBefore(e2) && s2.isBefore(e1);
+    /**
+     * Replaces every rule with {@code replacement} in one step: readers see the
+     * old rules or the new ones, never a mix. The new rules must not conflict
+     * with each other. Observers, listeners and the store see each old rule
+     * removed, then each new one added. Replication followers load a leader's
+     * snapshot this way.
+     */
+    public void replaceRules(Collection<RecurrenceRule> replacement) throws RuleConflictException {
+        List<RecurrenceRule> accepted = new ArrayList<>(replacement.size());
+        for (RecurrenceRule r : replacement) {
+            RuleConflictException e = ruleConflict(r, accepted);
+            if (e != null) throw e;
+            accepted.add(r);
+        }
+        lockWrite(metrics);
+        try {
+            for (RecurrenceRule r : ruleList) applyRuleRemove(r, null);
+            for (RecurrenceRule r : accepted) applyRuleAdd(r, null);
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    /** Why {@code rule} cannot join {@code existing}, or null if it can; the earliest clash wins. */
+    private RuleConflictException ruleConflict(RecurrenceRule rule, List<RecurrenceRule> existing) {
+        String key = Task.keyOf(rule.getDescription());
+        RecurrenceRule clash = null;
+        LocalDate clashDate = null;
+        for (RecurrenceRule r : existing) {
+            if (Task.keyOf(r.getDescription()).equals(key))
+                return new RuleConflictException("Rule with same description already exists.", r, null, !stacklessExceptions);
+            Optional<LocalDate> d = rule.firstConflict(r);
+            if (d.isPresent() && (clashDate == null || d.get().isBefore(clashDate))) {
+                clash = r;
+                clashDate = d.get();
+            }
+        }
+        if (clash == null) return null;
+        ScheduleMetrics m = metrics;
+        if (m != null) m.recordConflict(1);
+        return new RuleConflictException("Rule conflicts with " + clash.getDescription()
+                + " from " + clashDate, clash, clashDate, !stacklessExceptions);
+    }
+
+    private void applyRuleAdd(RecurrenceRule rule, Durability durability) {
+        if (store != null) journaled(store.appendRuleAdd(rule, durability(durability)), durability(durability));
+        rules.put(Task.keyOf(rule.getDescription()), rule);
+        publishRules();
+        version++;
+        MutationListener ml = mutationListener;
+        if (ml != null) ml.onRuleAdd(version, rule);
+        logger.info("Rule added: {0}", rule.getDescription());
+        notifyRuleAdded(rule);
+    }
+
+    /** Removes from the map only; the caller publishes the rule list. */
+    private void applyRuleRemove(RecurrenceRule rule, Durability durability) {
+        if (store != null) journaled(store.appendRuleRemove(rule.getDescription(), durability(durability)), durability(durability));
+        rules.remove(Task.keyOf(rule.getDescription()));
+        version++;
+        MutationListener ml = mutationListener;
+        if (ml != null) ml.onRuleRemove(version, rule.getDescription());
+        logger.info("Rule removed: {0}", rule.getDescription());
+        notifyRuleRemoved(rule);
+    }
+
+    private void publishRules() {
+        List<RecurrenceRule> sorted = new ArrayList<>(rules.values());
+        sorted.sort(Comparator.comparing(RecurrenceRule::getStart).thenComparing(RecurrenceRule::getDescription));
+        ruleList = Collections.unmodifiableList(sorted);
+    }
+
+    /** All rules, ordered by time of day. */
+    public List<RecurrenceRule> viewRules() {
+        return ruleList;
+    }
+
+    /**
+     * Occurrences of every rule in [from, to] ordered by date, then start time,
+     * expanded lazily as the stream is consumed from the rules as they were when
+     * it was created.
+     */
+    public Stream<Occurrence> occurrencesBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from))
+            throw new IllegalArgumentException("From date must not be after to date.");
+        Spliterator<Occurrence> it = Spliterators.spliteratorUnknownSize(new OccurrenceIterator(ruleList, from, to),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(it, false);
+    }
+
+    /** The routines scheduled on {@code date}, in start order. */
+    public List<Occurrence> occurrencesOn(LocalDate date) {
+        List<Occurrence> out = new ArrayList<>();
+        for (RecurrenceRule r : ruleList) {
+            if (r.occursOn(date)) out.add(new Occurrence(r, date));
+        }
+        return out;
+    }
+
+    public int size() {
+        lockRead(metrics);
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public Optional<Task> findByDescription(String description) {
-        lock.readLock().lock();
+        lockRead(metrics);
+        try {
+            return Optional.ofNullable(tasks.get(Task.keyOf(description)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The task with this id (see Task.getId), if it is in the schedule. */
+    public Optional<Task> findById(int id) {
+        lockRead(metrics);
         try {
-            return Optional.ofNullable(tasks.get(description.toLowerCase()));
+            return Optional.ofNullable(byId.get(id));
         } finally {
             lock.readLock().unlock();
         }
@@ -0,0 +1,31 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.RecurrenceRule;
+import com.astronaut.scheduler.model.Task;
+
+import java.util.List;
+
+/**
+ * Start-ordered list of the tasks a schedule held at one version. Views are
+ * shared between readers, so the list is unmodifiable, but only its membership
+ * is fixed: a view from ScheduleManager.currentView holds the live Task objects,
+ * and a later edit or markCompleted shows through them. Use copyView for tasks
+ * that stay as they were at that version. Rules are immutable, so the rules
+ * of a view are exactly those in force at its version.
+ */
+public final class ScheduleView {
+    private final long version;
+    private final List<Task> tasks;
+    private final List<RecurrenceRule> rules;
+
+    ScheduleView(long version, List<Task> tasks, List<RecurrenceRule> rules) {
+        this.version = version;
+        this.tasks = tasks;
+        this.rules = rules;
+    }
+
+    public long getVersion() { return version; }
+    public List<Task> getTasks() { return tasks; }
+    /** The recurrence rules, ordered by time of day as in ScheduleManager.viewRules. */
+    public List<RecurrenceRule> getRules() { return rules; }
+}
@@ -0,0 +1,277 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.exceptions.TaskConflictException;
+import com.astronaut.scheduler.exceptions.TaskNotFoundException;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.observer.ScheduleObserver;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A day schedule with striped locking, for many concurrent writers.
+ *
+ * The day is split into equal time buckets (hourly by default), each with its
+ * own lock and its own overlap index. A task is indexed in every bucket its
+ * interval touches, so any two overlapping intervals share at least one bucket
+ * and their writers serialise on its lock. Writes to disjoint parts of the day
+ * run in parallel. Descriptions are guarded by a separate set of striped
+ * locks, so two writers with the same description are also serialised.
+ *
+ * Lock order is always one description lock first, then bucket locks in
+ * ascending order, so writers cannot deadlock. Observers are notified
+ * synchronously after the locks are released; events from writers in
+ * different buckets may arrive in either order.
+ */
+public final class StripedScheduleManager {
+    private static final long DAY_NANOS = 24L * 60 * 60 * 1_000_000_000L;
+    private static final int DESCRIPTION_STRIPES = 64;
+
+    private final int bucketCount;
+    private final Bucket[] buckets;
+    private final ReentrantLock[] descriptionLocks = new ReentrantLock[DESCRIPTION_STRIPES];
+    private final Map<String, Task> tasks = new ConcurrentHashMap<>(); // key = Task.getKey()
+    private final List<ScheduleObserver> observers = new CopyOnWriteArrayList<>();
+    private final AppLogger logger = AppLogger.getInstance();
+
+    private static final class Bucket {
+        final ReentrantLock lock = new ReentrantLock();
+        final IntervalIndex index = new IntervalIndex(); // every task touching this bucket
+    }
+
+    /** One bucket per hour. */
+    public StripedScheduleManager() {
+        this(24);
+    }
+
+    public StripedScheduleManager(int bucketCount) {
+        if (bucketCount < 1 || bucketCount > 24 * 60)
+            throw new IllegalArgumentException("Bucket count must be between 1 and 1440.");
+        this.bucketCount = bucketCount;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) buckets[i] = new Bucket();
+        for (int i = 0; i < DESCRIPTION_STRIPES; i++) descriptionLocks[i] = new ReentrantLock();
+    }
+
+    public void attachObserver(ScheduleObserver o) {
+        if (o == null) return;
+        observers.add(o);
+    }
+
+    public void detachObserver(ScheduleObserver o) {
+        observers.remove(o);
+    }
+
+    public void addTask(Task t) throws TaskConflictException {
+        String key = t.getKey();
+        int lo = firstBucket(t.getStart());
+        int hi = lastBucket(t.getEnd());
+        Task conflict;
+        ReentrantLock dl = descriptionLock(key);
+        dl.lock();
+        try {
+            Task dup = tasks.get(key);
+            if (dup != null) throw new TaskConflictException("Task with same description already exists.", dup);
+            lockRange(lo, hi);
+            try {
+                conflict = firstOverlap(lo, hi, t.getStart(), t.getEnd(), null);
+                if (conflict == null) {
+                    for (int i = lo; i <= hi; i++) buckets[i].index.add(t);
+                    tasks.put(key, t);
+                }
+            } finally {
+                unlockRange(lo, hi);
+            }
+        } finally {
+            dl.unlock();
+        }
+        if (conflict != null) {
+            for (ScheduleObserver o : observers) o.onConflict(t, conflict, "Overlapping time period.");
+            throw new TaskConflictException("Task conflicts with existing task: " + conflict.getDescription(), conflict);
+        }
+        logger.info("Task added: {0}", t.getDescription());
+        for (ScheduleObserver o : observers) o.onTaskAdded(t);
+    }
+
+    public void removeTask(String description) throws TaskNotFoundException {
+        String key = Task.keyOf(description);
+        Task removed;
+        ReentrantLock dl = descriptionLock(key);
+        dl.lock();
+        try {
+            removed = tasks.get(key);
+            if (removed == null) throw new TaskNotFoundException("Task not found: " + description);
+            int lo = firstBucket(removed.getStart());
+            int hi = lastBucket(removed.getEnd());
+            lockRange(lo, hi);
+            try {
+                for (int i = lo; i <= hi; i++) buckets[i].index.remove(removed);
+                tasks.remove(key);
+            } finally {
+                unlockRange(lo, hi);
+            }
+        } finally {
+            dl.unlock();
+        }
+        logger.info("Task removed: {0}", removed.getDescription());
+        for (ScheduleObserver o : observers) o.onTaskRemoved(removed);
+    }
+
+    /** Locks the union of the old and new intervals' buckets, in ascending order. */
+    public void editTask(String description, LocalTime newStart, LocalTime newEnd, TaskPriority newPriority)
+            throws TaskNotFoundException, TaskConflictException {
+        if (newStart == null || newEnd == null || !newStart.isBefore(newEnd))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        String key = Task.keyOf(description);
+        int nLo = firstBucket(newStart);
+        int nHi = lastBucket(newEnd);
+        Task existing;
+        Task other;
+        ReentrantLock dl = descriptionLock(key);
+        dl.lock();
+        try {
+            existing = tasks.get(key);
+            if (existing == null) throw new TaskNotFoundException("Task not found: " + description);
+            int oLo = firstBucket(existing.getStart());
+            int oHi = lastBucket(existing.getEnd());
+            lockUnion(oLo, oHi, nLo, nHi);
+            try {
+                other = firstOverlap(nLo, nHi, newStart, newEnd, existing);
+                if (other == null) {
+                    for (int i = oLo; i <= oHi; i++) buckets[i].index.remove(existing);
+                    existing.setStart(newStart);
+                    existing.setEnd(newEnd);
+                    existing.setPriority(newPriority);
+                    for (int i = nLo; i <= nHi; i++) buckets[i].index.add(existing);
+                }
+            } finally {
+                unlockUnion(oLo, oHi, nLo, nHi);
+            }
+        } finally {
+            dl.unlock();
+        }
+        if (other != null) {
+            for (ScheduleObserver o : observers) o.onConflict(existing, other, "Update causes overlap.");
+            throw new TaskConflictException("Updated time overlaps with " + other.getDescription(), other);
+        }
+        logger.info("Task updated: {0}", existing.getDescription());
+        for (ScheduleObserver o : observers) o.onTaskUpdated(existing);
+    }
+
+    /** Completion does not move the task, so only its description lock is needed. */
+    public void markCompleted(String description) throws TaskNotFoundException {
+        String key = Task.keyOf(description);
+        Task t;
+        ReentrantLock dl = descriptionLock(key);
+        dl.lock();
+        try {
+            t = tasks.get(key);
+            if (t == null) throw new TaskNotFoundException("Task not found: " + description);
+            t.markCompleted();
+        } finally {
+            dl.unlock();
+        }
+        logger.info("Task marked completed: {0}", t.getDescription());
+        for (ScheduleObserver o : observers) o.onTaskUpdated(t);
+    }
+
+    /**
+     * All tasks sorted by start time. Takes every bucket lock in order, so the
+     * result is a consistent snapshot of the whole day.
+     */
+    public List<Task> viewAllTasks() {
+        lockRange(0, bucketCount - 1);
+        try {
+            List<Task> out = new ArrayList<>(tasks.size());
+            for (int i = 0; i < bucketCount; i++) {
+                // a task is listed by the bucket its start falls in, not every bucket it spans
+                for (Task t : buckets[i].index.values()) {
+                    if (firstBucket(t.getStart()) == i) out.add(t);
+                }
+            }
+            return out;
+        } finally {
+            unlockRange(0, bucketCount - 1);
+        }
+    }
+
+    /** Tasks overlapping [from, to) in start order, locking only the buckets that window spans. */
+    public List<Task> viewTasksBetween(LocalTime from, LocalTime to) {
+        if (from == null || to == null || !from.isBefore(to))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        int lo = firstBucket(from);
+        int hi = lastBucket(to);
+        lockRange(lo, hi);
+        try {
+            List<Task> out = new ArrayList<>();
+            for (int i = lo; i <= hi; i++) {
+                for (Task t : buckets[i].index.overlapping(from, to, null)) {
+                    // listed once, by the first bucket of the window it appears in
+                    if (Math.max(lo, firstBucket(t.getStart())) == i) out.add(t);
+                }
+            }
+            return out;
+        } finally {
+            unlockRange(lo, hi);
+        }
+    }
+
+    public Optional<Task> findByDescription(String description) {
+        return Optional.ofNullable(tasks.get(Task.keyOf(description)));
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    private Task firstOverlap(int lo, int hi, LocalTime start, LocalTime end, Task exclude) {
+        for (int i = lo; i <= hi; i++) {
+            Task o = buckets[i].index.firstOverlap(start, end, exclude);
+            if (o != null) return o;
+        }
+        return null;
+    }
+
+    private int firstBucket(LocalTime start) {
+        return (int) (start.toNanoOfDay() * bucketCount / DAY_NANOS);
+    }
+
+    /** Bucket holding the last instant before {@code end}; LocalTime.MAX counts as end of day. */
+    private int lastBucket(LocalTime end) {
+        long e = end.equals(LocalTime.MAX) ? DAY_NANOS : end.toNanoOfDay();
+        return (int) ((e - 1) * bucketCount / DAY_NANOS);
+    }
+
+    private ReentrantLock descriptionLock(String key) {
+        int h = key.hashCode();
+        return descriptionLocks[(h ^ (h >>> 16)) & (DESCRIPTION_STRIPES - 1)];
+    }
+
+    private void lockRange(int lo, int hi) {
+        for (int i = lo; i <= hi; i++) buckets[i].lock.lock();
+    }
+
+    private void unlockRange(int lo, int hi) {
+        for (int i = hi; i >= lo; i--) buckets[i].lock.unlock();
+    }
+
+    private void lockUnion(int aLo, int aHi, int bLo, int bHi) {
+        for (int i = Math.min(aLo, bLo); i <= Math.max(aHi, bHi); i++) {
+            if ((i >= aLo && i <= aHi) || (i >= bLo && i <= bHi)) buckets[i].lock.lock();
+        }
+    }
+
+    private void unlockUnion(int aLo, int aHi, int bLo, int bHi) {
+        for (int i = Math.max(aHi, bHi); i >= Math.min(aLo, bLo); i--) {
+            if ((i >= aLo && i <= aHi) || (i >= bLo && i <= bHi)) buckets[i].lock.unlock();
+        }
+    }
+}
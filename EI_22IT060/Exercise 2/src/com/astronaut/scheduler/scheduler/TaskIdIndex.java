@@ -0,0 +1,102 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.Task;
+
+import java.util.Arrays;
+
+/**
+ * Task id to Task map over parallel int/Task arrays, with linear probing and
+ * backward-shift deletion, so lookups and removals neither box the id nor
+ * leave tombstones behind. Ids are positive; 0 marks an empty slot. Not
+ * thread-safe: ScheduleManager guards it with its lock.
+ */
+final class TaskIdIndex {
+    private int[] ids = new int[16];
+    private Task[] tasks = new Task[16];
+    private int size;
+
+    Task get(int id) {
+        if (id <= 0) return null;
+        int mask = ids.length - 1;
+        for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+            int k = ids[i];
+            if (k == id) return tasks[i];
+            if (k == 0) return null;
+        }
+    }
+
+    void put(Task t) {
+        if ((size + 1) * 2 > ids.length) resize(ids.length * 2);
+        if (insert(t.getId(), t)) size++;
+    }
+
+    /** Grows the table once so it can hold {@code count} ids without resizing. */
+    void ensureCapacity(int count) {
+        int capacity = ids.length;
+        while (capacity < count * 2) capacity *= 2;
+        if (capacity > ids.length) resize(capacity);
+    }
+
+    Task remove(int id) {
+        if (id <= 0) return null;
+        int mask = ids.length - 1;
+        int i = slot(id, mask);
+        while (ids[i] != id) {
+            if (ids[i] == 0) return null;
+            i = (i + 1) & mask;
+        }
+        Task removed = tasks[i];
+        // shift later entries of the probe run back so no lookup stops early at the hole
+        for (int j = (i + 1) & mask; ids[j] != 0; j = (j + 1) & mask) {
+            int home = slot(ids[j], mask);
+            boolean canMove = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+            if (canMove) {
+                ids[i] = ids[j];
+                tasks[i] = tasks[j];
+                i = j;
+            }
+        }
+        ids[i] = 0;
+        tasks[i] = null;
+        size--;
+        return removed;
+    }
+
+    void clear() {
+        Arrays.fill(ids, 0);
+        Arrays.fill(tasks, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** True if the id was new, false if it replaced an entry. */
+    private boolean insert(int id, Task t) {
+        int mask = ids.length - 1;
+        for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+            if (ids[i] == 0 || ids[i] == id) {
+                boolean added = ids[i] == 0;
+                ids[i] = id;
+                tasks[i] = t;
+                return added;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] oldIds = ids;
+        Task[] oldTasks = tasks;
+        ids = new int[capacity];
+        tasks = new Task[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != 0) insert(oldIds[i], oldTasks[i]);
+        }
+    }
+
+    private static int slot(int id, int mask) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
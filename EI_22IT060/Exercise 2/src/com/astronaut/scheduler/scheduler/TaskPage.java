@@ -0,0 +1,40 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.Task;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * One page of a start-ordered schedule listing (see ScheduleManager#view).
+ * The next-page token names the last start time returned rather than a
+ * position, so paging stays correct when tasks are added or removed between
+ * pages: nothing is repeated, and only tasks moved behind the cursor are missed.
+ */
+public final class TaskPage {
+    private final List<Task> tasks;
+    final LocalTime after; // last start on this page when more follow, else null; captured before tasks can change
+
+    TaskPage(List<Task> tasks, boolean more) {
+        this.tasks = tasks;
+        this.after = more ? tasks.get(tasks.size() - 1).getStart() : null;
+    }
+
+    /** Tasks on this page, sorted by start time. */
+    public List<Task> getTasks() { return tasks; }
+    public boolean hasMore() { return after != null; }
+    /** Opaque token for ScheduleManager#viewNext, or null on the last page. */
+    public String getNextToken() { return after == null ? null : encode(after); }
+
+    static String encode(LocalTime start) {
+        return Long.toString(start.toNanoOfDay(), 36);
+    }
+
+    static LocalTime decode(String token) {
+        try {
+            return LocalTime.ofNanoOfDay(Long.parseLong(token, 36));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page token.");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.model.TaskPriority;
+
+import java.time.LocalTime;
+
+/**
+ * Filter for ScheduleManager.query. Unset criteria match everything, e.g.
+ * {@code TaskQuery.all().priority(HIGH).completed(false).between(09:00, 12:00)}
+ * selects incomplete HIGH tasks overlapping 09:00-12:00.
+ */
+public final class TaskQuery {
+    private TaskPriority priority;
+    private Boolean completed;
+    private LocalTime from;
+    private LocalTime to;
+
+    private TaskQuery() {}
+
+    public static TaskQuery all() {
+        return new TaskQuery();
+    }
+
+    public TaskQuery priority(TaskPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public TaskQuery completed(boolean completed) {
+        this.completed = completed;
+        return this;
+    }
+
+    /** Tasks overlapping [from, to). */
+    public TaskQuery between(LocalTime from, LocalTime to) {
+        if (from == null || to == null || !from.isBefore(to))
+            throw new IllegalArgumentException("Start time must be before end time.");
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    public TaskPriority getPriority() { return priority; }
+    public Boolean getCompleted() { return completed; }
+    public LocalTime getFrom() { return from; }
+    public LocalTime getTo() { return to; }
+}
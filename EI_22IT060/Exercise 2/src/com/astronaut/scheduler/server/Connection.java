@@ -0,0 +1,294 @@
+package com.astronaut.scheduler.server;
+
+import com.astronaut.scheduler.exceptions.TaskNotFoundException;
+import com.astronaut.scheduler.factory.TaskFactory;
+import com.astronaut.scheduler.model.ScheduleResult;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskConflict;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One client session. The protocol is UTF-8, one command per line, one
+ * response line per command (LIST answers with several), in request order:
+ *
+ * <pre>
+ * ADD HH:mm HH:mm priority description    -> OK | CONFLICT n first-conflict | ERR message
+ * EDIT HH:mm HH:mm priority description   -> OK | CONFLICT n first-conflict | ERR message
+ * REMOVE description                      -> OK | ERR message
+ * DONE description                        -> OK | ERR message
+ * LIST [priority]                         -> TASK HH:mm HH:mm PRIORITY 0|1 description ... END n
+ * VERSION                                 -> VERSION n
+ * SYNC n [timeout-ms]                     -> OK | ERR message (once version n is visible here)
+ * PING                                    -> PONG
+ * QUIT                                    -> BYE, then the server closes the connection
+ * </pre>
+ *
+ * Blank lines are ignored. Clients may pipeline: responses are buffered and
+ * only flushed once every command already received has been answered, so a
+ * burst of requests costs one write. LIST is written task by task into the
+ * same buffer and never built as a whole string. A read-only server (a
+ * replication follower) answers the four write commands with an error.
+ */
+final class Connection {
+    private static final int MAX_LINE = 8192;
+
+    private final ScheduleManager schedule;
+    private final VersionSource versions;
+    private final boolean readOnly;
+    private final LineReader in;
+    private final Writer out;
+
+    Connection(ScheduleManager schedule, VersionSource versions, boolean readOnly, InputStream in, OutputStream out) {
+        this.schedule = schedule;
+        this.versions = versions;
+        this.readOnly = readOnly;
+        this.in = new LineReader(in);
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (in.tooLong) {
+                out.write("ERR Line too long.\n");
+            } else if (!handle(line)) {
+                out.flush();
+                return;
+            }
+            if (!in.hasBuffered()) out.flush();
+        }
+        out.flush();
+    }
+
+    /** Answers one command; false once the client has asked to quit. */
+    private boolean handle(String line) throws IOException {
+        String cmd = line.strip();
+        if (cmd.isEmpty()) return true;
+        int sp = cmd.indexOf(' ');
+        String verb = sp < 0 ? cmd : cmd.substring(0, sp);
+        String args = sp < 0 ? "" : cmd.substring(sp + 1).strip();
+        String v = verb.toUpperCase();
+        if (readOnly && (v.equals("ADD") || v.equals("EDIT") || v.equals("REMOVE") || v.equals("DONE"))) {
+            error("Read-only replica; send writes to the leader.");
+            return true;
+        }
+        switch (v) {
+            case "ADD" -> add(args, false);
+            case "EDIT" -> add(args, true);
+            case "REMOVE" -> remove(args);
+            case "DONE" -> done(args);
+            case "LIST" -> list(args);
+            case "VERSION" -> {
+                out.write("VERSION ");
+                out.write(Long.toString(versions.currentVersion()));
+                out.write('\n');
+            }
+            case "SYNC" -> sync(args);
+            case "PING" -> out.write("PONG\n");
+            case "QUIT" -> {
+                out.write("BYE\n");
+                return false;
+            }
+            default -> error("Unknown command: " + verb);
+        }
+        return true;
+    }
+
+    private void add(String args, boolean edit) throws IOException {
+        String[] f = args.split(" +", 4);
+        if (f.length < 4 || f[3].isBlank()) {
+            error("Usage: " + (edit ? "EDIT" : "ADD") + " HH:mm HH:mm priority description");
+            return;
+        }
+        int s = TaskFactory.parseMinutes(f[0]);
+        int e = TaskFactory.parseMinutes(f[1]);
+        if (s < 0 || e < 0) {
+            error("Invalid time format. Use HH:mm (24-hour).");
+            return;
+        }
+        if (s >= e) {
+            error("Start time must be before end time.");
+            return;
+        }
+        TaskPriority p = TaskPriority.fromString(f[2]);
+        ScheduleResult r = edit
+                ? schedule.tryEditTask(f[3], TaskFactory.timeOf(s), TaskFactory.timeOf(e), p)
+                : schedule.tryAddTask(new Task(f[3], TaskFactory.timeOf(s), TaskFactory.timeOf(e), p));
+        switch (r.getStatus()) {
+            case APPLIED -> out.write("OK\n");
+            case NOT_FOUND -> error("Task not found: " + f[3]);
+            case CONFLICT -> {
+                List<TaskConflict> c = r.getConflicts();
+                out.write("CONFLICT ");
+                out.write(Integer.toString(c.size()));
+                out.write(' ');
+                out.write(c.get(0).toString());
+                out.write('\n');
+            }
+        }
+    }
+
+    private void remove(String description) throws IOException {
+        if (description.isEmpty()) {
+            error("Usage: REMOVE description");
+            return;
+        }
+        try {
+            schedule.removeTask(description);
+            out.write("OK\n");
+        } catch (TaskNotFoundException e) {
+            error(e.getMessage());
+        }
+    }
+
+    private void done(String description) throws IOException {
+        if (description.isEmpty()) {
+            error("Usage: DONE description");
+            return;
+        }
+        try {
+            schedule.markCompleted(description);
+            out.write("OK\n");
+        } catch (TaskNotFoundException e) {
+            error(e.getMessage());
+        }
+    }
+
+    private void list(String priority) throws IOException {
+        List<Task> tasks = priority.isEmpty()
+                ? schedule.viewAllTasks()
+                : schedule.viewTasksByPriority(TaskPriority.fromString(priority));
+        for (Task t : tasks) {
+            out.write("TASK ");
+            writeTime(t.getStart());
+            out.write(' ');
+            writeTime(t.getEnd());
+            out.write(' ');
+            out.write(t.getPriority().name());
+            out.write(t.isCompleted() ? " 1 " : " 0 ");
+            out.write(t.getDescription());
+            out.write('\n');
+        }
+        out.write("END ");
+        out.write(Integer.toString(tasks.size()));
+        out.write('\n');
+    }
+
+    private void sync(String args) throws IOException {
+        String[] f = args.split(" +");
+        long version;
+        long timeout;
+        try {
+            version = Long.parseLong(f[0]);
+            timeout = f.length > 1 ? Long.parseLong(f[1]) : 1000;
+        } catch (NumberFormatException e) {
+            error("Usage: SYNC version [timeout-ms]");
+            return;
+        }
+        if (timeout < 0) {
+            error("Timeout cannot be negative.");
+            return;
+        }
+        out.flush(); // answers already buffered should not wait behind the sync
+        try {
+            if (versions.awaitVersion(version, Duration.ofMillis(timeout))) out.write("OK\n");
+            else error("Timed out waiting for version " + version);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error("Interrupted.");
+        }
+    }
+
+    private void writeTime(LocalTime t) throws IOException {
+        int h = t.getHour();
+        int m = t.getMinute();
+        out.write('0' + h / 10);
+        out.write('0' + h % 10);
+        out.write(':');
+        out.write('0' + m / 10);
+        out.write('0' + m % 10);
+    }
+
+    private void error(String message) throws IOException {
+        out.write("ERR ");
+        out.write(message);
+        out.write('\n');
+    }
+
+    /**
+     * Reads LF- or CRLF-terminated lines straight from the socket stream,
+     * capping line length, and can tell whether more input is already waiting.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buf = new byte[16 * 1024];
+        private byte[] line = new byte[256];
+        private int pos;
+        private int limit;
+        private int len;
+        /** Set when the last line returned exceeded MAX_LINE; its text is then empty. */
+        boolean tooLong;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /** The next line without its terminator, or null at end of stream. */
+        String readLine() throws IOException {
+            len = 0;
+            tooLong = false;
+            boolean any = false;
+            while (true) {
+                if (pos == limit) {
+                    int n = in.read(buf, 0, buf.length);
+                    pos = 0;
+                    limit = Math.max(n, 0);
+                    if (n <= 0) return any ? finish() : null;
+                }
+                any = true;
+                int from = pos;
+                while (pos < limit && buf[pos] != '\n') pos++;
+                append(from, pos - from);
+                if (pos < limit) {
+                    pos++; // consume the '\n'
+                    return finish();
+                }
+            }
+        }
+
+        /** True if at least one more byte can be read without blocking. */
+        boolean hasBuffered() throws IOException {
+            return pos < limit || in.available() > 0;
+        }
+
+        private void append(int from, int n) {
+            if (tooLong) return;
+            if (len + n > MAX_LINE) {
+                tooLong = true;
+                return;
+            }
+            if (len + n > line.length) line = Arrays.copyOf(line, Math.min(MAX_LINE, Math.max(len + n, line.length * 2)));
+            System.arraycopy(buf, from, line, len, n);
+            len += n;
+        }
+
+        private String finish() {
+            if (tooLong) return "";
+            int n = len > 0 && line[len - 1] == '\r' ? len - 1 : len;
+            return new String(line, 0, n, StandardCharsets.UTF_8);
+        }
+    }
+}
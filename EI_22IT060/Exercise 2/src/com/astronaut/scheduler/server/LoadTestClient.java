@@ -0,0 +1,186 @@
+package com.astronaut.scheduler.server;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.metrics.HistogramSnapshot;
+import com.astronaut.scheduler.metrics.LatencyHistogram;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Drives a {@link ScheduleServer} from many concurrent connections and reports
+ * throughput and per-request latency.
+ *
+ * <pre>
+ * java com.astronaut.scheduler.server.LoadTestClient [--host H] [--port P]
+ *      [--connections N] [--requests N] [--pipeline N]
+ * </pre>
+ *
+ * Without {@code --port} an in-process server is started on localhost. Each
+ * connection repeats ADD, PING, REMOVE, LIST on its own one-minute tasks,
+ * writing {@code --pipeline} requests before reading their responses; a
+ * request's latency runs from the write of its batch to the arrival of its
+ * response.
+ */
+public final class LoadTestClient {
+    private final String host;
+    private final int port;
+    private final int pipeline;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public LoadTestClient(String host, int port, int pipeline) {
+        if (pipeline < 1) throw new IllegalArgumentException("Pipeline depth must be positive.");
+        this.host = host;
+        this.port = port;
+        this.pipeline = pipeline;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = "localhost";
+        int port = -1;
+        int connections = 16;
+        int requests = 10_000;
+        int pipeline = 16;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host" -> host = args[++i];
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--connections" -> connections = Integer.parseInt(args[++i]);
+                case "--requests" -> requests = Integer.parseInt(args[++i]);
+                case "--pipeline" -> pipeline = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        ScheduleServer server = null;
+        if (port < 0) {
+            // per-task INFO lines on the console would otherwise dominate the measurement
+            AppLogger.getInstance();
+            Logger.getLogger("AstronautScheduleLogger").setLevel(Level.WARNING);
+            server = ScheduleServer.onLocalhost(ScheduleManager.getInstance(), 0).start();
+            port = server.getPort();
+        }
+        try {
+            LoadTestClient client = new LoadTestClient(host, port, pipeline);
+            long t0 = System.nanoTime();
+            long sent = client.run(connections, requests);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("%d connections x %d requests, pipeline %d: %.0f req/s%n",
+                    connections, requests, pipeline, sent / secs);
+            System.out.println("latency " + client.getLatency());
+            System.out.println("conflicts=" + client.getConflictCount() + " errors=" + client.getErrorCount());
+        } finally {
+            if (server != null) server.close();
+        }
+    }
+
+    /** Runs {@code connections} sessions of {@code requests} requests each; returns requests answered. */
+    public long run(int connections, int requests) throws InterruptedException, IOException {
+        ExecutorService pool = ScheduleServer.newThreadPerTaskExecutor("load-test");
+        try {
+            List<Future<Long>> done = new ArrayList<>(connections);
+            for (int c = 0; c < connections; c++) {
+                int id = c;
+                done.add(pool.submit(() -> session(id, requests)));
+            }
+            long total = 0;
+            for (Future<Long> f : done) {
+                try {
+                    total += f.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException io) throw io;
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public HistogramSnapshot getLatency() { return latency.snapshot(); }
+    public long getConflictCount() { return conflicts.sum(); }
+    public long getErrorCount() { return errors.sum(); }
+
+    private long session(int id, int requests) throws IOException {
+        try (Socket s = new Socket(host, port)) {
+            s.setTcpNoDelay(true);
+            Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            StringBuilder cmd = new StringBuilder(64);
+            int[] kinds = new int[pipeline];
+            int i = 0;
+            while (i < requests) {
+                int batch = Math.min(pipeline, requests - i);
+                for (int b = 0; b < batch; b++, i++) {
+                    kinds[b] = i & 3;
+                    command(cmd, id, i);
+                    out.append(cmd);
+                }
+                out.flush();
+                long sentAt = System.nanoTime();
+                for (int b = 0; b < batch; b++) {
+                    readResponse(in, kinds[b] == 3);
+                    latency.record(System.nanoTime() - sentAt);
+                }
+            }
+            out.write("QUIT\n");
+            out.flush();
+            in.readLine();
+            return requests;
+        }
+    }
+
+    /** Request {@code i} of connection {@code id}: ADD, PING, REMOVE, LIST of that connection's task. */
+    private static void command(StringBuilder cmd, int id, int i) {
+        cmd.setLength(0);
+        int task = i >> 2;
+        switch (i & 3) {
+            case 0 -> {
+                int minute = (id * 7919 + task) % (24 * 60 - 1);
+                cmd.append("ADD ");
+                appendTime(cmd, minute);
+                cmd.append(' ');
+                appendTime(cmd, minute + 1);
+                cmd.append(" low lt-").append(id).append('-').append(task);
+            }
+            case 1 -> cmd.append("PING");
+            case 2 -> cmd.append("REMOVE lt-").append(id).append('-').append(task);
+            default -> cmd.append("LIST");
+        }
+        cmd.append('\n');
+    }
+
+    private static void appendTime(StringBuilder sb, int minute) {
+        int h = minute / 60;
+        int m = minute % 60;
+        sb.append((char) ('0' + h / 10)).append((char) ('0' + h % 10)).append(':')
+          .append((char) ('0' + m / 10)).append((char) ('0' + m % 10));
+    }
+
+    private void readResponse(BufferedReader in, boolean list) throws IOException {
+        String line = in.readLine();
+        if (list) {
+            while (line != null && !line.startsWith("END ")) line = in.readLine();
+        }
+        if (line == null) throw new IOException("Server closed the connection.");
+        if (line.startsWith("CONFLICT")) conflicts.increment();
+        else if (line.startsWith("ERR")) errors.increment();
+    }
+}
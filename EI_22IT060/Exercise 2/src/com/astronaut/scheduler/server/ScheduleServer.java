@@ -0,0 +1,149 @@
+package com.astronaut.scheduler.server;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Line-protocol TCP front-end over a {@link ScheduleManager}, so many clients
+ * can drive the same schedule at once. Each connection is served by its own
+ * thread: a virtual thread when the JVM has them (Java 21+), else a daemon
+ * platform thread. See {@link Connection} for the protocol.
+ */
+public final class ScheduleServer implements AutoCloseable {
+    private final ScheduleManager schedule;
+    private final ServerSocket socket;
+    private volatile VersionSource versions;
+    private volatile boolean readOnly;
+    private final ExecutorService connections = newThreadPerTaskExecutor("schedule-connection");
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AppLogger logger = AppLogger.getInstance();
+    private volatile boolean closed;
+
+    /** Binds to {@code port} on all interfaces; 0 picks a free port. */
+    public ScheduleServer(ScheduleManager schedule, int port) throws IOException {
+        this(schedule, new InetSocketAddress(port));
+    }
+
+    public ScheduleServer(ScheduleManager schedule, InetSocketAddress address) throws IOException {
+        this.schedule = schedule;
+        this.versions = VersionSource.of(schedule);
+        this.socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(address, 512);
+    }
+
+    /** A server on the loopback interface only, for local testing. */
+    public static ScheduleServer onLocalhost(ScheduleManager schedule, int port) throws IOException {
+        return new ScheduleServer(schedule, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /** Source of VERSION and SYNC answers; the schedule's own version by default. */
+    public ScheduleServer versions(VersionSource versions) {
+        this.versions = versions;
+        return this;
+    }
+
+    /** Rejects ADD, EDIT, REMOVE and DONE, as a replication follower must. */
+    public ScheduleServer readOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
+    /** Starts accepting connections on a daemon thread and returns immediately. */
+    public ScheduleServer start() {
+        Thread th = new Thread(this::acceptLoop, "schedule-server-accept");
+        th.setDaemon(true);
+        th.start();
+        logger.info("Schedule server listening on port {0}", getPort());
+        return this;
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public int getOpenConnections() {
+        return open.size();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket s;
+            try {
+                s = socket.accept();
+            } catch (IOException e) {
+                if (!closed) logger.error("Accept failed", e);
+                continue;
+            }
+            open.add(s);
+            try {
+                connections.execute(() -> serve(s));
+            } catch (RuntimeException e) {
+                // rejected after close()
+                open.remove(s);
+                closeQuietly(s);
+            }
+        }
+    }
+
+    private void serve(Socket s) {
+        try {
+            s.setTcpNoDelay(true);
+            new Connection(schedule, versions, readOnly, s.getInputStream(), s.getOutputStream()).run();
+        } catch (SocketException e) {
+            // client went away or the server is closing
+        } catch (IOException | RuntimeException e) {
+            if (!closed) logger.error("Connection failed", e);
+        } finally {
+            open.remove(s);
+            closeQuietly(s);
+        }
+    }
+
+    /** Stops accepting and closes every open connection. */
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(socket);
+        for (Socket s : open) closeQuietly(s);
+        connections.shutdown();
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        try {
+            c.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * A virtual-thread-per-task executor when the running JVM provides one.
+     * Looked up reflectively because the build targets Java 17; older JVMs get
+     * a cached pool of daemon threads, which gives the same one-thread-per-task
+     * model at a higher cost per idle connection.
+     */
+    static ExecutorService newThreadPerTaskExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger n = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread th = new Thread(r, name + "-" + n.incrementAndGet());
+                th.setDaemon(true);
+                return th;
+            });
+        }
+    }
+}
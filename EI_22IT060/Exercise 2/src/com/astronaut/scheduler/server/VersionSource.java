@@ -0,0 +1,32 @@
+package com.astronaut.scheduler.server;
+
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.time.Duration;
+
+/**
+ * Answers a server's VERSION and SYNC commands. A client that wrote to the
+ * leader reads VERSION there and sends it as SYNC to a follower before reading,
+ * so it sees its own writes (see ReplicationFollower).
+ */
+public interface VersionSource {
+    long currentVersion();
+
+    /** Waits until {@code version} is visible here; false if it is still not after {@code timeout}. */
+    boolean awaitVersion(long version, Duration timeout) throws InterruptedException;
+
+    /** The schedule's own version, for a leader or a standalone server; nothing to wait for. */
+    static VersionSource of(ScheduleManager schedule) {
+        return new VersionSource() {
+            @Override
+            public long currentVersion() {
+                return schedule.version();
+            }
+
+            @Override
+            public boolean awaitVersion(long version, Duration timeout) {
+                return schedule.version() >= version;
+            }
+        };
+    }
+}
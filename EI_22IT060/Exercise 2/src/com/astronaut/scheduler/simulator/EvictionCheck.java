@@ -0,0 +1,105 @@
+package com.astronaut.scheduler.simulator;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.exceptions.TaskNotFoundException;
+import com.astronaut.scheduler.model.ScheduleResult;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.scheduler.PartitionedScheduleManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Regression check for partition eviction racing with writers: adds tasks to
+ * populated partitions, and adds and removes them again on partitions that keep
+ * emptying out, from several threads while another thread calls
+ * evictIdle(Duration.ZERO) as fast as it can. Every task an add reported as
+ * scheduled must still be there when it is looked for. Exits with status 1 if
+ * any went missing.
+ *
+ * <pre>
+ * java com.astronaut.scheduler.simulator.EvictionCheck [--threads N] [--partitions N]
+ * </pre>
+ */
+public final class EvictionCheck {
+    private EvictionCheck() {}
+
+    public static void main(String[] args) throws Exception {
+        int threads = 4;
+        int partitions = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--partitions" -> partitions = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        AppLogger.getInstance();
+        Logger.getLogger("AstronautScheduleLogger").setLevel(Level.WARNING);
+
+        int partitionCount = partitions;
+        PartitionedScheduleManager schedules = new PartitionedScheduleManager();
+        LocalDate day = LocalDate.of(2030, 1, 1);
+        int perThread = 1438 / threads; // one-minute tasks before 23:58; each thread owns a block of them
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger lost = new AtomicInteger(); // tasks gone before their own writer removed them
+        int seeded = 0;
+        for (int p = 0; p < partitionCount; p += 2, seeded++) {
+            // even partitions start populated and only grow, so they must never be evicted
+            schedules.addTask("crew", day.plusDays(p), new Task("seed", LocalTime.of(23, 58), LocalTime.of(23, 59),
+                    TaskPriority.LOW));
+        }
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            int first = w * perThread;
+            Thread th = new Thread(() -> {
+                for (int m = first; m < first + perThread; m++) {
+                    for (int p = 0; p < partitionCount; p++) {
+                        LocalTime start = LocalTime.MIN.plusMinutes(m);
+                        ScheduleResult r = schedules.tryAddTask("crew", day.plusDays(p),
+                                new Task("t" + m, start, start.plusMinutes(1), TaskPriority.LOW));
+                        if (!r.isApplied()) continue;
+                        if (p % 2 == 0) {
+                            added.incrementAndGet();
+                            continue;
+                        }
+                        try { // odd partitions keep emptying out, so they are evicted between writes
+                            schedules.removeTask("crew", day.plusDays(p), "t" + m);
+                        } catch (TaskNotFoundException e) {
+                            lost.incrementAndGet();
+                        }
+                    }
+                }
+            }, "eviction-check-writer-" + w);
+            writers.add(th);
+        }
+        AtomicInteger evictions = new AtomicInteger();
+        Thread evictor = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) evictions.addAndGet(schedules.evictIdle(Duration.ZERO));
+        }, "eviction-check-evictor");
+        evictor.setDaemon(true);
+        evictor.start();
+        for (Thread th : writers) th.start();
+        for (Thread th : writers) th.join();
+        evictor.interrupt();
+        evictor.join();
+
+        int present = 0;
+        for (int p = 0; p < partitionCount; p++) present += schedules.viewAllTasks("crew", day.plusDays(p)).size();
+        int expected = added.get() + seeded;
+        System.out.println("Scheduled " + expected + " tasks, found " + present + ", evicted " + evictions.get()
+                + " empty partitions.");
+        if (present != expected || lost.get() != 0) {
+            System.out.println("FAILED: " + (expected - present + lost.get()) + " tasks lost to eviction.");
+            System.exit(1);
+        }
+    }
+}
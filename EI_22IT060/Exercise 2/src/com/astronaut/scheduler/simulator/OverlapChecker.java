@@ -0,0 +1,81 @@
+package com.astronaut.scheduler.simulator;
+
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.observer.ScheduleObserver;
+
+import java.time.LocalTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Shadow copy of a schedule, rebuilt from its change notifications, that
+ * re-checks every admitted add and edit for overlap on its own. Because the
+ * manager notifies observers under its write lock (unless async dispatch is
+ * enabled, which this checker does not support), the shadow sees changes in
+ * commit order and with the task's times as committed, so any overlap the
+ * manager ever lets in is counted, however briefly it lasted.
+ */
+public final class OverlapChecker implements ScheduleObserver {
+    private final NavigableMap<LocalTime, Task> byStart = new TreeMap<>();
+    private final Map<Task, LocalTime> startOf = new IdentityHashMap<>(); // start as last seen, to find edited tasks
+    private long violations;
+    private String firstViolation;
+
+    /** Seeds the shadow with tasks already in the schedule; call while nothing is changing it. */
+    public synchronized void seed(List<Task> existing) {
+        for (Task t : existing) admit(t);
+    }
+
+    @Override
+    public synchronized void onTaskAdded(Task task) {
+        admit(task);
+    }
+
+    @Override
+    public synchronized void onTasksAdded(List<Task> tasks) {
+        for (Task t : tasks) admit(t);
+    }
+
+    @Override
+    public synchronized void onTaskRemoved(Task task) {
+        forget(task);
+    }
+
+    @Override
+    public synchronized void onTaskUpdated(Task task) {
+        forget(task);
+        admit(task);
+    }
+
+    @Override
+    public void onConflict(Task attempted, Task conflicting, String message) {
+        // a rejection is the manager doing its job
+    }
+
+    public synchronized long getViolationCount() { return violations; }
+    /** Description of the first overlap found, or null. */
+    public synchronized String getFirstViolation() { return firstViolation; }
+    public synchronized int size() { return startOf.size(); }
+
+    private void admit(Task t) {
+        LocalTime s = t.getStart();
+        Map.Entry<LocalTime, Task> before = byStart.floorEntry(s);
+        if (before != null && before.getValue().getEnd().isAfter(s)) violation(t, before.getValue());
+        Map.Entry<LocalTime, Task> after = byStart.higherEntry(s);
+        if (after != null && after.getKey().isBefore(t.getEnd())) violation(t, after.getValue());
+        startOf.put(t, s);
+        byStart.putIfAbsent(s, t);
+    }
+
+    private void forget(Task t) {
+        LocalTime s = startOf.remove(t);
+        if (s != null) byStart.remove(s, t);
+    }
+
+    private void violation(Task admitted, Task existing) {
+        if (violations++ == 0) firstViolation = admitted + " overlaps " + existing;
+    }
+}
@@ -0,0 +1,43 @@
+package com.astronaut.scheduler.simulator;
+
+import com.astronaut.scheduler.metrics.HistogramSnapshot;
+
+import java.time.Duration;
+import java.util.Map;
+
+/** Totals of a WorkloadSimulator run, over the whole measured period. */
+public final class SimulationResult {
+    private final Duration elapsed;
+    private final Map<WorkloadSimulator.Operation, HistogramSnapshot> latency;
+    private final Map<WorkloadSimulator.Operation, Long> conflicts;
+    private final long violations;
+    private final String firstViolation;
+
+    SimulationResult(Duration elapsed, Map<WorkloadSimulator.Operation, HistogramSnapshot> latency,
+                     Map<WorkloadSimulator.Operation, Long> conflicts, long violations, String firstViolation) {
+        this.elapsed = elapsed;
+        this.latency = Map.copyOf(latency);
+        this.conflicts = Map.copyOf(conflicts);
+        this.violations = violations;
+        this.firstViolation = firstViolation;
+    }
+
+    public Duration getElapsed() { return elapsed; }
+
+    /** Latency of {@code op}; in open-loop mode measured from when it was due, not when it started. */
+    public HistogramSnapshot getLatency(WorkloadSimulator.Operation op) { return latency.get(op); }
+
+    /** How many adds or edits of this kind the schedule rejected as conflicting. */
+    public long getConflicts(WorkloadSimulator.Operation op) { return conflicts.getOrDefault(op, 0L); }
+
+    public long getOperationCount() {
+        long n = 0;
+        for (HistogramSnapshot s : latency.values()) n += s.getCount();
+        return n;
+    }
+
+    /** Overlapping tasks the schedule admitted; anything but zero is a bug. */
+    public long getViolationCount() { return violations; }
+    public String getFirstViolation() { return firstViolation; }
+    public boolean isCorrect() { return violations == 0; }
+}
@@ -0,0 +1,69 @@
+package com.astronaut.scheduler.simulator;
+
+import com.astronaut.scheduler.exceptions.InvalidTimeFormatException;
+import com.astronaut.scheduler.factory.TaskFactory;
+import com.astronaut.scheduler.model.Task;
+
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded source of synthetic tasks, created through TaskFactory from HH:mm
+ * strings exactly as console input would be. Durations are 1 to
+ * {@code maxMinutes} minutes, skewed towards short ones; starts are uniform
+ * over the day. The same seed always yields the same tasks. Not thread-safe;
+ * give each thread its own generator (see {@link #split()}).
+ */
+public final class TaskGenerator {
+    private static final String[] PRIORITIES = { "low", "medium", "high" };
+
+    private final SplittableRandom rnd;
+    private final int maxMinutes;
+    private final StringBuilder buf = new StringBuilder(5);
+
+    public TaskGenerator(long seed, int maxMinutes) {
+        this(new SplittableRandom(seed), maxMinutes);
+    }
+
+    private TaskGenerator(SplittableRandom rnd, int maxMinutes) {
+        if (maxMinutes < 1 || maxMinutes >= 24 * 60)
+            throw new IllegalArgumentException("Maximum duration must be between 1 and 1439 minutes.");
+        this.rnd = rnd;
+        this.maxMinutes = maxMinutes;
+    }
+
+    /** An independent generator whose sequence is fixed by this one's seed. */
+    public TaskGenerator split() {
+        return new TaskGenerator(rnd.split(), maxMinutes);
+    }
+
+    public Task next(String description) {
+        // the smaller of two uniform draws: short tasks are common, long ones rare
+        int duration = 1 + Math.min(rnd.nextInt(maxMinutes), rnd.nextInt(maxMinutes));
+        int start = rnd.nextInt(24 * 60 - duration);
+        try {
+            return TaskFactory.createTask(description, hhmm(start), hhmm(start + duration),
+                    PRIORITIES[rnd.nextInt(PRIORITIES.length)], false);
+        } catch (InvalidTimeFormatException e) {
+            throw new IllegalStateException(e); // the times above are always well formed
+        }
+    }
+
+    /** A uniformly random minute of the day. */
+    public LocalTime nextTime() {
+        return TaskFactory.timeOf(rnd.nextInt(24 * 60));
+    }
+
+    /** Uniform in [0, bound). */
+    public int nextInt(int bound) {
+        return rnd.nextInt(bound);
+    }
+
+    private String hhmm(int minute) {
+        int h = minute / 60;
+        int m = minute % 60;
+        buf.setLength(0);
+        return buf.append((char) ('0' + h / 10)).append((char) ('0' + h % 10)).append(':')
+                .append((char) ('0' + m / 10)).append((char) ('0' + m % 10)).toString();
+    }
+}
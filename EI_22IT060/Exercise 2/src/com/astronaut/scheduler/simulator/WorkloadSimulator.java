@@ -0,0 +1,414 @@
+package com.astronaut.scheduler.simulator;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.exceptions.TaskNotFoundException;
+import com.astronaut.scheduler.metrics.HistogramSnapshot;
+import com.astronaut.scheduler.metrics.LatencyHistogram;
+import com.astronaut.scheduler.model.ScheduleResult;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Soak-test driver: replays a read/edit/add mix against a ScheduleManager from
+ * many threads for as long as asked, printing throughput, latency percentiles,
+ * conflict rates and heap use every reporting interval, and checking with an
+ * OverlapChecker that no overlapping tasks are ever admitted, e.g.
+ * {@code WorkloadSimulator.create().threads(8).openLoop(50_000).duration(Duration.ofHours(2)).run(schedule, System.out)}.
+ *
+ * <pre>
+ * java com.astronaut.scheduler.simulator.WorkloadSimulator [--threads N] [--virtual]
+ *      [--mix 90,8,2] [--rate OPS_PER_SEC] [--seconds N] [--report N]
+ *      [--population N] [--max-duration MINUTES] [--seed N]
+ * </pre>
+ *
+ * Every worker draws each operation from the mix, so the mix holds however many
+ * threads run. Reads are taskAt, nextTask, a 10-task page or findById. Adds
+ * insert a fresh generated task with tryAddTask; once a worker owns its share of
+ * {@code population} tasks it first removes one of them at random (timed as
+ * REMOVE), so the schedule stays near that size. Edits move one of the worker's
+ * own tasks to a freshly generated slot with tryEditTask. How many adds and
+ * edits conflict follows from how full the day is, which population and
+ * maximum duration control.
+ *
+ * Closed loop (the default) issues the next operation as soon as the last
+ * returns. Open loop ({@link #openLoop}) issues them at a fixed total rate, and
+ * measures each from when it was due, so time spent queued behind a stall
+ * counts towards its latency instead of silently lowering the rate (so does
+ * the driver's own wake-up delay, typically some tens of microseconds).
+ */
+public final class WorkloadSimulator {
+    public enum Operation { READ, EDIT, ADD, REMOVE }
+
+    private int threads = 4;
+    private boolean virtualThreads;
+    private int readPercent = 90;
+    private int editPercent = 8;
+    private double rate; // operations per second over all threads; 0 is closed loop
+    private Duration duration = Duration.ofMinutes(1);
+    private Duration reportEvery = Duration.ofSeconds(10);
+    private int population = 100;
+    private int maxMinutes = 10;
+    private long seed = 42;
+
+    private final Map<Operation, LatencyHistogram> total = new EnumMap<>(Operation.class);
+    private final Map<Operation, LatencyHistogram> window = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> conflicts = new EnumMap<>(Operation.class);
+    private volatile boolean stop;
+
+    private WorkloadSimulator() {
+        for (Operation op : Operation.values()) {
+            total.put(op, new LatencyHistogram());
+            window.put(op, new LatencyHistogram());
+            conflicts.put(op, new LongAdder());
+        }
+    }
+
+    public static WorkloadSimulator create() {
+        return new WorkloadSimulator();
+    }
+
+    public static void main(String[] args) throws Exception {
+        WorkloadSimulator sim = create();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> sim.threads(Integer.parseInt(args[++i]));
+                case "--virtual" -> sim.virtualThreads(true);
+                case "--mix" -> {
+                    String[] p = args[++i].split(",");
+                    if (p.length != 3) throw new IllegalArgumentException("Mix must be read,edit,add percentages.");
+                    sim.mix(Integer.parseInt(p[0].trim()), Integer.parseInt(p[1].trim()), Integer.parseInt(p[2].trim()));
+                }
+                case "--rate" -> sim.openLoop(Double.parseDouble(args[++i]));
+                case "--seconds" -> sim.duration(Duration.ofSeconds(Long.parseLong(args[++i])));
+                case "--report" -> sim.reportEvery(Duration.ofSeconds(Long.parseLong(args[++i])));
+                case "--population" -> sim.population(Integer.parseInt(args[++i]));
+                case "--max-duration" -> sim.maxDuration(Integer.parseInt(args[++i]));
+                case "--seed" -> sim.seed(Long.parseLong(args[++i]));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        // per-task INFO lines on the console would otherwise dominate the measurement
+        AppLogger.getInstance();
+        Logger.getLogger("AstronautScheduleLogger").setLevel(Level.WARNING);
+        SimulationResult r = sim.run(ScheduleManager.getInstance(), System.out);
+        if (!r.isCorrect()) System.exit(1);
+    }
+
+    public WorkloadSimulator threads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive.");
+        this.threads = threads;
+        return this;
+    }
+
+    /** Runs workers on virtual threads where the JDK has them (21+), else on platform threads. */
+    public WorkloadSimulator virtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /** Percentages of reads, edits and adds; they must add up to 100. */
+    public WorkloadSimulator mix(int read, int edit, int add) {
+        if (read < 0 || edit < 0 || add < 0 || read + edit + add != 100)
+            throw new IllegalArgumentException("Mix percentages must be non-negative and add up to 100.");
+        this.readPercent = read;
+        this.editPercent = edit;
+        return this;
+    }
+
+    /** Issues operations at this total rate, spread evenly over the threads. */
+    public WorkloadSimulator openLoop(double operationsPerSecond) {
+        if (!(operationsPerSecond > 0)) throw new IllegalArgumentException("Rate must be positive.");
+        this.rate = operationsPerSecond;
+        return this;
+    }
+
+    /** Issues each thread's next operation as soon as its last one returns (the default). */
+    public WorkloadSimulator closedLoop() {
+        this.rate = 0;
+        return this;
+    }
+
+    public WorkloadSimulator duration(Duration duration) {
+        if (duration == null || duration.isNegative() || duration.isZero())
+            throw new IllegalArgumentException("Duration must be positive.");
+        this.duration = duration;
+        return this;
+    }
+
+    public WorkloadSimulator reportEvery(Duration every) {
+        if (every == null || every.isNegative() || every.isZero())
+            throw new IllegalArgumentException("Report interval must be positive.");
+        this.reportEvery = every;
+        return this;
+    }
+
+    /** Number of tasks the workers keep in the schedule between them. */
+    public WorkloadSimulator population(int population) {
+        if (population < 1) throw new IllegalArgumentException("Population must be positive.");
+        this.population = population;
+        return this;
+    }
+
+    /** Longest generated task, in minutes. */
+    public WorkloadSimulator maxDuration(int minutes) {
+        new TaskGenerator(0, minutes); // validates
+        this.maxMinutes = minutes;
+        return this;
+    }
+
+    public WorkloadSimulator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Fills the schedule to the target population, then runs the workload for the
+     * configured duration, reporting to {@code out}. A simulator runs once.
+     */
+    public SimulationResult run(ScheduleManager schedule, PrintStream out) throws InterruptedException {
+        OverlapChecker checker = new OverlapChecker();
+        checker.seed(schedule.viewAllTasks());
+        schedule.attachObserver(checker);
+        try {
+            TaskGenerator root = new TaskGenerator(seed, maxMinutes);
+            List<Worker> workers = new ArrayList<>(threads);
+            for (int w = 0; w < threads; w++) {
+                int quota = population / threads + (w < population % threads ? 1 : 0);
+                workers.add(new Worker(w, schedule, root.split(), quota));
+            }
+            for (Worker w : workers) w.preload();
+            out.printf("%d %s threads, mix %d/%d/%d, %s, %d tasks of up to %d min, %d s%n", threads,
+                    virtualThreads ? "virtual" : "platform", readPercent, editPercent, 100 - readPercent - editPercent,
+                    rate > 0 ? String.format("open loop at %,.0f ops/s", rate) : "closed loop",
+                    schedule.size(), maxMinutes, duration.toSeconds());
+
+            ExecutorService pool = newExecutor(out);
+            CountDownLatch started = new CountDownLatch(1);
+            long t0 = System.nanoTime();
+            for (Worker w : workers) {
+                pool.execute(() -> {
+                    try {
+                        started.await();
+                        w.run(t0);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            started.countDown();
+            long deadline = t0 + duration.toNanos();
+            long last = t0;
+            long[] gc = gcTotals();
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= deadline) break;
+                TimeUnit.NANOSECONDS.sleep(Math.min(reportEvery.toNanos(), deadline - now));
+                now = System.nanoTime();
+                gc = report(out, now - t0, now - last, gc, checker);
+                last = now;
+            }
+            stop = true;
+            pool.shutdown();
+            if (!pool.awaitTermination(30, TimeUnit.SECONDS)) out.println("Workers did not stop within 30 s.");
+            long elapsed = System.nanoTime() - t0;
+
+            // the shadow saw every change; this sweep double-checks the final state directly
+            List<Task> fin = schedule.viewAllTasks();
+            long sweep = 0;
+            for (int i = 1; i < fin.size(); i++) {
+                if (fin.get(i - 1).getEnd().isAfter(fin.get(i).getStart())) sweep++;
+            }
+            Map<Operation, HistogramSnapshot> latency = new EnumMap<>(Operation.class);
+            Map<Operation, Long> rejected = new EnumMap<>(Operation.class);
+            out.printf("Total over %.1f s:%n", elapsed / 1e9);
+            for (Operation op : Operation.values()) {
+                HistogramSnapshot s = total.get(op).snapshot();
+                latency.put(op, s);
+                rejected.put(op, conflicts.get(op).sum());
+                printOperation(out, op, s, elapsed, conflicts.get(op).sum());
+            }
+            long violations = checker.getViolationCount() + sweep;
+            out.printf("Overlaps admitted: %d%s%n", violations,
+                    checker.getFirstViolation() == null ? "" : " (first: " + checker.getFirstViolation() + ")");
+            return new SimulationResult(Duration.ofNanos(elapsed), latency, rejected, violations,
+                    checker.getFirstViolation());
+        } finally {
+            stop = true;
+            schedule.detachObserver(checker);
+        }
+    }
+
+    /** Prints one interval's figures and resets them; returns the GC totals seen. */
+    private long[] report(PrintStream out, long sinceStart, long interval, long[] gcBefore, OverlapChecker checker) {
+        long[] gc = gcTotals();
+        long ops = 0;
+        Map<Operation, HistogramSnapshot> snaps = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            // a few operations recorded between snapshot and reset are lost from the interval, not the total
+            HistogramSnapshot s = window.get(op).snapshot();
+            window.get(op).reset();
+            snaps.put(op, s);
+            ops += s.getCount();
+        }
+        Runtime rt = Runtime.getRuntime();
+        out.printf("[%5ds] %,.0f ops/s  heap %d/%d MB  gc %d (%d ms)  overlaps %d%n",
+                TimeUnit.NANOSECONDS.toSeconds(sinceStart), ops * 1e9 / interval,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20, rt.maxMemory() >> 20,
+                gc[0] - gcBefore[0], gc[1] - gcBefore[1], checker.getViolationCount());
+        for (Operation op : Operation.values()) printOperation(out, op, snaps.get(op), interval, -1);
+        return gc;
+    }
+
+    /** {@code rejected} is printed as a share of the operations when not negative. */
+    private static void printOperation(PrintStream out, Operation op, HistogramSnapshot s, long nanos, long rejected) {
+        if (s.getCount() == 0) return;
+        String extra = rejected > 0 && (op == Operation.ADD || op == Operation.EDIT)
+                ? String.format("  conflicts %.1f%%", 100.0 * rejected / s.getCount()) : "";
+        out.printf("        %-6s %,10.0f/s  %s%s%n", op, s.getCount() * 1e9 / nanos, s, extra);
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] { count, millis };
+    }
+
+    private ExecutorService newExecutor(PrintStream out) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                out.println("Virtual threads need Java 21; using platform threads.");
+            }
+        }
+        AtomicInteger n = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread th = new Thread(r, "simulator-" + n.incrementAndGet());
+            th.setDaemon(true);
+            return th;
+        });
+    }
+
+    private void record(Operation op, long nanos) {
+        total.get(op).record(nanos);
+        window.get(op).record(nanos);
+    }
+
+    /** One thread's share of the workload; owns the tasks it added, so no other worker edits or removes them. */
+    private final class Worker {
+        private final int id;
+        private final ScheduleManager schedule;
+        private final TaskGenerator gen;
+        private final int quota;
+        private int[] live = new int[16]; // ids of this worker's tasks in the schedule
+        private int liveCount;
+        private int next;
+
+        Worker(int id, ScheduleManager schedule, TaskGenerator gen, int quota) {
+            this.id = id;
+            this.schedule = schedule;
+            this.gen = gen;
+            this.quota = quota;
+        }
+
+        void preload() {
+            for (int tries = 0; liveCount < quota && tries < 50 * quota; tries++) {
+                Task t = gen.next(nextDescription());
+                if (schedule.tryAddTask(t).isApplied()) keep(t.getId());
+            }
+        }
+
+        void run(long t0) {
+            long interval = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+            long due = t0 + interval * id / threads; // stagger the threads across one interval
+            while (!stop) {
+                int r = gen.nextInt(100);
+                Operation op = r < readPercent ? Operation.READ
+                        : r < readPercent + editPercent && liveCount > 0 ? Operation.EDIT : Operation.ADD;
+                Task shape = op == Operation.READ ? null : gen.next(op == Operation.ADD ? nextDescription() : "edit");
+                LocalTime probe = gen.nextTime();
+                int kind = gen.nextInt(4);
+                if (op == Operation.ADD && liveCount >= quota && liveCount > 0) churn();
+                long begin;
+                if (interval > 0) {
+                    due += interval;
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                    if (stop) break;
+                    begin = due;
+                } else {
+                    begin = System.nanoTime();
+                }
+                switch (op) {
+                    case READ -> read(kind, probe);
+                    case EDIT -> {
+                        ScheduleResult res = schedule.tryEditTask(live[gen.nextInt(liveCount)],
+                                shape.getStart(), shape.getEnd(), shape.getPriority());
+                        if (!res.isApplied()) conflicts.get(Operation.EDIT).increment();
+                    }
+                    default -> {
+                        if (schedule.tryAddTask(shape).isApplied()) keep(shape.getId());
+                        else conflicts.get(Operation.ADD).increment();
+                    }
+                }
+                record(op, System.nanoTime() - begin);
+            }
+        }
+
+        private void read(int kind, LocalTime probe) {
+            switch (kind) {
+                case 0 -> schedule.taskAt(probe);
+                case 1 -> schedule.nextTask(probe);
+                case 2 -> schedule.view(probe, 10);
+                default -> schedule.findById(liveCount == 0 ? 0 : live[gen.nextInt(liveCount)]);
+            }
+        }
+
+        /** Removes one of this worker's tasks at random, to make room for the next add. */
+        private void churn() {
+            int i = gen.nextInt(liveCount);
+            int victim = live[i];
+            live[i] = live[--liveCount];
+            long t = System.nanoTime();
+            try {
+                schedule.removeTask(victim);
+            } catch (TaskNotFoundException e) {
+                // only this worker removes its tasks, but someone may have cleared the schedule
+            }
+            record(Operation.REMOVE, System.nanoTime() - t);
+        }
+
+        private void keep(int taskId) {
+            if (liveCount == live.length) live = Arrays.copyOf(live, liveCount * 2);
+            live[liveCount++] = taskId;
+        }
+
+        private String nextDescription() {
+            return "sim-" + id + "-" + next++;
+        }
+    }
+}
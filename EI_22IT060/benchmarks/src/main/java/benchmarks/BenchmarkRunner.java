@@ -0,0 +1,89 @@
+package benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmark suite once per thread count with the GC profiler on, and
+ * writes every score with its normalized allocation rate to one CSV file.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar [--threads 1,2,4,8] [--include regex] [--out file.csv]
+ * </pre>
+ *
+ * Defaults: 1, 2 and all available cores; every benchmark; results.csv. Pass
+ * {@code --out benchmarks/baseline/baseline.csv} to refresh the committed
+ * baseline. For plain JMH options use {@code java -cp benchmarks.jar org.openjdk.jmh.Main}.
+ */
+public final class BenchmarkRunner {
+    private static final String HEADER =
+            "benchmark,params,threads,score,error,unit,alloc_bytes_per_op";
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threads = new ArrayList<>(List.of(1, 2, cores));
+        String include = ".*";
+        Path out = Path.of("results.csv");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads" -> {
+                    threads.clear();
+                    for (String t : args[i + 1].split(",")) threads.add(Integer.parseInt(t.trim()));
+                }
+                case "--include" -> include = args[i + 1];
+                case "--out" -> out = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        for (int t : threads.stream().distinct().sorted().toList()) {
+            Options opts = new OptionsBuilder()
+                    .include(include)
+                    .threads(t)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            results.addAll(new Runner(opts).run());
+        }
+        write(results, out);
+        System.out.println("Wrote " + results.size() + " results to " + out.toAbsolutePath());
+    }
+
+    private static void write(List<RunResult> results, Path out) throws IOException {
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            w.println(HEADER);
+            for (RunResult r : results) {
+                BenchmarkParams p = r.getParams();
+                StringBuilder params = new StringBuilder();
+                for (String key : p.getParamsKeys()) {
+                    if (params.length() > 0) params.append(';');
+                    params.append(key).append('=').append(p.getParam(key));
+                }
+                Result<?> primary = r.getPrimaryResult();
+                Result<?> alloc = r.getSecondaryResults().get("gc.alloc.rate.norm");
+                if (alloc == null) alloc = r.getSecondaryResults().get("·gc.alloc.rate.norm"); // JMH before 1.36
+                w.printf("%s,%s,%d,%.3f,%.3f,%s,%s%n",
+                        p.getBenchmark(), params, p.getThreads(),
+                        primary.getScore(), primary.getScoreError(), primary.getScoreUnit(),
+                        alloc == null ? "" : String.format("%.1f", alloc.getScore()));
+            }
+        }
+    }
+}
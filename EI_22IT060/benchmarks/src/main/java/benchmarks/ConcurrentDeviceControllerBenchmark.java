@@ -0,0 +1,51 @@
+package benchmarks;
+
+import observer.ConcurrentDeviceController;
+import observer.Observer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** ConcurrentDeviceController fan-out cost by observer count, waiting for delivery or not. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentDeviceControllerBenchmark {
+    @Param({"1", "10", "100"})
+    int observers;
+
+    ConcurrentDeviceController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = new ConcurrentDeviceController();
+        for (int i = 0; i < observers; i++) controller.attach(new CountingObserver());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.close();
+    }
+
+    @Benchmark
+    public boolean notifyAndWait() throws InterruptedException {
+        return controller.notifyAndWait("ON", 1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void post() {
+        controller.post("ON");
+    }
+
+    static final class CountingObserver implements Observer {
+        volatile int updates;
+
+        @Override
+        public void update(String state) {
+            updates++;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import observer.DeviceController;
+import observer.Observer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** DeviceController.notifyObservers fan-out cost by observer count. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceControllerBenchmark {
+    @Param({"1", "10", "100"})
+    int observers;
+
+    DeviceController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = new DeviceController();
+        for (int i = 0; i < observers; i++) controller.attach(new CountingObserver());
+    }
+
+    @Benchmark
+    public void notifyObservers() {
+        controller.notifyObservers("ON");
+    }
+
+    static final class CountingObserver implements Observer {
+        int updates;
+
+        @Override
+        public void update(String state) {
+            updates++;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import devices.DeviceType;
+import org.openjdk.jmh.annotations.*;
+import registry.DeviceQuery;
+import registry.DeviceRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DeviceRegistry group commands and counts by registry size. Devices are spread
+ * over 1,000-device rooms and 100,000-device floors (groups), one type in three.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceRegistryBenchmark {
+    @Param({"10000", "1000000"})
+    int devices;
+
+    DeviceRegistry registry;
+    DeviceQuery lightsOnFloor;
+    boolean on;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new DeviceRegistry();
+        DeviceType[] types = DeviceType.values();
+        for (int i = 0; i < devices; i++) {
+            registry.register(types[i % types.length], "Room " + i / 1_000, "Floor " + i / 100_000);
+        }
+        lightsOnFloor = DeviceQuery.all().type(DeviceType.LIGHT).group("Floor 0");
+    }
+
+    /** Flips every light on one floor, so each call changes all of them. */
+    @Benchmark
+    public int switchLightsOnFloor() {
+        on = !on;
+        return registry.setOn(lightsOnFloor, on);
+    }
+
+    @Benchmark
+    public int countOn() {
+        return registry.countOn(DeviceQuery.all());
+    }
+
+    @Benchmark
+    public int countLightsOnFloor() {
+        return registry.countOn(lightsOnFloor);
+    }
+}
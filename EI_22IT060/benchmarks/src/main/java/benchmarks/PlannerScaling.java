@@ -0,0 +1,56 @@
+package benchmarks;
+
+import com.astronaut.scheduler.model.FlexibleTask;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.planner.Plan;
+import com.astronaut.scheduler.planner.TaskPlanner;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Solution quality of TaskPlanner for the TaskPlannerBenchmark workload, as
+ * CSV: greedy and final score against the upper bound for each task count,
+ * worker count and time budget.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar benchmarks.PlannerScaling [--tasks 100,1000,10000] [--parallelism 1,2,4] [--budgets 50,200,1000]
+ * </pre>
+ */
+public final class PlannerScaling {
+    private PlannerScaling() {}
+
+    public static void main(String[] args) {
+        int[] sizes = { 100, 1000, 10000 };
+        int[] workers = { 1, 2, Runtime.getRuntime().availableProcessors() };
+        int[] budgets = { 50, 200, 1000 };
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--tasks" -> sizes = ints(args[i + 1]);
+                case "--parallelism" -> workers = ints(args[i + 1]);
+                case "--budgets" -> budgets = ints(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        List<Task> fixed = TaskPlannerBenchmark.fixedTasks();
+        System.out.println("tasks,parallelism,budget_ms,greedy_score,score,max_score,placed,moves,elapsed_ms");
+        for (int n : sizes) {
+            List<FlexibleTask> flexible = TaskPlannerBenchmark.workload(n, 42);
+            TaskPlanner.create().budget(Duration.ofMillis(200)).plan(fixed, flexible); // warm-up
+            for (int w : workers) {
+                for (int b : budgets) {
+                    Plan p = TaskPlanner.create().budget(Duration.ofMillis(b)).parallelism(w).plan(fixed, flexible);
+                    System.out.printf("%d,%d,%d,%d,%d,%d,%d,%d,%d%n", n, w, b, p.getGreedyScore(), p.getScore(),
+                            p.getMaxScore(), p.getPlaced().size(), p.getMoves(), p.getElapsed().toMillis());
+                }
+            }
+        }
+    }
+
+    private static int[] ints(String csv) {
+        String[] parts = csv.split(",");
+        int[] out = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Integer.parseInt(parts[i].trim());
+        return out;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.persistence.Durability;
+import com.astronaut.scheduler.persistence.ScheduleStore;
+import com.astronaut.scheduler.scheduler.ScheduleManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cold-start recovery time of a ScheduleStore. The first run against an empty
+ * directory fills it with a snapshot of {@code --tasks} tasks; every later run
+ * recovers it in a fresh JVM and prints how long attachStore took. Recovery
+ * allocates the whole schedule at once, so give the young generation room for
+ * it, e.g. -Xmn1g for a million tasks, or most of the time goes to copying the
+ * new objects between generations.
+ *
+ * <pre>
+ * java -Xmx2g -Xmn1g -cp benchmarks/target/benchmarks.jar benchmarks.RecoveryTime --dir /tmp/store [--tasks 1000000]
+ * </pre>
+ */
+public final class RecoveryTime {
+    private RecoveryTime() {}
+
+    public static void main(String[] args) throws Exception {
+        Path dir = null;
+        int count = 1_000_000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--dir" -> dir = Path.of(args[i + 1]);
+                case "--tasks" -> count = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (dir == null) throw new IllegalArgumentException("--dir is required.");
+        AppLogger.getInstance();
+        Logger.getLogger("AstronautScheduleLogger").setLevel(Level.WARNING);
+
+        boolean fill = !Files.isDirectory(dir) || isEmpty(dir);
+        ScheduleManager schedule = ScheduleManager.getInstance();
+        try (ScheduleStore store = new ScheduleStore(dir, 64)) {
+            long t0 = System.nanoTime();
+            schedule.attachStore(store, Durability.NONE);
+            long elapsed = System.nanoTime() - t0;
+            if (fill) {
+                schedule.addTasks(tasks(count));
+                schedule.snapshot();
+                System.out.println("Wrote " + schedule.size() + " tasks to " + dir + "; run again to time recovery.");
+            } else {
+                System.out.printf("Recovered %d tasks in %d ms%n", schedule.size(), elapsed / 1_000_000);
+            }
+        }
+    }
+
+    /** {@code n} tasks spread evenly over the day, each filling four fifths of its slot. */
+    private static List<Task> tasks(int n) {
+        long step = 86_400_000_000_000L / Math.max(n, 1);
+        List<Task> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long start = i * step;
+            out.add(new Task("Task " + i, LocalTime.ofNanoOfDay(start), LocalTime.ofNanoOfDay(start + step * 4 / 5),
+                    TaskPriority.values()[i % 3]));
+        }
+        return out;
+    }
+
+    private static boolean isEmpty(Path dir) throws Exception {
+        try (var files = Files.list(dir)) {
+            return files.findAny().isEmpty();
+        }
+    }
+}
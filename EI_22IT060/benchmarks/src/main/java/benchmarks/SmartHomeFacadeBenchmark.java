@@ -0,0 +1,63 @@
+package benchmarks;
+
+import devices.Device;
+import facade.SmartHomeFacade;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SmartHomeFacade paths end to end. Devices and the logger print to System.out,
+ * which is swapped for a discarding stream in the forked VM, so the cost of
+ * building and printing the messages is kept but the console is not flooded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SmartHomeFacadeBenchmark {
+    @Param({"1", "10", "100"})
+    int observers;
+
+    SmartHomeFacade facade;
+    Device light;
+    int lightId;
+    PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        facade = new SmartHomeFacade();
+        for (int i = 0; i < observers; i++) facade.addDeviceObserver(state -> { });
+        light = facade.createDevice("light");
+        lightId = facade.registerDevice("light", "Kitchen");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        facade.close();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void turnDeviceOnOff() {
+        facade.turnDeviceOn(light);
+        facade.turnDeviceOff(light);
+    }
+
+    @Benchmark
+    public void turnRegisteredDeviceOnOff() {
+        facade.turnDeviceOn(lightId);
+        facade.turnDeviceOff(lightId);
+    }
+
+    @Benchmark
+    public Device createDevice() {
+        return facade.createDevice("thermostat");
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import com.astronaut.scheduler.exceptions.InvalidTimeFormatException;
+import com.astronaut.scheduler.factory.TaskFactory;
+import com.astronaut.scheduler.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** TaskFactory parsing, for well-formed rows and for the rejected-row path. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskFactoryBenchmark {
+    String description = "Morning Exercise";
+    String start = "07:00";
+    String end = "08:30";
+    String malformed = "7am";
+    String priority = "high";
+
+    @Benchmark
+    public Task createTask() throws InvalidTimeFormatException {
+        return TaskFactory.createTask(description, start, end, priority);
+    }
+
+    @Benchmark
+    public Object createTaskMalformed() {
+        try {
+            return TaskFactory.createTask(description, malformed, end, priority);
+        } catch (InvalidTimeFormatException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int parseMinutes() {
+        return TaskFactory.parseMinutes(start);
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import com.astronaut.scheduler.model.FlexibleTask;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.planner.Plan;
+import com.astronaut.scheduler.planner.TaskPlanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solve time of TaskPlanner against task count and worker count. The local
+ * search runs a fixed number of moves instead of a time budget, so its score
+ * shows how move throughput scales with cores. PlannerScaling reports the
+ * solution quality side for the same workload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskPlannerBenchmark {
+    static final int MOVES = 20_000;
+
+    @Param({"100", "1000", "10000"})
+    int tasks;
+
+    @Param({"1", "2", "4"})
+    int parallelism;
+
+    List<Task> fixed;
+    List<FlexibleTask> flexible;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixed = fixedTasks();
+        flexible = workload(tasks, 42);
+    }
+
+    @Benchmark
+    public Plan greedy() {
+        return TaskPlanner.create().budget(Duration.ZERO).plan(fixed, flexible);
+    }
+
+    @Benchmark
+    public Plan localSearch() {
+        return TaskPlanner.create()
+                .budget(Duration.ofMinutes(1))
+                .maxMoves(MOVES)
+                .parallelism(parallelism)
+                .plan(fixed, flexible);
+    }
+
+    /** A 40-minute fixed block every three hours, as meals and comms windows would be. */
+    static List<Task> fixedTasks() {
+        List<Task> out = new ArrayList<>();
+        for (int h = 0; h < 24; h += 3) out.add(new Task("fixed " + h, LocalTime.of(h, 0), LocalTime.of(h, 40), TaskPriority.HIGH));
+        return out;
+    }
+
+    /** {@code n} tasks of 5 to 95 minutes with windows up to five hours wider than needed. */
+    static List<FlexibleTask> workload(int n, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        List<FlexibleTask> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int duration = 5 + r.nextInt(91);
+            int lo = r.nextInt(24 * 60 - duration);
+            int hi = Math.min(24 * 60, lo + duration + r.nextInt(301));
+            LocalTime end = hi == 24 * 60 ? LocalTime.MAX : LocalTime.of(hi / 60, hi % 60);
+            out.add(new FlexibleTask("flex " + i, Duration.ofMinutes(duration), LocalTime.of(lo / 60, lo % 60), end,
+                    TaskPriority.values()[r.nextInt(3)]));
+        }
+        return out;
+    }
+}
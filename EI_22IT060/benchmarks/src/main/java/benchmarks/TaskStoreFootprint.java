@@ -0,0 +1,99 @@
+package benchmarks;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.scheduler.CompactTaskStore;
+import com.astronaut.scheduler.scheduler.PartitionedScheduleManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Retained heap of the same task set in CompactTaskStore and in
+ * PartitionedScheduleManager (one ScheduleManager per crew member and day), as
+ * CSV. Each engine is filled on its own and measured as the heap in use after
+ * a full GC, less the heap in use before it was created, so the figures
+ * include every object the engine keeps: for ScheduleManager the Tasks with
+ * their LocalTimes and Strings, for CompactTaskStore its columns and the
+ * interned descriptions. Descriptions repeat every {@code --distinct} tasks,
+ * the way daily routines recur over a mission.
+ *
+ * <pre>
+ * java -Xmx4g -cp benchmarks/target/benchmarks.jar benchmarks.TaskStoreFootprint [--tasks 1000000] [--per-schedule 6] [--distinct 100]
+ * </pre>
+ */
+public final class TaskStoreFootprint {
+    private static final int CREW = 1000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private TaskStoreFootprint() {}
+
+    public static void main(String[] args) throws Exception {
+        int tasks = 1_000_000;
+        int perSchedule = 6;
+        int distinct = 100;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--tasks" -> tasks = Integer.parseInt(args[i + 1]);
+                case "--per-schedule" -> perSchedule = Integer.parseInt(args[i + 1]);
+                case "--distinct" -> distinct = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (perSchedule < 1 || perSchedule > 720) throw new IllegalArgumentException("--per-schedule must be 1 to 720.");
+        if (distinct < perSchedule) throw new IllegalArgumentException("--distinct must be at least --per-schedule.");
+        AppLogger.getInstance();
+        Logger.getLogger("AstronautScheduleLogger").setLevel(Level.WARNING);
+
+        System.out.println("engine,tasks,schedules,retained_bytes,bytes_per_task");
+        long partitioned = measurePartitioned(tasks, perSchedule, distinct);
+        long compact = measureCompact(tasks, perSchedule, distinct);
+        System.out.printf("ratio,%d,,%.1f,%n", tasks, (double) partitioned / compact);
+    }
+
+    private static long measurePartitioned(int tasks, int perSchedule, int distinct) throws Exception {
+        long before = usedHeap();
+        PartitionedScheduleManager engine = new PartitionedScheduleManager();
+        for (int i = 0; i < tasks; i++) {
+            int s = i / perSchedule;
+            engine.addTask("crew-" + s % CREW, FIRST_DAY.plusDays(s / CREW), task(i, perSchedule, distinct));
+        }
+        long retained = usedHeap() - before;
+        report("PartitionedScheduleManager", tasks, engine.partitionKeys().size(), retained);
+        return retained;
+    }
+
+    private static long measureCompact(int tasks, int perSchedule, int distinct) throws Exception {
+        long before = usedHeap();
+        CompactTaskStore engine = new CompactTaskStore();
+        for (int i = 0; i < tasks; i++) engine.addTask(i / perSchedule, task(i, perSchedule, distinct));
+        long retained = usedHeap() - before;
+        report("CompactTaskStore", engine.size(), (tasks + perSchedule - 1) / perSchedule, retained);
+        return retained;
+    }
+
+    /** Task {@code i}: a fresh description string and a one-minute slot of its schedule's day. */
+    private static Task task(int i, int perSchedule, int distinct) {
+        int slot = i % perSchedule * (24 * 60 / perSchedule);
+        LocalTime start = LocalTime.of(slot / 60, slot % 60);
+        return new Task("Routine " + i % distinct, start, start.plusMinutes(1), TaskPriority.values()[i % 3]);
+    }
+
+    private static void report(String engine, int tasks, int schedules, long retained) {
+        System.out.printf("%s,%d,%d,%d,%.1f%n", engine, tasks, schedules, retained, (double) retained / tasks);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,134 @@
+package com.astronaut.scheduler.scheduler;
+
+import com.astronaut.scheduler.app.AppLogger;
+import com.astronaut.scheduler.model.ScheduleResult;
+import com.astronaut.scheduler.model.Task;
+import com.astronaut.scheduler.model.TaskPriority;
+import com.astronaut.scheduler.observer.ScheduleObserver;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * ScheduleManager hot paths across schedule sizes and observer counts. Lives in
+ * the scheduler package so every trial gets a fresh manager through the
+ * package-private constructor instead of the singleton.
+ *
+ * The schedule holds {@code size} tasks, each in the first half of an equal
+ * slot of the day. Writers only use the free second halves, and every thread
+ * has its own slots, so adds never conflict at any thread count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleManagerBenchmark {
+    static final long DAY_NANOS = 24L * 60 * 60 * 1_000_000_000L;
+    static final int MAX_THREADS = 64;
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    @Param({"0", "1", "8"})
+    int observers;
+
+    ScheduleManager schedule;
+    long step;
+    final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // measure the scheduler, not console logging; AppLogger sets INFO when created, so create it first
+        AppLogger.getInstance();
+        Logger.getLogger("AstronautScheduleLogger").setLevel(java.util.logging.Level.WARNING);
+        schedule = new ScheduleManager(new CopyOnWriteArrayList<>());
+        for (int i = 0; i < observers; i++) schedule.attachObserver(new CountingObserver());
+        step = DAY_NANOS / (size + 1);
+        TaskPriority[] priorities = TaskPriority.values();
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task("task-" + i, at(i * step), at(i * step + step / 2), priorities[i % priorities.length]));
+        }
+        schedule.addTasks(tasks);
+    }
+
+    static LocalTime at(long nanos) {
+        return LocalTime.ofNanoOfDay(nanos);
+    }
+
+    /** Per-thread probes: free-half tasks in this thread's own slots plus one that always conflicts. */
+    @State(Scope.Thread)
+    public static class Probe {
+        Task[] free;
+        Task conflicting;
+        String existing;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ScheduleManagerBenchmark b) {
+            int id = b.threadIds.getAndIncrement() % MAX_THREADS;
+            List<Task> own = new ArrayList<>();
+            for (int slot = id; slot < b.size; slot += MAX_THREADS) {
+                long s = slot * b.step + b.step / 2;
+                own.add(new Task("probe-" + id + "-" + slot, at(s), at(s + b.step / 4), TaskPriority.MEDIUM));
+            }
+            free = own.toArray(new Task[0]);
+            conflicting = new Task("conflict-" + id, at(id * b.step), at(id * b.step + b.step / 4), TaskPriority.HIGH);
+            existing = "task-" + id;
+        }
+
+        Task nextFree() {
+            Task t = free[next];
+            next = next + 1 == free.length ? 0 : next + 1;
+            return t;
+        }
+    }
+
+    /** Add plus remove, so the schedule size stays fixed across invocations. */
+    @Benchmark
+    public void addThenRemove(Probe p) throws Exception {
+        Task t = p.nextFree();
+        schedule.addTask(t);
+        schedule.removeTask(t.getDescription());
+    }
+
+    @Benchmark
+    public ScheduleResult tryAddRejected(Probe p) {
+        return schedule.tryAddTask(p.conflicting);
+    }
+
+    /** The common case: nothing changed since the last call, so the cached view is returned. */
+    @Benchmark
+    public List<Task> viewAllTasks() {
+        return schedule.viewAllTasks();
+    }
+
+    /** A mutation before every read forces the sorted view to be rebuilt. */
+    @Benchmark
+    public List<Task> viewAllTasksAfterWrite(Probe p) throws Exception {
+        schedule.markCompleted(p.existing);
+        return schedule.viewAllTasks();
+    }
+
+    @Benchmark
+    public List<Task> viewTasksByPriority() {
+        return schedule.viewTasksByPriority(TaskPriority.HIGH);
+    }
+
+    static final class CountingObserver implements ScheduleObserver {
+        long events;
+
+        @Override public void onTaskAdded(Task task) { events++; }
+        @Override public void onTaskRemoved(Task task) { events++; }
+        @Override public void onTaskUpdated(Task task) { events++; }
+        @Override public void onConflict(Task attempted, Task conflicting, String message) { events++; }
+    }
+}